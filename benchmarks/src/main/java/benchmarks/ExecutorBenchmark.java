@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.TileExecutor;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a whole image (without writing it to a file or printing the progress) by all the available
+ * cores, with every executor of the rendering threads - the hand-rolled platform threads, a virtual thread
+ * per tile and a bounded fork-join pool - at several tile sizes, since the executors differ by the overhead
+ * of a tile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorBenchmark {
+    /** The rendered scene */
+    @Param({"TRIANGLES_TRANSPARENT_SPHERE", "TWO_SPHERES_ON_MIRRORS"})
+    public ReflectionRefractionScenes scene;
+
+    /** Executor of the rendering threads */
+    @Param({"THREADS", "VIRTUAL_THREADS", "FORK_JOIN_POOL"})
+    public TileExecutor executor;
+
+    /** Edge length of the tiles in pixels */
+    @Param({"8", "32"})
+    public int tileSize;
+
+    /** Edge length of the (square) image in pixels */
+    private static final int RESOLUTION = 500;
+    /**
+     * Amount of the rendering threads - all the cores, as the virtual threads are scheduled on a carrier
+     * thread per core by default, so every executor renders with the same parallelism
+     */
+    private static final int RENDERING_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** The camera */
+    private Camera camera;
+
+    /**
+     * Builds the scene and the camera
+     */
+    @Setup
+    public void setup() {
+        Scene built = scene.scene();
+        camera = scene.camera(built)
+                .setImageWriter(new ImageWriter(scene.name(), RESOLUTION, RESOLUTION))
+                .setDebugPrint(0)
+                .setMultithreading(RENDERING_THREADS)
+                .setTileExecutor(executor)
+                .setTileSize(tileSize)
+                .build();
+    }
+
+    /**
+     * Renders the image with a single ray per pixel
+     *
+     * @return the camera
+     */
+    @Benchmark
+    public Camera renderImage() {
+        return camera.renderImage(1);
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import geometries.Geometries;
+import geometries.Intersectable.GeoPoint;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.openjdk.jmh.annotations.*;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries on a collection of N random spheres and triangles, with a fixed set of random rays
+ * shot from the origin into the collection (the same rays for every collection size).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometriesBenchmark {
+    /** Amount of rays cycled through by the benchmarks (a power of 2) */
+    private static final int RAYS = 1024;
+
+    /** Amount of geometries in the collection */
+    @Param({"1", "8", "64", "512", "4096"})
+    public int n;
+
+    /** The collection */
+    private Geometries geometries;
+    /** The rays */
+    private final Ray[] rays = new Ray[RAYS];
+    /** Index of the next ray */
+    private int next = 0;
+
+    /**
+     * Builds the collection and the rays (always with the same seed)
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        geometries = new Geometries();
+        for (int i = 0; i < n; ++i) {
+            double x = random.nextDouble() * 400 - 200;
+            double y = random.nextDouble() * 400 - 200;
+            double z = -random.nextDouble() * 400 - 100;
+            if (i % 2 == 0)
+                geometries.add(new Sphere(new Point(x, y, z), 2 + random.nextDouble() * 8));
+            else
+                geometries.add(new Triangle(new Point(x, y, z),
+                        new Point(x + 1 + random.nextDouble() * 15, y, z + random.nextDouble() * 5),
+                        new Point(x, y + 1 + random.nextDouble() * 15, z - random.nextDouble() * 5)));
+        }
+        for (int i = 0; i < RAYS; ++i)
+            rays[i] = new Ray(Point.ZERO,
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+    }
+
+    /**
+     * Takes the next ray
+     *
+     * @return the ray
+     */
+    private Ray nextRay() {
+        return rays[next++ & (RAYS - 1)];
+    }
+
+    /**
+     * Collects all the intersections
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> findGeoIntersections() {
+        return geometries.findGeoIntersections(nextRay());
+    }
+
+    /**
+     * Finds the closest intersection
+     *
+     * @return the closest intersection
+     */
+    @Benchmark
+    public GeoPoint findClosestGeoIntersection() {
+        return geometries.findClosestGeoIntersection(nextRay());
+    }
+
+    /**
+     * Accumulates the transparency along the whole ray (a shadow ray query)
+     *
+     * @return the transparency factor
+     */
+    @Benchmark
+    public Double3 findTransparency() {
+        return geometries.findTransparency(nextRay(), Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersection of a single ray with a single geometry, for every flat and curved geometry,
+ * both for a ray that hits the geometry and for a ray that misses it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+    /** Unit sphere in front of the rays */
+    private final Sphere sphere = new Sphere(new Point(0, 0, -5), 1);
+    /** Plane crossed by the hitting ray */
+    private final Plane plane = new Plane(new Point(0, 0, -5), new Vector(0, 0.2, 1));
+    /** Triangle around the hitting ray */
+    private final Triangle triangle = new Triangle(new Point(-1, -1, -5), new Point(1, -1, -5), new Point(0, 1, -5));
+    /** Square around the hitting ray */
+    private final Polygon polygon = new Polygon(new Point(-1, -1, -5), new Point(1, -1, -5),
+            new Point(1, 1, -5), new Point(-1, 1, -5));
+
+    /** Ray that hits every geometry */
+    private final Ray hit = new Ray(new Point(0.1, 0.1, 0), new Vector(0, 0, -1));
+    /** Ray that misses the bounded geometries (and is parallel to nothing) */
+    private final Ray miss = new Ray(new Point(0.1, 0.1, 0), new Vector(1, 1, -1));
+
+    /**
+     * Ray hitting a sphere
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> sphereHit() {
+        return sphere.findGeoIntersections(hit);
+    }
+
+    /**
+     * Ray missing a sphere
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> sphereMiss() {
+        return sphere.findGeoIntersections(miss);
+    }
+
+    /**
+     * Ray hitting a plane
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> planeHit() {
+        return plane.findGeoIntersections(hit);
+    }
+
+    /**
+     * Ray hitting a triangle
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> triangleHit() {
+        return triangle.findGeoIntersections(hit);
+    }
+
+    /**
+     * Ray crossing the plane of a triangle outside the triangle
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> triangleMiss() {
+        return triangle.findGeoIntersections(miss);
+    }
+
+    /**
+     * Ray hitting a polygon
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> polygonHit() {
+        return polygon.findGeoIntersections(hit);
+    }
+
+    /**
+     * Ray crossing the plane of a polygon outside the polygon
+     *
+     * @return the intersections
+     */
+    @Benchmark
+    public List<GeoPoint> polygonMiss() {
+        return polygon.findGeoIntersections(miss);
+    }
+}
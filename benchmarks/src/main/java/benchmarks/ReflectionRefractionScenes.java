@@ -0,0 +1,129 @@
+package benchmarks;
+
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.SpotLight;
+import primitives.*;
+import renderer.Camera;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import static java.awt.Color.*;
+
+/**
+ * The scenes of the reflection and refraction render tests (renderer.ReflectionRefractionTests),
+ * rebuilt here so that the benchmarks trace exactly the same geometry, materials and lights.
+ */
+public enum ReflectionRefractionScenes {
+    /** Two nested spheres, the outer one transparent */
+    TWO_SPHERES(1000, 150) {
+        @Override
+        void fill(Scene scene) {
+            scene.geometries.add(
+                    new Sphere(new Point(0, 0, -50), 50d).setEmission(new Color(BLUE))
+                            .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setKt(0.3)),
+                    new Sphere(new Point(0, 0, -50), 25d).setEmission(new Color(RED))
+                            .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)));
+            scene.lights.add(
+                    new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2))
+                            .setKl(0.0004).setKq(0.0000006));
+        }
+    },
+    /** Two spheres in front of two mirrors */
+    TWO_SPHERES_ON_MIRRORS(10000, 2500) {
+        @Override
+        void fill(Scene scene) {
+            scene.geometries.add(
+                    new Sphere(new Point(-950, -900, -1000), 400d)
+                            .setEmission(new Color(0, 50, 100))
+                            .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)
+                                    .setKt(new Double3(0.5, 0, 0))),
+                    new Sphere(new Point(-950, -900, -1000), 200d)
+                            .setEmission(new Color(100, 50, 20))
+                            .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                    new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                            new Point(670, 670, 3000))
+                            .setEmission(new Color(20, 20, 20))
+                            .setMaterial(new Material().setKr(1)),
+                    new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                            new Point(-1500, -1500, -2000))
+                            .setEmission(new Color(20, 20, 20))
+                            .setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+            scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+            scene.lights.add(new SpotLight(new Color(1020, 400, 400),
+                    new Point(-750, -750, -150),
+                    new Vector(-1, -1, -4))
+                    .setKl(0.00001).setKq(0.000005));
+        }
+    },
+    /** Two triangles partially shadowed by a transparent sphere */
+    TRIANGLES_TRANSPARENT_SPHERE(1000, 200) {
+        @Override
+        void fill(Scene scene) {
+            scene.geometries.add(
+                    new Triangle(new Point(-150, -150, -115),
+                            new Point(150, -150, -135),
+                            new Point(75, 75, -150))
+                            .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                    new Triangle(new Point(-150, -150, -115),
+                            new Point(-70, 70, -140),
+                            new Point(75, 75, -150))
+                            .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                    new Sphere(new Point(60, 50, -50), 30d).setEmission(new Color(BLUE))
+                            .setMaterial(new Material().setKd(0.2).setKs(0.2).setShininess(30).setKt(0.6)));
+            scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+            scene.lights.add(
+                    new SpotLight(new Color(700, 400, 400), new Point(60, 50, 0), new Vector(0, 0, -1))
+                            .setKl(4E-5).setKq(2E-7));
+        }
+    };
+
+    /** Distance of the camera from the view plane (the camera looks at the origin along -z) */
+    private final double distance;
+    /** Edge length of the (square) view plane */
+    private final double size;
+
+    /**
+     * Constructs a scene description
+     *
+     * @param distance the distance of the camera from the view plane
+     * @param size     the edge length of the view plane
+     */
+    ReflectionRefractionScenes(double distance, double size) {
+        this.distance = distance;
+        this.size = size;
+    }
+
+    /**
+     * Adds the geometries and lights of the scene
+     *
+     * @param scene the (empty) scene to fill
+     */
+    abstract void fill(Scene scene);
+
+    /**
+     * Builds the scene
+     *
+     * @return the scene
+     */
+    Scene scene() {
+        Scene scene = new Scene(name());
+        fill(scene);
+        return scene;
+    }
+
+    /**
+     * Prepares a camera builder looking at the scene like the render test does (without an image writer)
+     *
+     * @param scene the scene built by {@link #scene()}
+     * @return the camera builder
+     */
+    Camera.Builder camera(Scene scene) {
+        return Camera.getBuilder()
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setLocation(new Point(0, 0, distance)).setVpDistance(distance)
+                .setVpSize(size, size);
+    }
+}
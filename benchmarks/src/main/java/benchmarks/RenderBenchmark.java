@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import renderer.Camera;
+import renderer.ImageWriter;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a whole image (without writing it to a file or printing the progress) at several resolutions,
+ * both with a single thread and with all the available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+    /** The rendered scene */
+    @Param({"TRIANGLES_TRANSPARENT_SPHERE", "TWO_SPHERES_ON_MIRRORS"})
+    public ReflectionRefractionScenes scene;
+
+    /** Edge length of the (square) image in pixels */
+    @Param({"100", "250", "500"})
+    public int resolution;
+
+    /** Rendering threads - as in {@link Camera.Builder#setMultithreading(int)} */
+    @Param({"0", "-2"})
+    public int threads;
+
+    /** The camera */
+    private Camera camera;
+
+    /**
+     * Builds the scene and the camera
+     */
+    @Setup
+    public void setup() {
+        Scene built = scene.scene();
+        camera = scene.camera(built)
+                .setImageWriter(new ImageWriter(scene.name(), resolution, resolution))
+                .setDebugPrint(0)
+                .setMultithreading(threads)
+                .build();
+    }
+
+    /**
+     * Renders the image with a single ray per pixel
+     *
+     * @return the camera
+     */
+    @Benchmark
+    public Camera renderImage() {
+        return camera.renderImage(1);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Ray;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracing of a single camera ray (with the recursive reflections, refractions and shadows) in the
+ * scenes of the reflection and refraction render tests.
+ * The rays cycle over all the pixels of a 64x64 image of the scene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceRayBenchmark {
+    /** Image resolution of the camera rays */
+    private static final int RESOLUTION = 64;
+
+    /** The traced scene */
+    @Param({"TWO_SPHERES", "TWO_SPHERES_ON_MIRRORS", "TRIANGLES_TRANSPARENT_SPHERE"})
+    public ReflectionRefractionScenes scene;
+
+    /** The ray tracer of the scene */
+    private SimpleRayTracer rayTracer;
+    /** The camera rays, row by row */
+    private Ray[] rays;
+    /** Index of the next ray */
+    private int next = 0;
+
+    /**
+     * Builds the scene and the camera rays through all the pixels
+     */
+    @Setup
+    public void setup() {
+        Scene built = scene.scene();
+        rayTracer = new SimpleRayTracer(built);
+        Camera camera = scene.camera(built)
+                .setImageWriter(new ImageWriter(scene.name(), RESOLUTION, RESOLUTION))
+                .build();
+        rays = new Ray[RESOLUTION * RESOLUTION];
+        for (int i = 0; i < RESOLUTION; ++i)
+            for (int j = 0; j < RESOLUTION; ++j)
+                rays[i * RESOLUTION + j] = camera.constructRay(RESOLUTION, RESOLUTION, j, i);
+    }
+
+    /**
+     * Traces the next camera ray
+     *
+     * @return the color of the ray
+     */
+    @Benchmark
+    public Color traceRay() {
+        Ray ray = rays[next];
+        next = (next + 1) % rays.length;
+        return rayTracer.traceRay(ray);
+    }
+}
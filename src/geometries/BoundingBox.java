@@ -0,0 +1,274 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Axis-aligned bounding box (AABB) of an intersectable object.
+ * The box is used for quickly rejecting rays that can't hit the object and as the
+ * building block of the bounding volume hierarchy.
+ */
+public class BoundingBox {
+    /**
+     * Padding added around every box in the slab test, so that an intersection point that
+     * lays exactly on a flat geometry is never rejected because of floating point rounding
+     */
+    private static final double PADDING = 1e-6;
+
+    /** Minimal x coordinate of the box */
+    final double minX;
+    /** Minimal y coordinate of the box */
+    final double minY;
+    /** Minimal z coordinate of the box */
+    final double minZ;
+    /** Maximal x coordinate of the box */
+    final double maxX;
+    /** Maximal y coordinate of the box */
+    final double maxY;
+    /** Maximal z coordinate of the box */
+    final double maxZ;
+
+    /**
+     * Constructs a bounding box by its minimal and maximal coordinates.
+     *
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param minZ minimal z coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     * @param maxZ maximal z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest bounding box that contains all the given points.
+     *
+     * @param points the points to enclose
+     * @throws IllegalArgumentException if no points are given
+     */
+    public BoundingBox(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A bounding box must contain at least one point");
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY, z1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY, z2 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x1 = Math.min(x1, p.getX());
+            y1 = Math.min(y1, p.getY());
+            z1 = Math.min(z1, p.getZ());
+            x2 = Math.max(x2, p.getX());
+            y2 = Math.max(y2, p.getY());
+            z2 = Math.max(z2, p.getZ());
+        }
+        this.minX = x1;
+        this.minY = y1;
+        this.minZ = z1;
+        this.maxX = x2;
+        this.maxY = y2;
+        this.maxZ = z2;
+    }
+
+    /**
+     * Builds the smallest box containing both this box and another one.
+     *
+     * @param other the other box
+     * @return the union box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Gets the minimal corner of the box.
+     *
+     * @return the point with the minimal coordinates
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * Gets the maximal corner of the box.
+     *
+     * @return the point with the maximal coordinates
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Calculates the coordinate of the box center along an axis.
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return the center coordinate along the axis
+     */
+    double center(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Calculates the surface area of the box (used by the surface area heuristic).
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Ray prepared for repeated slab tests: the head coordinates and the inverse of the
+     * direction components are calculated once per ray instead of once per tested box.
+     *
+     * @param ox x coordinate of the ray head
+     * @param oy y coordinate of the ray head
+     * @param oz z coordinate of the ray head
+     * @param ix inverse of the x component of the ray direction (infinite if the component is zero)
+     * @param iy inverse of the y component of the ray direction (infinite if the component is zero)
+     * @param iz inverse of the z component of the ray direction (infinite if the component is zero)
+     */
+    record SlabRay(double ox, double oy, double oz, double ix, double iy, double iz) {
+        /**
+         * Prepares a ray for slab tests
+         *
+         * @param ray the ray
+         * @return the prepared ray
+         */
+        static SlabRay of(Ray ray) {
+            Point head = ray.getHead();
+            Vector dir = ray.getDirection();
+            return new SlabRay(head.getX(), head.getY(), head.getZ(),
+                    1 / dir.getX(), 1 / dir.getY(), 1 / dir.getZ());
+        }
+    }
+
+    /**
+     * Checks whether a ray crosses the box in front of its head (slab test).
+     *
+     * @param ray the ray to check
+     * @return true if the ray crosses the box, false otherwise
+     */
+    public boolean intersects(Ray ray) {
+        return intersects(SlabRay.of(ray), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Checks whether a ray crosses the box in front of its head and not further than a given
+     * distance (slab test).
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the maximal distance from the ray head
+     * @return true if the ray crosses the box within the distance, false otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return intersects(SlabRay.of(ray), maxDistance);
+    }
+
+    /**
+     * Checks whether a prepared ray crosses the box in front of its head and not further than a
+     * given distance (slab test).
+     *
+     * @param ray         the prepared ray
+     * @param maxDistance the maximal distance from the ray head
+     * @return true if the ray crosses the box within the distance, false otherwise
+     */
+    boolean intersects(SlabRay ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the distance from the head of a prepared ray to the point where it enters the box
+     * (slab test). A ray that starts inside the box enters it at its head.
+     *
+     * @param ray         the prepared ray
+     * @param maxDistance the maximal distance from the ray head
+     * @return the entry distance, or positive infinity if the ray doesn't cross the box within
+     * the distance
+     */
+    double entryDistance(SlabRay ray, double maxDistance) {
+        return entryDistance(ray, maxDistance, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Calculates the distance from the head of a prepared ray to the point where it enters a box
+     * given by its coordinates (slab test), for structures that keep their boxes in flat arrays.
+     * A ray that starts inside the box enters it at its head.
+     *
+     * @param ray         the prepared ray
+     * @param maxDistance the maximal distance from the ray head
+     * @param minX        minimal x coordinate of the box
+     * @param minY        minimal y coordinate of the box
+     * @param minZ        minimal z coordinate of the box
+     * @param maxX        maximal x coordinate of the box
+     * @param maxY        maximal y coordinate of the box
+     * @param maxZ        maximal z coordinate of the box
+     * @return the entry distance, or positive infinity if the ray doesn't cross the box within
+     * the distance
+     */
+    static double entryDistance(SlabRay ray, double maxDistance, double minX, double minY, double minZ,
+                                double maxX, double maxY, double maxZ) {
+        final double MISS = Double.POSITIVE_INFINITY;
+        double tMin = 0;
+        double tMax = maxDistance;
+
+        // x slab - a ray parallel to the slab crosses it only if it starts inside it
+        if (Double.isInfinite(ray.ix)) {
+            if (ray.ox < minX - PADDING || ray.ox > maxX + PADDING) return MISS;
+        } else {
+            double t1 = (minX - PADDING - ray.ox) * ray.ix;
+            double t2 = (maxX + PADDING - ray.ox) * ray.ix;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tMin) tMin = t1;
+            if (t2 < tMax) tMax = t2;
+            if (tMin > tMax) return MISS;
+        }
+
+        // y slab
+        if (Double.isInfinite(ray.iy)) {
+            if (ray.oy < minY - PADDING || ray.oy > maxY + PADDING) return MISS;
+        } else {
+            double t1 = (minY - PADDING - ray.oy) * ray.iy;
+            double t2 = (maxY + PADDING - ray.oy) * ray.iy;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tMin) tMin = t1;
+            if (t2 < tMax) tMax = t2;
+            if (tMin > tMax) return MISS;
+        }
+
+        // z slab
+        if (Double.isInfinite(ray.iz)) {
+            if (ray.oz < minZ - PADDING || ray.oz > maxZ + PADDING) return MISS;
+        } else {
+            double t1 = (minZ - PADDING - ray.oz) * ray.iz;
+            double t2 = (maxZ + PADDING - ray.oz) * ray.iz;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tMin) tMin = t1;
+            if (t2 < tMax) tMax = t2;
+            if (tMin > tMax) return MISS;
+        }
+        return tMin;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
@@ -0,0 +1,326 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy (BVH) acceleration structure over a collection of intersectables.
+ * The tree is built top-down using the surface area heuristic (SAH): every node is split at the
+ * position (along one of the three axes) that minimizes the expected cost of tracing a ray through
+ * the two children. Unbounded objects (e.g. planes) can't be placed in the tree, so they are kept
+ * aside and tested against every ray.
+ */
+class BoundingVolumeHierarchy {
+    /** Maximal number of objects in a leaf that the heuristic may decide not to split */
+    private static final int MAX_LEAF_SIZE = 4;
+    /** Estimated cost of testing a ray against a bounding box, relative to an object test */
+    private static final double TRAVERSAL_COST = 0.125;
+    /** Estimated cost of testing a ray against an object */
+    private static final double INTERSECTION_COST = 1;
+
+    /**
+     * Node of the hierarchy - either an inner node with two children or a leaf with objects
+     */
+    private static class Node {
+        /** Bounding box of everything under the node */
+        final BoundingBox box;
+        /** Left child (null in a leaf) */
+        final Node left;
+        /** Right child (null in a leaf) */
+        final Node right;
+        /** Objects of a leaf (null in an inner node) */
+        final Intersectable[] objects;
+
+        /**
+         * Constructs an inner node
+         *
+         * @param box   bounding box of both children
+         * @param left  left child
+         * @param right right child
+         */
+        Node(BoundingBox box, Node left, Node right) {
+            this.box = box;
+            this.left = left;
+            this.right = right;
+            this.objects = null;
+        }
+
+        /**
+         * Constructs a leaf
+         *
+         * @param box     bounding box of the objects
+         * @param objects the objects in the leaf
+         */
+        Node(BoundingBox box, Intersectable[] objects) {
+            this.box = box;
+            this.left = null;
+            this.right = null;
+            this.objects = objects;
+        }
+    }
+
+    /**
+     * Bounded object together with its (pre-calculated) bounding box
+     *
+     * @param object the object
+     * @param box    its bounding box
+     */
+    private record Entry(Intersectable object, BoundingBox box) {}
+
+    /** Root of the tree, null if there are no bounded objects */
+    private final Node root;
+    /** Objects without a bounding box */
+    private final Intersectable[] unbounded;
+
+    /**
+     * Builds the hierarchy over the given objects
+     *
+     * @param objects the objects to organize
+     */
+    BoundingVolumeHierarchy(List<Intersectable> objects) {
+        List<Entry> bounded = new LinkedList<>();
+        List<Intersectable> infinite = new LinkedList<>();
+        for (Intersectable object : objects) {
+            if (object.isBounded()) bounded.add(new Entry(object, object.getBoundingBox()));
+            else infinite.add(object);
+        }
+        unbounded = infinite.toArray(new Intersectable[0]);
+        root = bounded.isEmpty() ? null : build(bounded.toArray(new Entry[0]));
+    }
+
+    /**
+     * Recursively builds a sub-tree using the surface area heuristic
+     *
+     * @param entries the objects of the sub-tree
+     * @return the root node of the sub-tree
+     */
+    private static Node build(Entry[] entries) {
+        int n = entries.length;
+        BoundingBox box = entries[0].box;
+        for (int i = 1; i < n; ++i) box = box.union(entries[i].box);
+        if (n <= 2) return leaf(box, entries);
+
+        // Find the cheapest split over all three axes
+        double parentArea = box.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestSplit = -1;
+        double[] rightAreas = new double[n];
+        for (int axis = 0; axis < 3; ++axis) {
+            sort(entries, axis);
+            // sweep from the right to collect the areas of all the right-hand groups
+            BoundingBox right = entries[n - 1].box;
+            for (int i = n - 1; i > 0; --i) {
+                right = right.union(entries[i].box);
+                rightAreas[i] = right.surfaceArea();
+            }
+            // sweep from the left and evaluate the heuristic at every split position
+            BoundingBox left = entries[0].box;
+            for (int i = 1; i < n; ++i) {
+                double cost = TRAVERSAL_COST + INTERSECTION_COST
+                        * (left.surfaceArea() * i + rightAreas[i] * (n - i)) / parentArea;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = i;
+                }
+                left = left.union(entries[i].box);
+            }
+        }
+
+        // Keep small groups together if splitting them doesn't pay off
+        if (n <= MAX_LEAF_SIZE && bestCost >= n * INTERSECTION_COST)
+            return leaf(box, entries);
+
+        // A degenerate (flat axis-aligned) group gives no usable costs - split it in the middle
+        if (bestSplit < 0) {
+            bestAxis = 0;
+            bestSplit = n / 2;
+        }
+
+        sort(entries, bestAxis);
+        return new Node(box,
+                build(Arrays.copyOfRange(entries, 0, bestSplit)),
+                build(Arrays.copyOfRange(entries, bestSplit, n)));
+    }
+
+    /**
+     * Sorts the entries by the centers of their boxes along an axis
+     *
+     * @param entries the entries to sort
+     * @param axis    0 for x, 1 for y and 2 for z
+     */
+    private static void sort(Entry[] entries, int axis) {
+        Arrays.sort(entries, Comparator.comparingDouble(e -> e.box.center(axis)));
+    }
+
+    /**
+     * Creates a leaf node
+     *
+     * @param box     bounding box of the entries
+     * @param entries the entries in the leaf
+     * @return the leaf
+     */
+    private static Node leaf(BoundingBox box, Entry[] entries) {
+        Intersectable[] objects = new Intersectable[entries.length];
+        for (int i = 0; i < entries.length; ++i) objects[i] = entries[i].object;
+        return new Node(box, objects);
+    }
+
+    /**
+     * Finds all the intersections of a ray with the objects in the hierarchy
+     *
+     * @param ray the ray
+     * @return a list of intersections, or null if there are none
+     */
+    List<GeoPoint> findGeoIntersections(Ray ray) {
+        List<GeoPoint> points = null;
+        for (Intersectable object : unbounded)
+            points = addIntersections(object, ray, points);
+        return root == null ? points : findGeoIntersections(root, ray, BoundingBox.SlabRay.of(ray), points);
+    }
+
+    /**
+     * Recursively collects the intersections of a ray with the objects of a sub-tree
+     *
+     * @param node     root of the sub-tree
+     * @param ray      the ray
+     * @param slabRay  the ray prepared for the box tests
+     * @param points   the intersections found so far (may be null)
+     * @return the intersections found so far, or null if none were found yet
+     */
+    private static List<GeoPoint> findGeoIntersections(Node node, Ray ray, BoundingBox.SlabRay slabRay,
+                                                       List<GeoPoint> points) {
+        if (!node.box.intersects(slabRay, Double.POSITIVE_INFINITY)) return points;
+        if (node.objects != null) {
+            for (Intersectable object : node.objects)
+                points = addIntersections(object, ray, points);
+            return points;
+        }
+        points = findGeoIntersections(node.left, ray, slabRay, points);
+        return findGeoIntersections(node.right, ray, slabRay, points);
+    }
+
+    /**
+     * Adds the intersections of a ray with a single object to the list
+     *
+     * @param object the object
+     * @param ray    the ray
+     * @param points the intersections found so far (may be null)
+     * @return the intersections found so far, or null if none were found yet
+     */
+    private static List<GeoPoint> addIntersections(Intersectable object, Ray ray, List<GeoPoint> points) {
+        IntersectionCounter.count(object);
+        List<GeoPoint> objectIntersections = object.findGeoIntersectionsHelper(ray);
+        if (objectIntersections == null || objectIntersections.isEmpty()) return points;
+        if (points == null) points = new LinkedList<>();
+        points.addAll(objectIntersections);
+        return points;
+    }
+
+    /**
+     * Calculates the transparency factor along a ray up to a maximal distance, skipping the
+     * sub-trees whose boxes the ray doesn't reach and stopping at the first opaque blocker
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance from the ray head
+     * @param ktr         the transparency factor accumulated so far
+     * @return the attenuated transparency factor
+     */
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr) {
+        for (Intersectable object : unbounded) {
+            IntersectionCounter.count(object);
+            ktr = object.findTransparencyHelper(ray, maxDistance, ktr);
+            if (ktr.equals(Double3.ZERO)) return ktr;
+        }
+        return root == null ? ktr : findTransparency(root, ray, BoundingBox.SlabRay.of(ray), maxDistance, ktr);
+    }
+
+    /**
+     * Recursively calculates the transparency factor along a ray through a sub-tree
+     *
+     * @param node        root of the sub-tree
+     * @param ray         the ray
+     * @param slabRay     the ray prepared for the box tests
+     * @param maxDistance the maximal distance from the ray head
+     * @param ktr         the transparency factor accumulated so far
+     * @return the attenuated transparency factor
+     */
+    private static Double3 findTransparency(Node node, Ray ray, BoundingBox.SlabRay slabRay, double maxDistance,
+                                            Double3 ktr) {
+        if (!node.box.intersects(slabRay, maxDistance)) return ktr;
+        if (node.objects != null) {
+            for (Intersectable object : node.objects) {
+                IntersectionCounter.count(object);
+                ktr = object.findTransparencyHelper(ray, maxDistance, ktr);
+                if (ktr.equals(Double3.ZERO)) return ktr;
+            }
+            return ktr;
+        }
+        ktr = findTransparency(node.left, ray, slabRay, maxDistance, ktr);
+        return ktr.equals(Double3.ZERO) ? ktr : findTransparency(node.right, ray, slabRay, maxDistance, ktr);
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the objects in the hierarchy.
+     * The children of every node are visited front to back, and a sub-tree is skipped whenever
+     * its box is entered beyond the best hit found so far.
+     *
+     * @param ray the ray
+     * @param hit the best hit found so far (updated in place)
+     */
+    void findClosestIntersection(Ray ray, Intersectable.ClosestHit hit) {
+        for (Intersectable object : unbounded) {
+            IntersectionCounter.count(object);
+            object.findClosestIntersectionHelper(ray, hit);
+        }
+        if (root == null) return;
+        BoundingBox.SlabRay slabRay = BoundingBox.SlabRay.of(ray);
+        if (root.box.intersects(slabRay, hit.distance))
+            findClosestIntersection(root, ray, slabRay, hit);
+    }
+
+    /**
+     * Recursively finds the closest intersection of a ray with the objects of a sub-tree whose box
+     * is known to be crossed by the ray
+     *
+     * @param node    root of the sub-tree
+     * @param ray     the ray
+     * @param slabRay the ray prepared for the box tests
+     * @param hit     the best hit found so far (updated in place)
+     */
+    private static void findClosestIntersection(Node node, Ray ray, BoundingBox.SlabRay slabRay,
+                                                Intersectable.ClosestHit hit) {
+        if (node.objects != null) {
+            for (Intersectable object : node.objects) {
+                IntersectionCounter.count(object);
+                object.findClosestIntersectionHelper(ray, hit);
+            }
+            return;
+        }
+
+        Node near = node.left;
+        Node far = node.right;
+        double nearDistance = near.box.entryDistance(slabRay, hit.distance);
+        double farDistance = far.box.entryDistance(slabRay, hit.distance);
+        if (farDistance < nearDistance) {
+            near = node.right;
+            far = node.left;
+            double d = nearDistance;
+            nearDistance = farDistance;
+            farDistance = d;
+        }
+
+        if (nearDistance < hit.distance)
+            findClosestIntersection(near, ray, slabRay, hit);
+        // the far child is worth visiting only if it is entered before the best hit so far
+        if (farDistance < hit.distance)
+            findClosestIntersection(far, ray, slabRay, hit);
+    }
+}
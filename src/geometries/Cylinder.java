@@ -10,6 +10,9 @@ import primitives.Vector;
  */
 public class Cylinder extends Tube {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The height of the cylinder.
      */
@@ -59,5 +62,28 @@ public class Cylinder extends Tube {
         //return the normalized vector
         return point.subtract(p1).normalize();
     }
+
+    /**
+     * Calculates the bounding box of the (finite) cylinder - the box of its two bases.
+     * A base disc with the unit axis direction v extends by radius * sqrt(1 - v_i^2)
+     * around its center along each axis i.
+     *
+     * @return the bounding box of the cylinder
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Point p0 = axis.getHead();
+        Vector v = axis.getDirection();
+        Point p1 = p0.add(v.scale(height));
+
+        double ex = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+        return new BoundingBox(
+                Math.min(p0.getX(), p1.getX()) - ex, Math.min(p0.getY(), p1.getY()) - ey,
+                Math.min(p0.getZ(), p1.getZ()) - ez,
+                Math.max(p0.getX(), p1.getX()) + ex, Math.max(p0.getY(), p1.getY()) + ey,
+                Math.max(p0.getZ(), p1.getZ()) + ez);
+    }
 }
 
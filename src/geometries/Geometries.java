@@ -1,16 +1,40 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Ray;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Geometries class represents a collection of intersectable geometries.
  * It allows adding multiple geometries and finding their intersection points with a given ray.
  */
 public class Geometries extends Intersectable {
-    private final List<Intersectable> geometries = new LinkedList<>();
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of geometries in the collection above which a bounding volume hierarchy is used
+     * instead of iterating over all the geometries
+     */
+    private static final int HIERARCHY_THRESHOLD = 8;
+
+    /**
+     * Number of modifications of all the collections so far - a collection may be nested in several others,
+     * so it can't notify the collections containing it, and they compare the count instead
+     */
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
+
+    private final LinkedList<Intersectable> geometries = new LinkedList<>();
+    /**
+     * Bounding volume hierarchy over the geometries, built lazily on the first query and
+     * dropped whenever any collection changes (it isn't serialized, the receiver builds its own)
+     */
+    private transient volatile BoundingVolumeHierarchy hierarchy = null;
+    /** Modification count at which the cached bounding box and hierarchy were last validated */
+    private transient volatile long validated = -1;
 
     /**
      * Default constructor. Initializes an empty list of geometries.
@@ -28,7 +52,9 @@ public class Geometries extends Intersectable {
     }
 
     /**
-     * Adds the given geometries to the collection.
+     * Adds the given geometries to the collection.<br/>
+     * The collections containing this one (directly or not) drop their cached bounding boxes and
+     * hierarchies on their next query as well.
      *
      * @param geometries the geometries to add
      */
@@ -36,6 +62,71 @@ public class Geometries extends Intersectable {
         for (Intersectable geometry : geometries) {
             this.geometries.add(geometry);
         }
+        hierarchy = null;
+        resetBoundingBox();
+        MODIFICATIONS.incrementAndGet();
+    }
+
+    /**
+     * Drops the cached bounding box and hierarchy if any collection has been modified since they were
+     * last validated - the nested collections are validated when the box or the hierarchy is rebuilt.
+     */
+    private void validate() {
+        long modifications = MODIFICATIONS.get();
+        if (validated == modifications) return;
+        synchronized (this) {
+            if (validated == modifications) return;
+            hierarchy = null;
+            resetBoundingBox();
+            validated = modifications;
+        }
+    }
+
+    /**
+     * Validates the nested collections, so their bounding boxes are up-to-date
+     */
+    private void validateNested() {
+        for (Intersectable geometry : geometries)
+            if (geometry instanceof Geometries nested)
+                nested.validate();
+    }
+
+    /**
+     * Gets the bounding volume hierarchy of the collection, building it if needed.
+     *
+     * @return the bounding volume hierarchy
+     */
+    private BoundingVolumeHierarchy getHierarchy() {
+        BoundingVolumeHierarchy result = hierarchy;
+        if (result == null) {
+            synchronized (this) {
+                result = hierarchy;
+                if (result == null) {
+                    validateNested();
+                    hierarchy = result = new BoundingVolumeHierarchy(geometries);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the bounding box of the whole collection.
+     *
+     * @return the union of the geometries' boxes, or null if the collection is empty or any
+     * of the geometries is unbounded
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        validateNested();
+        BoundingBox box = null;
+        for (Intersectable geometry : geometries) {
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            // a single infinite geometry makes the whole collection unbounded
+            if (geometryBox == null) return null;
+            box = box == null ? geometryBox : box.union(geometryBox);
+        }
+        return box;
     }
 
     /**
@@ -46,10 +137,21 @@ public class Geometries extends Intersectable {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        validate();
+        // Large collections are traversed through the bounding volume hierarchy
+        if (geometries.size() > HIERARCHY_THRESHOLD)
+            return getHierarchy().findGeoIntersections(ray);
+
+        // A ray that misses the box of the whole collection can't hit any of the geometries
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray))
+            return null;
+
         List<GeoPoint> points = null; // Initialize the list variable as null
 
         // Iterate over all geometries in the composite structure
         for (Intersectable geometry : this.geometries) {
+            IntersectionCounter.count(geometry);
             // Find intersection points of the current geometry with the given ray
             List<GeoPoint> geometryIntersections = geometry.findGeoIntersectionsHelper(ray);
 
@@ -67,4 +169,46 @@ public class Geometries extends Intersectable {
         // Return the list of intersection points, or null if no intersections were found
         return points;
     }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        validate();
+        // Large collections are traversed through the bounding volume hierarchy
+        if (geometries.size() > HIERARCHY_THRESHOLD) {
+            getHierarchy().findClosestIntersection(ray, hit);
+            return;
+        }
+
+        // A ray that misses the box of the whole collection can't hit any of the geometries
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, hit.distance))
+            return;
+
+        for (Intersectable geometry : this.geometries) {
+            IntersectionCounter.count(geometry);
+            geometry.findClosestIntersectionHelper(ray, hit);
+        }
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        validate();
+        // Large collections are traversed through the bounding volume hierarchy
+        if (geometries.size() > HIERARCHY_THRESHOLD)
+            return getHierarchy().findTransparency(ray, maxDistance, ktr);
+
+        // A ray that misses the box of the whole collection isn't blocked by any of the geometries
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return ktr;
+
+        for (Intersectable geometry : this.geometries) {
+            IntersectionCounter.count(geometry);
+            ktr = geometry.findTransparencyHelper(ray, maxDistance, ktr);
+            // Stop at the first opaque blocker - no light passes through
+            if (ktr.equals(Double3.ZERO))
+                break;
+        }
+        return ktr;
+    }
 }
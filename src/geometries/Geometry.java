@@ -1,8 +1,10 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -11,6 +13,9 @@ import primitives.Vector;
  */
 public abstract class Geometry extends Intersectable {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     // The emission color of the geometry
     protected Color emission = Color.BLACK;
 
@@ -64,4 +69,57 @@ public abstract class Geometry extends Intersectable {
      * @return the normal vector at the given point
      */
     public abstract Vector getNormal(Point point);
+
+    /**
+     * Gets the normal vector to the geometry at an intersection point.
+     * Composite geometries (e.g. a {@link Mesh}) override it to use the element that was hit
+     * instead of searching for it by the point.
+     *
+     * @param gp the intersection point on this geometry
+     * @return the normal vector at the intersection point
+     */
+    public Vector getNormal(GeoPoint gp) {
+        return getNormal(gp.point);
+    }
+
+    /**
+     * Counts the intersections of a ray with the geometry that are not further than a given
+     * distance from the ray head (without building the intersection points).
+     *
+     * @param ray         the ray to intersect with the geometry
+     * @param maxDistance the maximal distance from the ray head
+     * @return the number of intersections within the distance
+     */
+    protected abstract int countIntersections(Ray ray, double maxDistance);
+
+    /**
+     * Finds the distance from the ray head to the closest intersection of the ray with the
+     * geometry (without building the intersection point).
+     *
+     * @param ray         the ray to intersect with the geometry
+     * @param maxDistance the maximal distance from the ray head
+     * @return the distance to the closest intersection if it is closer than maxDistance,
+     * positive infinity otherwise
+     */
+    protected abstract double findClosestDistance(Ray ray, double maxDistance);
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        double t = findClosestDistance(ray, hit.distance);
+        if (t < hit.distance) {
+            hit.distance = t;
+            hit.geometry = this;
+            hit.index = -1;
+            hit.u = hit.v = Double.NaN;
+        }
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        int count = countIntersections(ray, maxDistance);
+        // Every crossing of the geometry surface attenuates the light by the transparency coefficient
+        for (int i = 0; i < count && !ktr.equals(Double3.ZERO); ++i)
+            ktr = ktr.product(material.kT);
+        return ktr;
+    }
 }
@@ -1,15 +1,24 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * Abstract class representing an Intersectable object in the scene.
  * Provides methods to find intersections of rays with geometrical objects.
  */
-public abstract class Intersectable {
+public abstract class Intersectable implements Serializable {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** Cached bounding box of the object (null for an unbounded object), recalculated after deserialization */
+    private transient volatile BoundingBox boundingBox = null;
+    /** Flag whether the bounding box has already been calculated and cached */
+    private transient volatile boolean boundingBoxCalculated = false;
 
     /**
      * Helper method to find intersections of a ray with geometries.
@@ -41,12 +50,130 @@ public abstract class Intersectable {
         return findGeoIntersectionsHelper(ray);
     }
 
+    /**
+     * Finds the closest intersection of a ray with the object.
+     * Unlike {@link #findGeoIntersections(Ray)} the query doesn't collect all the intersections:
+     * it carries the distance of the best hit found so far, so every geometry rejects its
+     * intersections beyond it, and only the single closest hit is turned into a GeoPoint.
+     *
+     * @param ray the ray to intersect with the object
+     * @return the closest intersection, or null if there are no intersections
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the object that is closer than a given
+     * distance from the ray head.
+     *
+     * @param ray         the ray to intersect with the object
+     * @param maxDistance the maximal distance from the ray head
+     * @return the closest intersection, or null if there are no intersections within the distance
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        ClosestHit hit = new ClosestHit(maxDistance);
+        findClosestIntersectionHelper(ray, hit);
+        return hit.geometry == null ? null : new GeoPoint(hit.geometry, ray.getPoint(hit.distance), hit.index, hit.u, hit.v);
+    }
+
+    /**
+     * Helper method for the closest intersection query.
+     * This method is implemented by subclasses: if the object has an intersection closer than
+     * the current best hit, the hit is updated with it.
+     *
+     * @param ray the ray to intersect with the object
+     * @param hit the best hit found so far (updated in place)
+     */
+    protected abstract void findClosestIntersectionHelper(Ray ray, ClosestHit hit);
+
+    /**
+     * Calculates the transparency factor along a (shadow) ray up to a maximal distance from its head.
+     * Every intersection closer than the distance attenuates the factor by the transparency
+     * coefficient of the intersected geometry. The query stops at the first opaque blocker and
+     * doesn't build any list of intersections.
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the maximal distance from the ray head (e.g. the distance to a light source)
+     * @return the accumulated transparency factor - ONE if nothing blocks the ray, ZERO if an opaque
+     * geometry blocks it
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE);
+    }
+
+    /**
+     * Helper method for the transparency query.
+     * This method is implemented by subclasses to attenuate the factor by their intersections.
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the maximal distance from the ray head
+     * @param ktr         the transparency factor accumulated so far
+     * @return the transparency factor attenuated by the intersections with this object
+     */
+    protected abstract Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr);
+
+    /**
+     * Gets the axis-aligned bounding box of the object.
+     * Infinite objects (e.g. a plane) have no bounding box.
+     * The box is calculated on the first call and cached for the following calls.
+     *
+     * @return the bounding box of the object, or null if the object is unbounded
+     */
+    public final BoundingBox getBoundingBox() {
+        if (!boundingBoxCalculated) {
+            boundingBox = calcBoundingBox();
+            boundingBoxCalculated = true;
+        }
+        return boundingBox;
+    }
+
+    /**
+     * Checks whether the object is bounded, i.e. it has a bounding box.
+     *
+     * @return true if the object is bounded, false if it is infinite
+     */
+    public final boolean isBounded() {
+        return getBoundingBox() != null;
+    }
+
+    /**
+     * Calculates the axis-aligned bounding box of the object.
+     * This method is implemented by subclasses and is called once - the result is cached.
+     *
+     * @return the bounding box of the object, or null if the object is unbounded
+     */
+    protected abstract BoundingBox calcBoundingBox();
+
+    /**
+     * Drops the cached bounding box, so it is recalculated on the next request.
+     * Must be called by subclasses whenever their spatial extent changes.
+     */
+    protected void resetBoundingBox() {
+        boundingBoxCalculated = false;
+    }
+
     /**
      * Class representing a point of intersection between a ray and a geometry.
      */
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        /**
+         * Index of the intersected element inside a composite geometry (e.g. the triangle of a
+         * {@link Mesh}), -1 for a simple geometry
+         */
+        public int index = -1;
+        /**
+         * Barycentric coordinate of the point relative to the second vertex of the intersected
+         * triangle (for interpolating normals or texture coordinates), NaN if not a triangle hit
+         */
+        public double u = Double.NaN;
+        /**
+         * Barycentric coordinate of the point relative to the third vertex of the intersected
+         * triangle, NaN if not a triangle hit
+         */
+        public double v = Double.NaN;
 
         /**
          * Constructs a GeoPoint with the specified geometry and point.
@@ -59,6 +186,33 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructs a GeoPoint on an element of a composite geometry.
+         *
+         * @param geo   the geometry intersected by the ray
+         * @param point the point of intersection
+         * @param index the index of the intersected element inside the geometry
+         */
+        public GeoPoint(Geometry geo, Point point, int index) {
+            this(geo, point);
+            this.index = index;
+        }
+
+        /**
+         * Constructs a GeoPoint on a triangle (of a triangle or of a composite geometry).
+         *
+         * @param geo   the geometry intersected by the ray
+         * @param point the point of intersection
+         * @param index the index of the intersected element inside the geometry, -1 for a simple geometry
+         * @param u     barycentric coordinate of the point relative to the second vertex of the triangle
+         * @param v     barycentric coordinate of the point relative to the third vertex of the triangle
+         */
+        public GeoPoint(Geometry geo, Point point, int index, double u, double v) {
+            this(geo, point, index);
+            this.u = u;
+            this.v = v;
+        }
+
         /**
          * Checks if this GeoPoint is equal to another object.
          * Two GeoPoints are equal if they have the same geometry and point.
@@ -88,4 +242,27 @@ public abstract class Intersectable {
                     '}';
         }
     }
+
+    /**
+     * Mutable record of the best (closest) hit found so far by a closest intersection query.
+     */
+    protected static class ClosestHit {
+        /** The geometry of the best hit, null if nothing was hit yet */
+        public Geometry geometry = null;
+        /** Distance from the ray head to the best hit - intersections further than it are rejected */
+        public double distance;
+        /** Index of the hit element inside a composite geometry, -1 for a simple geometry */
+        public int index = -1;
+        /** Barycentric coordinates of a triangle hit (NaN for other geometries) */
+        public double u = Double.NaN, v = Double.NaN;
+
+        /**
+         * Constructs an empty hit record.
+         *
+         * @param maxDistance the maximal distance of an accepted hit
+         */
+        public ClosestHit(double maxDistance) {
+            distance = maxDistance;
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counter of the ray intersection tests of the geometries, by the class of the tested geometry.<br/>
+ * A counter is attached to a thread, and it counts the tests done by that thread only - so the
+ * counting needs no synchronization, and the tests of the threads that aren't attached to any counter
+ * (or of all the threads, while no counter is attached) cost a single check. A test is counted once
+ * per ray and geometry as the composite geometries (collections and hierarchies) reach it, e.g. a
+ * mesh counts once no matter how many of its triangles are tested. The collections themselves
+ * aren't counted.<br/>
+ * The counts are read after the counting threads are done (e.g. after they are joined).
+ */
+public final class IntersectionCounter {
+    /** Index of every counted class in the counts of the counters */
+    private static final ClassValue<Integer> INDICES = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            synchronized (CLASSES) {
+                int index = CLASSES.size();
+                CLASSES.add(type);
+                return index;
+            }
+        }
+    };
+    /** The counted classes by their indices */
+    private static final List<Class<?>> CLASSES = new ArrayList<>();
+    /** The counter of every thread, null if the thread isn't counted */
+    private static final ThreadLocal<IntersectionCounter> CURRENT = new ThreadLocal<>();
+    /** Amount of the threads attached to counters */
+    private static final AtomicInteger ATTACHED = new AtomicInteger(0);
+
+    /** Amount of tests by the class indices */
+    private long[] counts = new long[16];
+    /** The class of the last counted test */
+    private Class<?> lastType = null;
+    /** The index of the class of the last counted test */
+    private int lastIndex = 0;
+
+    /**
+     * Attaches a counter to the current thread - the following tests of the thread are counted by it
+     *
+     * @param counter the counter, null for not counting the tests of the thread
+     * @return the counter previously attached to the thread (null if none), for restoring it
+     */
+    public static IntersectionCounter attach(IntersectionCounter counter) {
+        IntersectionCounter previous = CURRENT.get();
+        if (counter == null) CURRENT.remove();
+        else CURRENT.set(counter);
+        if (previous == null && counter != null) ATTACHED.incrementAndGet();
+        else if (previous != null && counter == null) ATTACHED.decrementAndGet();
+        return previous;
+    }
+
+    /**
+     * Counts a test of a ray with a geometry by the counter of the current thread (if any)
+     *
+     * @param geometry the tested geometry
+     */
+    static void count(Intersectable geometry) {
+        if (ATTACHED.get() == 0 || geometry instanceof Geometries) return;
+        IntersectionCounter counter = CURRENT.get();
+        if (counter != null) counter.add(geometry.getClass());
+    }
+
+    /**
+     * Counts a test of a geometry of a class
+     *
+     * @param type the class of the geometry
+     */
+    private void add(Class<?> type) {
+        if (type != lastType) {
+            lastIndex = INDICES.get(type);
+            lastType = type;
+            if (lastIndex >= counts.length)
+                counts = Arrays.copyOf(counts, Math.max(2 * counts.length, lastIndex + 1));
+        }
+        ++counts[lastIndex];
+    }
+
+    /**
+     * Adds the counts of the counter to a map of counts
+     *
+     * @param totals amount of tests by the simple names of the geometry classes (updated in place)
+     */
+    public void addTo(Map<String, Long> totals) {
+        for (int index = 0; index < counts.length; ++index) {
+            if (counts[index] == 0) continue;
+            Class<?> type;
+            synchronized (CLASSES) {
+                type = CLASSES.get(index);
+            }
+            totals.merge(type.getSimpleName(), counts[index], Long::sum);
+        }
+    }
+}
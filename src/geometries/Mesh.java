@@ -0,0 +1,638 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Mesh class represents a triangle mesh in 3D Cartesian coordinate system.<br/>
+ * Unlike a collection of {@link Triangle} objects, the mesh keeps its vertices and faces in flat
+ * primitive arrays, and all its triangles share a single material and emission, so a face costs
+ * only its three vertex indices (plus a few bytes of the internal hierarchy).<br/>
+ * The triangles are organized in an internal bounding volume hierarchy that is stored in flat
+ * arrays as well, and every ray is intersected with the triangles by the edge functions of their
+ * edges without allocating intermediate vectors - an edge shared by several triangles is evaluated
+ * the same way for all of them, so a ray through it hits exactly one of them. An intersection
+ * reports the index of the hit triangle in {@link GeoPoint#index} and its barycentric coordinates
+ * in {@link GeoPoint#u} and {@link GeoPoint#v}.
+ */
+public class Mesh extends Geometry {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** Maximal number of triangles in a leaf that the heuristic may decide not to split */
+    private static final int MAX_LEAF_SIZE = 4;
+    /** Number of bins of the surface area heuristic along the split axis */
+    private static final int BINS = 12;
+    /** Estimated cost of testing a ray against a bounding box, relative to a triangle test */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /** Vertex coordinates - x, y, z of every vertex in turn */
+    private final double[] vertices;
+    /** Vertex indices of the triangles - three indices per triangle */
+    private final int[] indices;
+    /** Amount of triangles */
+    private final int triangles;
+    /** Triangle indices ordered by the leaves of the hierarchy */
+    private final int[] order;
+    /** Boxes of the hierarchy nodes - min x, y, z and max x, y, z of every node in turn */
+    private double[] nodeBounds;
+    /**
+     * Two values per hierarchy node: for a leaf - its first position in {@link #order} and the
+     * amount of its triangles; for an inner node - the index of its right child and 0 (the left
+     * child always follows its parent)
+     */
+    private int[] nodeData;
+    /** Amount of hierarchy nodes */
+    private int nodeCount = 0;
+    /** Depth of the hierarchy (the size of the traversal stack) */
+    private int depth = 0;
+
+    /**
+     * Constructs a mesh over vertex and index arrays.<br/>
+     * The arrays are used as they are (without copying), so they must not be modified afterward.
+     *
+     * @param vertices vertex coordinates - x, y, z of every vertex in turn
+     * @param indices  vertex indices of the triangles - three indices per triangle, in the edge
+     *                 path order (which defines the direction of the normal as in {@link Plane})
+     * @throws IllegalArgumentException if the arrays lengths are not multiples of 3, there are no
+     *                                  triangles or an index doesn't refer to a vertex
+     */
+    public Mesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices array must contain 3 coordinates per vertex");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The indices array must contain 3 indices per triangle");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index " + index + " is out of range");
+
+        this.vertices = vertices;
+        this.indices = indices;
+        triangles = indices.length / 3;
+        order = new int[triangles];
+        for (int i = 0; i < triangles; ++i) order[i] = i;
+
+        // A binary tree with at least one triangle in every leaf has less than 2n nodes
+        int capacity = Math.min(2 * triangles, 1024);
+        nodeBounds = new double[capacity * 6];
+        nodeData = new int[capacity * 2];
+        build();
+        nodeBounds = Arrays.copyOf(nodeBounds, nodeCount * 6);
+        nodeData = Arrays.copyOf(nodeData, nodeCount * 2);
+    }
+
+    /**
+     * Gets the amount of triangles in the mesh
+     *
+     * @return the amount of triangles
+     */
+    public int getTriangleCount() {
+        return triangles;
+    }
+
+    /**
+     * Gets the normal of a triangle of the mesh
+     *
+     * @param triangle the triangle index
+     * @return the normalized normal of the triangle
+     */
+    public Vector getNormal(int triangle) {
+        int i0 = 3 * indices[3 * triangle], i1 = 3 * indices[3 * triangle + 1], i2 = 3 * indices[3 * triangle + 2];
+        double e1x = vertices[i1] - vertices[i0], e1y = vertices[i1 + 1] - vertices[i0 + 1], e1z = vertices[i1 + 2] - vertices[i0 + 2];
+        double e2x = vertices[i2] - vertices[i0], e2y = vertices[i2 + 1] - vertices[i0 + 1], e2z = vertices[i2 + 2] - vertices[i0 + 2];
+        return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+    }
+
+    @Override
+    public Vector getNormal(GeoPoint gp) {
+        return gp.index >= 0 ? getNormal(gp.index) : getNormal(gp.point);
+    }
+
+    /**
+     * Gets the normal of the mesh at a point. The triangle containing the point is searched for
+     * linearly - the renderer uses {@link #getNormal(GeoPoint)} with the hit triangle instead.
+     *
+     * @param point the point on the mesh
+     * @return the normal of the triangle containing the point
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        for (int tri = 0; tri < triangles; ++tri) {
+            int i0 = 3 * indices[3 * tri], i1 = 3 * indices[3 * tri + 1], i2 = 3 * indices[3 * tri + 2];
+            double e1x = vertices[i1] - vertices[i0], e1y = vertices[i1 + 1] - vertices[i0 + 1], e1z = vertices[i1 + 2] - vertices[i0 + 2];
+            double e2x = vertices[i2] - vertices[i0], e2y = vertices[i2 + 1] - vertices[i0 + 1], e2z = vertices[i2 + 2] - vertices[i0 + 2];
+            double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            double wx = px - vertices[i0], wy = py - vertices[i0 + 1], wz = pz - vertices[i0 + 2];
+            // the point must lay on the plane of the triangle...
+            if (isZero(length) || !isZero((nx * wx + ny * wy + nz * wz) / length)) continue;
+            // ...and inside it - (barycentric coordinates by the sub-triangle areas)
+            double u = (nx * (wy * e2z - wz * e2y) + ny * (wz * e2x - wx * e2z) + nz * (wx * e2y - wy * e2x)) / (length * length);
+            double v = (nx * (e1y * wz - e1z * wy) + ny * (e1z * wx - e1x * wz) + nz * (e1x * wy - e1y * wx)) / (length * length);
+            if (alignZero(u) >= 0 && alignZero(v) >= 0 && alignZero(u + v - 1) <= 0)
+                return new Vector(nx / length, ny / length, nz / length);
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        BoundingBox.SlabRay slabRay = BoundingBox.SlabRay.of(ray);
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        List<GeoPoint> points = null;
+        double[] uv = new double[2];
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entryDistance(node, slabRay, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY) continue;
+            int count = nodeData[2 * node + 1];
+            if (count == 0) {
+                stack[top++] = nodeData[2 * node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            for (int k = nodeData[2 * node], end = k + count; k < end; ++k) {
+                double t = intersect(order[k], ox, oy, oz, dx, dy, dz, uv);
+                if (t == Double.POSITIVE_INFINITY) continue;
+                if (points == null) points = new LinkedList<>();
+                points.add(new GeoPoint(this, ray.getPoint(t), order[k], uv[0], uv[1]));
+            }
+        }
+        return points;
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        BoundingBox.SlabRay slabRay = BoundingBox.SlabRay.of(ray);
+        double rootDistance = entryDistance(0, slabRay, hit.distance);
+        if (rootDistance == Double.POSITIVE_INFINITY) return;
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        // the nodes are pushed together with their entry distances, far child first
+        double[] uv = new double[2];
+        int[] stack = new int[depth + 1];
+        double[] distances = new double[depth + 1];
+        int top = 0;
+        stack[top] = 0;
+        distances[top++] = rootDistance;
+        while (top > 0) {
+            int node = stack[--top];
+            // a closer hit may have been found since the node was pushed
+            if (distances[top] >= hit.distance) continue;
+            int count = nodeData[2 * node + 1];
+            if (count == 0) {
+                int near = node + 1;
+                int far = nodeData[2 * node];
+                double nearDistance = entryDistance(near, slabRay, hit.distance);
+                double farDistance = entryDistance(far, slabRay, hit.distance);
+                if (farDistance < nearDistance) {
+                    int n = near; near = far; far = n;
+                    double d = nearDistance; nearDistance = farDistance; farDistance = d;
+                }
+                if (farDistance < hit.distance) {
+                    stack[top] = far;
+                    distances[top++] = farDistance;
+                }
+                if (nearDistance < hit.distance) {
+                    stack[top] = near;
+                    distances[top++] = nearDistance;
+                }
+                continue;
+            }
+            for (int k = nodeData[2 * node], end = k + count; k < end; ++k) {
+                double t = intersect(order[k], ox, oy, oz, dx, dy, dz, uv);
+                if (t < hit.distance) {
+                    hit.distance = t;
+                    hit.geometry = this;
+                    hit.index = order[k];
+                    hit.u = uv[0];
+                    hit.v = uv[1];
+                }
+            }
+        }
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        ClosestHit hit = new ClosestHit(maxDistance);
+        findClosestIntersectionHelper(ray, hit);
+        return hit.geometry == null ? Double.POSITIVE_INFINITY : hit.distance;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return countIntersections(ray, maxDistance, Integer.MAX_VALUE);
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        // An opaque mesh blocks the ray at its first crossing - there is no need to count them all
+        if (getMaterial().kT.equals(Double3.ZERO))
+            return countIntersections(ray, maxDistance, 1) == 0 ? ktr : Double3.ZERO;
+        return super.findTransparencyHelper(ray, maxDistance, ktr);
+    }
+
+    /**
+     * Counts the intersections of a ray with the mesh that are not further than a given distance
+     * from the ray head, stopping as soon as a given amount was found.
+     *
+     * @param ray         the ray to intersect with the mesh
+     * @param maxDistance the maximal distance from the ray head
+     * @param limit       the amount of intersections after which the counting stops
+     * @return the number of intersections within the distance (not more than the limit)
+     */
+    private int countIntersections(Ray ray, double maxDistance, int limit) {
+        BoundingBox.SlabRay slabRay = BoundingBox.SlabRay.of(ray);
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double ox = head.getX(), oy = head.getY(), oz = head.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        int found = 0;
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entryDistance(node, slabRay, maxDistance) == Double.POSITIVE_INFINITY) continue;
+            int count = nodeData[2 * node + 1];
+            if (count == 0) {
+                stack[top++] = nodeData[2 * node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            for (int k = nodeData[2 * node], end = k + count; k < end; ++k) {
+                double t = intersect(order[k], ox, oy, oz, dx, dy, dz, null);
+                if (t != Double.POSITIVE_INFINITY && alignZero(t - maxDistance) <= 0 && ++found == limit)
+                    return found;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Intersects a ray with a triangle of the mesh by the edge functions of its edges - the signed
+     * volumes of the ray with every edge, which are all of the same sign if the ray crosses the triangle.<br/>
+     * An edge shared by two triangles is calculated exactly the same way for both of them (from its
+     * vertex of the lower index), so its function has the opposite sign in each of them. A ray passing
+     * exactly through an edge or a vertex is decided as if it were displaced by an infinitesimal amount
+     * (see {@link #edge(int, int, double, double, double, double, double, double)}), so it hits exactly
+     * one of the triangles sharing it - it neither slips through the mesh nor hits it twice.
+     *
+     * @param triangle the triangle index
+     * @param ox       x coordinate of the ray head
+     * @param oy       y coordinate of the ray head
+     * @param oz       z coordinate of the ray head
+     * @param dx       x component of the ray direction
+     * @param dy       y component of the ray direction
+     * @param dz       z component of the ray direction
+     * @param uv       array for the barycentric coordinates of the intersection point relative to
+     *                 the second and the third vertices of the triangle (may be null)
+     * @return the distance from the ray head to the intersection, or positive infinity if there
+     * is no intersection in front of the head
+     */
+    private double intersect(int triangle, double ox, double oy, double oz, double dx, double dy, double dz,
+                             double[] uv) {
+        int a = indices[3 * triangle], b = indices[3 * triangle + 1], c = indices[3 * triangle + 2];
+        // the edge functions of the edges opposite to every vertex
+        double ea = edge(b, c, ox, oy, oz, dx, dy, dz);
+        double eb = edge(c, a, ox, oy, oz, dx, dy, dz);
+        if (ea > 0 != eb > 0) return Double.POSITIVE_INFINITY;
+        double ec = edge(a, b, ox, oy, oz, dx, dy, dz);
+        if (ea > 0 != ec > 0) return Double.POSITIVE_INFINITY;
+        double sum = ea + eb + ec;
+        // the ray is parallel to the triangle (or the triangle is degenerate) - the edge functions are of
+        // the same sign, so only an exact zero is, and tiny faces mustn't be rejected
+        if (sum == 0) return Double.POSITIVE_INFINITY;
+
+        // the barycentric coordinates are the shares of the edge functions
+        double u = eb / sum, v = ec / sum, w = 1 - u - v;
+        int ia = 3 * a, ib = 3 * b, ic = 3 * c;
+        double px = w * vertices[ia] + u * vertices[ib] + v * vertices[ic] - ox;
+        double py = w * vertices[ia + 1] + u * vertices[ib + 1] + v * vertices[ic + 1] - oy;
+        double pz = w * vertices[ia + 2] + u * vertices[ib + 2] + v * vertices[ic + 2] - oz;
+        double t = alignZero(px * dx + py * dy + pz * dz);
+        if (t <= 0) return Double.POSITIVE_INFINITY;
+        if (uv != null) {
+            uv[0] = u;
+            uv[1] = v;
+        }
+        return t;
+    }
+
+    /**
+     * Calculates the edge function of a directed edge of a triangle and a ray - the signed volume of the
+     * vectors from the ray head to the edge ends and the ray direction. The function is calculated from the
+     * end of the lower vertex index, so both the triangles sharing the edge get exactly the same value, and
+     * it is negated for an edge directed from the higher index.<br/>
+     * A ray passing exactly through the edge gets the smallest value of the sign the function has for the
+     * ray head displaced by (&epsilon;, &epsilon;<sup>2</sup>, &epsilon;<sup>3</sup>) - the displacement
+     * changes the function by exactly &delta; &middot; (d &times; (b - a)), so the sign is the sign of the
+     * first non-zero component of d &times; (b - a).
+     *
+     * @param from the index of the vertex the edge starts at
+     * @param to   the index of the vertex the edge ends at
+     * @param ox   x coordinate of the ray head
+     * @param oy   y coordinate of the ray head
+     * @param oz   z coordinate of the ray head
+     * @param dx   x component of the ray direction
+     * @param dy   y component of the ray direction
+     * @param dz   z component of the ray direction
+     * @return the edge function (never zero, unless the edge is parallel to the ray)
+     */
+    private double edge(int from, int to, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int lo = 3 * Math.min(from, to), hi = 3 * Math.max(from, to);
+        double ax = vertices[lo] - ox, ay = vertices[lo + 1] - oy, az = vertices[lo + 2] - oz;
+        double bx = vertices[hi] - ox, by = vertices[hi + 1] - oy, bz = vertices[hi + 2] - oz;
+        double e = (ay * bz - az * by) * dx + (az * bx - ax * bz) * dy + (ax * by - ay * bx) * dz;
+        if (e == 0) {
+            double ex = bx - ax, ey = by - ay, ez = bz - az;
+            double wx = dy * ez - dz * ey, wy = dz * ex - dx * ez, wz = dx * ey - dy * ex;
+            e = Math.copySign(Double.MIN_VALUE, wx != 0 ? wx : wy != 0 ? wy : wz);
+        }
+        return from < to ? e : -e;
+    }
+
+    /**
+     * Calculates the distance at which a prepared ray enters the box of a hierarchy node
+     *
+     * @param node        the node index
+     * @param slabRay     the prepared ray
+     * @param maxDistance the maximal distance from the ray head
+     * @return the entry distance, or positive infinity if the box isn't crossed within the distance
+     */
+    private double entryDistance(int node, BoundingBox.SlabRay slabRay, double maxDistance) {
+        int b = 6 * node;
+        return BoundingBox.entryDistance(slabRay, maxDistance, nodeBounds[b], nodeBounds[b + 1], nodeBounds[b + 2],
+                nodeBounds[b + 3], nodeBounds[b + 4], nodeBounds[b + 5]);
+    }
+
+    /**
+     * Calculates the centroid coordinate of a triangle along an axis
+     *
+     * @param triangle the triangle index
+     * @param axis     0 for x, 1 for y and 2 for z
+     * @return the centroid coordinate
+     */
+    private double centroid(int triangle, int axis) {
+        return (vertices[3 * indices[3 * triangle] + axis]
+                + vertices[3 * indices[3 * triangle + 1] + axis]
+                + vertices[3 * indices[3 * triangle + 2] + axis]) / 3;
+    }
+
+    /**
+     * Extends a box (kept in an array) by a triangle
+     *
+     * @param box      min x, y, z and max x, y, z of the box
+     * @param offset   position of the box in the array
+     * @param triangle the triangle index
+     */
+    private void extend(double[] box, int offset, int triangle) {
+        for (int corner = 0; corner < 3; ++corner) {
+            int v = 3 * indices[3 * triangle + corner];
+            for (int axis = 0; axis < 3; ++axis) {
+                double c = vertices[v + axis];
+                if (c < box[offset + axis]) box[offset + axis] = c;
+                if (c > box[offset + 3 + axis]) box[offset + 3 + axis] = c;
+            }
+        }
+    }
+
+    /**
+     * Resets a box (kept in an array) to an empty one
+     *
+     * @param box    min x, y, z and max x, y, z of the box
+     * @param offset position of the box in the array
+     */
+    private static void clear(double[] box, int offset) {
+        Arrays.fill(box, offset, offset + 3, Double.POSITIVE_INFINITY);
+        Arrays.fill(box, offset + 3, offset + 6, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Calculates the surface area of a box (kept in an array)
+     *
+     * @param box    min x, y, z and max x, y, z of the box
+     * @param offset position of the box in the array
+     * @return the surface area
+     */
+    private static double area(double[] box, int offset) {
+        double dx = box[offset + 3] - box[offset];
+        double dy = box[offset + 4] - box[offset + 1];
+        double dz = box[offset + 5] - box[offset + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Builds the hierarchy over all the triangles, depth first and the left child first (so the left child
+     * always follows its parent). A skewed split may make the hierarchy as deep as the amount of triangles,
+     * so the pending right children are kept in an explicit stack rather than in recursive calls.
+     */
+    private void build() {
+        // start, end, depth and parent (whose right child it is, -1 for a left child) of every pending range
+        int[] pending = new int[64];
+        int top = 0;
+        pending[top++] = 0;
+        pending[top++] = triangles;
+        pending[top++] = 1;
+        pending[top++] = -1;
+        while (top > 0) {
+            int parent = pending[--top], level = pending[--top], end = pending[--top], start = pending[--top];
+            int node = nodeCount++;
+            if (node * 6 == nodeBounds.length) {
+                nodeBounds = Arrays.copyOf(nodeBounds, nodeBounds.length * 2);
+                nodeData = Arrays.copyOf(nodeData, nodeData.length * 2);
+            }
+            if (level > depth) depth = level;
+            if (parent >= 0) nodeData[2 * parent] = node;
+
+            int mid = split(node, start, end);
+            if (mid < 0) continue;
+            nodeData[2 * node + 1] = 0;
+            if (top + 8 > pending.length) pending = Arrays.copyOf(pending, pending.length * 2);
+            // the right child is built once the whole left sub-tree is built
+            pending[top++] = mid;
+            pending[top++] = end;
+            pending[top++] = level + 1;
+            pending[top++] = node;
+            pending[top++] = start;
+            pending[top++] = mid;
+            pending[top++] = level + 1;
+            pending[top++] = -1;
+        }
+    }
+
+    /**
+     * Calculates the box of a node over a range of {@link #order} and splits the range using the binned
+     * surface area heuristic along the axis of the widest spread of the triangle centroids - or turns the
+     * node into a leaf
+     *
+     * @param node  the node index
+     * @param start first position of the range (included)
+     * @param end   last position of the range (excluded)
+     * @return the position splitting the range between the children, or -1 if the node is a leaf
+     */
+    private int split(int node, int start, int end) {
+        // box of the node and bounds of the centroids
+        int b = 6 * node;
+        clear(nodeBounds, b);
+        double[] centroids = new double[6];
+        clear(centroids, 0);
+        for (int k = start; k < end; ++k) {
+            extend(nodeBounds, b, order[k]);
+            for (int axis = 0; axis < 3; ++axis) {
+                double c = centroid(order[k], axis);
+                if (c < centroids[axis]) centroids[axis] = c;
+                if (c > centroids[3 + axis]) centroids[3 + axis] = c;
+            }
+        }
+
+        int n = end - start;
+        if (n <= 2) {
+            leaf(node, start, n);
+            return -1;
+        }
+
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (centroids[3 + a] - centroids[a] > centroids[3 + axis] - centroids[axis]) axis = a;
+        double min = centroids[axis];
+        double extent = centroids[3 + axis] - min;
+
+        int mid;
+        if (extent <= 0) {
+            // all the centroids coincide - no heuristic can separate them, split the range in the middle
+            if (n <= MAX_LEAF_SIZE) {
+                leaf(node, start, n);
+                return -1;
+            }
+            mid = start + n / 2;
+        } else {
+            // distribute the triangles into the bins
+            int[] counts = new int[BINS];
+            double[] boxes = new double[BINS * 6];
+            for (int i = 0; i < BINS; ++i) clear(boxes, i * 6);
+            for (int k = start; k < end; ++k) {
+                int bin = bin(order[k], axis, min, extent);
+                ++counts[bin];
+                extend(boxes, bin * 6, order[k]);
+            }
+
+            // sweep from the right to collect the areas of all the right-hand groups
+            double[] rightAreas = new double[BINS];
+            double[] box = new double[6];
+            clear(box, 0);
+            for (int i = BINS - 1; i > 0; --i) {
+                union(box, boxes, i * 6);
+                rightAreas[i] = area(box, 0);
+            }
+            // sweep from the left and evaluate the heuristic between every two bins
+            double parentArea = area(nodeBounds, b);
+            double bestCost = Double.POSITIVE_INFINITY;
+            int bestBin = -1;
+            clear(box, 0);
+            int leftCount = 0;
+            for (int i = 1; i < BINS; ++i) {
+                union(box, boxes, (i - 1) * 6);
+                leftCount += counts[i - 1];
+                if (leftCount == 0 || leftCount == n) continue;
+                double cost = TRAVERSAL_COST
+                        + (area(box, 0) * leftCount + rightAreas[i] * (n - leftCount)) / parentArea;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestBin = i;
+                }
+            }
+
+            // keep small groups together if splitting them doesn't pay off
+            if (n <= MAX_LEAF_SIZE && bestCost >= n) {
+                leaf(node, start, n);
+                return -1;
+            }
+
+            if (bestBin < 0) {
+                // a degenerate (zero area) group gives no usable costs - split it in the middle
+                mid = start + n / 2;
+            } else {
+                // partition the range by the chosen bin
+                int i = start, j = end - 1;
+                while (i <= j) {
+                    if (bin(order[i], axis, min, extent) < bestBin) ++i;
+                    else {
+                        int t = order[i]; order[i] = order[j]; order[j--] = t;
+                    }
+                }
+                mid = i;
+            }
+        }
+
+        return mid;
+    }
+
+    /**
+     * Calculates the heuristic bin of a triangle
+     *
+     * @param triangle the triangle index
+     * @param axis     the split axis
+     * @param min      minimal centroid coordinate along the axis
+     * @param extent   spread of the centroid coordinates along the axis (positive)
+     * @return the bin index
+     */
+    private int bin(int triangle, int axis, double min, double extent) {
+        int bin = (int) ((centroid(triangle, axis) - min) / extent * BINS);
+        return Math.min(bin, BINS - 1);
+    }
+
+    /**
+     * Extends a box by another box (both kept in arrays)
+     *
+     * @param box    min x, y, z and max x, y, z of the extended box (at offset 0)
+     * @param boxes  array containing the other box
+     * @param offset position of the other box in its array
+     */
+    private static void union(double[] box, double[] boxes, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            box[axis] = Math.min(box[axis], boxes[offset + axis]);
+            box[3 + axis] = Math.max(box[3 + axis], boxes[offset + 3 + axis]);
+        }
+    }
+
+    /**
+     * Turns a node into a leaf
+     *
+     * @param node  the node index
+     * @param start first position of the leaf triangles in {@link #order}
+     * @param n     amount of the leaf triangles
+     */
+    private void leaf(int node, int start, int n) {
+        nodeData[2 * node] = start;
+        nodeData[2 * node + 1] = n;
+    }
+}
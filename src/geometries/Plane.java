@@ -16,6 +16,9 @@ import static primitives.Util.isZero;
  */
 public class Plane extends Geometry {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     final Point q0;
     final Vector normal;
 
@@ -73,35 +76,68 @@ public class Plane extends Geometry {
         return getNormal(q0);
     }
 
+    /**
+     * A plane is infinite, so it has no bounding box.
+     *
+     * @return null
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return null;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double t = findIntersectionDistance(ray);
+        // If there is an intersection, create a new list containing the intersection point and return it.
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return alignZero(findIntersectionDistance(ray) - maxDistance) <= 0 ? 1 : 0;
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        double t = findIntersectionDistance(ray);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
 
-        // Check if the Ray starts on the Plane, if so return null.
+    /**
+     * Finds the distance from the ray head to the intersection point of the ray with the plane.
+     *
+     * @param ray the ray to intersect with the plane
+     * @return the (positive) distance to the intersection point, or positive infinity if the ray
+     * doesn't intersect the plane
+     */
+    double findIntersectionDistance(Ray ray) {
+
+        // Check if the Ray starts on the Plane, if so there is no intersection.
         if (q0.equals(ray.getHead())) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
-        // Calculate the vector between q0 and the Ray's starting point.
-        Vector qMinusP0 = q0.subtract(ray.getHead());
-        // Calculate the dot product between the Plane's normal and qMinusP0.
-        double nQMinusP0 = normal.dotProduct(qMinusP0);
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        // Calculate the dot product between the Plane's normal and the vector from the Ray's
+        // starting point to q0 (component-wise, to avoid allocating the vector).
+        double nQMinusP0 = normal.getX() * (q0.getX() - head.getX())
+                + normal.getY() * (q0.getY() - head.getY())
+                + normal.getZ() * (q0.getZ() - head.getZ());
         // Calculate the dot product between the Plane's normal and the Ray's direction vector.
-        double nv = normal.dotProduct(ray.getDirection());
+        double nv = normal.dotProduct(dir);
 
-        // If the dot product between the Plane's normal and the Ray's direction vector is close to zero, return null.
+        // If the dot product between the Plane's normal and the Ray's direction vector is close to zero,
+        // there is no intersection.
         if (isZero(nv)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         // Calculate the intersection parameter t.
         double t = alignZero(nQMinusP0 / nv);
 
-        // If t is greater than 0, create a new list containing the intersection point and return it.
-        if (t > 0d) {
-            return List.of(new GeoPoint(this, ray.getPoint(t)));
-        }
-
-        // Otherwise, return null.
-        return null;
+        // Only an intersection in front of the ray head counts
+        return t > 0d ? t : Double.POSITIVE_INFINITY;
     }
 }
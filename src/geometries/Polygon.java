@@ -4,6 +4,9 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -16,10 +19,13 @@ import static primitives.Util.isZero;
  * @author Dan
  */
 public class Polygon extends Geometry {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
-     * List of polygon's vertices
+     * List of polygon's vertices (serialized as an array, since the declared type of the list isn't serializable)
      */
-    protected final List<Point> vertices;
+    protected transient List<Point> vertices;
     /**
      * Associated plane in which the polygon lays
      */
@@ -93,50 +99,113 @@ public class Polygon extends Geometry {
         return plane.getNormal(point);
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(vertices.toArray(new Point[0]));
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
 
-        // Find intersections between the ray and the polygon's plane
-        List<GeoPoint> planeIntersections = plane.findGeoIntersections(ray);
+        // Find the intersection between the ray and the polygon's plane
+        double t = plane.findIntersectionDistance(ray);
 
-        // Return null if there are no plane intersections
-        if (planeIntersections == null) {
+        // Return null if there is no plane intersection or it is outside the polygon
+        if (t == Double.POSITIVE_INFINITY || !isInside(ray)) {
             return null;
         }
 
+        return List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        double t = plane.findIntersectionDistance(ray);
+        return alignZero(t - maxDistance) <= 0 && isInside(ray) ? 1 : 0;
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        double t = plane.findIntersectionDistance(ray);
+        return t < maxDistance && isInside(ray) ? t : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Checks whether a ray that crosses the polygon's plane crosses it inside the polygon.
+     *
+     * @param ray the ray (that is known to intersect the plane)
+     * @return true if the intersection point is inside the polygon, false otherwise
+     */
+    protected boolean isInside(Ray ray) {
+
         // Compute necessary vectors and points for intersection calculation
         Point P0 = ray.getHead();
         Vector dir = ray.getDirection();
-        Point P1 = vertices.get(1);
-        Point P2 = vertices.get(0);
-        Vector v1 = P1.subtract(P0);
-        Vector v2 = P2.subtract(P0);
 
         // Check if the ray intersects the polygon using sign calculation
-        double sign = alignZero(dir.dotProduct(v1.crossProduct(v2)));
+        double sign = alignZero(edgeSign(dir, P0, vertices.get(1), vertices.get(0)));
         if (isZero(sign)) {
-            return null;
+            return false;
         }
 
         boolean positive = sign > 0;
 
         // Iterate through all vertices of the polygon to check if they lie on the same side of the ray
         for (int i = vertices.size() - 1; i > 0; --i) {
-            v1 = v2;
-            v2 = vertices.get(i).subtract(P0);
-            sign = alignZero(dir.dotProduct(v1.crossProduct(v2)));
+            sign = alignZero(edgeSign(dir, P0, vertices.get(i + 1 == vertices.size() ? 0 : i + 1), vertices.get(i)));
 
-            // Return null if the vertex lies on the plane of the polygon
+            // Return false if the vertex lies on the plane of the polygon
             if (isZero(sign)) {
-                return null;
+                return false;
             }
 
-            // Return null if the vertex lies on the opposite side of the ray
+            // Return false if the vertex lies on the opposite side of the ray
             if (positive != (sign > 0)) {
-                return null;
+                return false;
             }
         }
 
-        return List.of(new GeoPoint(this, planeIntersections.get(0).point));
+        return true;
+    }
+
+    /**
+     * Calculates dir &middot; ((a - p0) &times; (b - p0)) - the side of the edge ab on which the ray passes.
+     * The calculation is done component-wise so that no intermediate vectors are allocated.
+     *
+     * @param dir the ray direction
+     * @param p0  the ray head
+     * @param a   first vertex of the edge
+     * @param b   second vertex of the edge
+     * @return the (not normalized) edge sign, zero if the head is on the line of the edge
+     */
+    private static double edgeSign(Vector dir, Point p0, Point a, Point b) {
+        double ax = a.getX() - p0.getX(), ay = a.getY() - p0.getY(), az = a.getZ() - p0.getZ();
+        double bx = b.getX() - p0.getX(), by = b.getY() - p0.getY(), bz = b.getZ() - p0.getZ();
+        return dir.getX() * (ay * bz - az * by)
+                + dir.getY() * (az * bx - ax * bz)
+                + dir.getZ() * (ax * by - ay * bx);
+    }
+
+    /**
+     * Serializes the polygon - the vertices are written as an array
+     *
+     * @param out the object output stream
+     * @throws IOException if the stream can't be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(vertices.toArray(new Point[0]));
+    }
+
+    /**
+     * Deserializes the polygon - the vertices are read as an array
+     *
+     * @param in the object input stream
+     * @throws IOException            if the stream can't be read
+     * @throws ClassNotFoundException if a class of the polygon isn't found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        vertices = List.of((Point[]) in.readObject());
     }
 }
@@ -4,6 +4,9 @@ import primitives.Point;
 import primitives.Vector;
 
 abstract class RadialGeometry extends Geometry {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     protected final double radius;
 
     public RadialGeometry(double myRadius) {
@@ -6,12 +6,18 @@ import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * A class that represents a sphere in space, with the center and the radius of the sphere.
  * sphere is a part of Radial Geometry, so this class extends from "RadialGeometry".
  */
 public class Sphere extends RadialGeometry {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     final Point center;
 
     /**
@@ -38,6 +44,12 @@ public class Sphere extends RadialGeometry {
         return point.subtract(center).normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
 
@@ -81,4 +93,59 @@ public class Sphere extends RadialGeometry {
             return null;
         }
     }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        Point p0 = ray.getHead();
+        Vector dir = ray.getDirection();
+        // u = center - p0, component-wise
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+        if (isZero(ux) && isZero(uy) && isZero(uz)) {
+            // A ray starting at the center crosses the sphere once - at the distance of the radius
+            return alignZero(radius - maxDistance) <= 0 ? 1 : 0;
+        }
+
+        double tm = ux * dir.getX() + uy * dir.getY() + uz * dir.getZ();
+        double ul = Math.sqrt(ux * ux + uy * uy + uz * uz);
+        double d = Math.sqrt(ul * ul - tm * tm);
+        if (d >= radius) {
+            return 0;
+        }
+
+        double th = Math.sqrt(radius * radius - d * d);
+        double t1 = tm + th;
+        double t2 = tm - th;
+        int count = 0;
+        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0) ++count;
+        if (t2 > 0 && alignZero(t2 - maxDistance) <= 0) ++count;
+        return count;
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getHead();
+        Vector dir = ray.getDirection();
+        // u = center - p0, component-wise
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+        if (isZero(ux) && isZero(uy) && isZero(uz)) {
+            // A ray starting at the center crosses the sphere at the distance of the radius
+            return radius < maxDistance ? radius : Double.POSITIVE_INFINITY;
+        }
+
+        double tm = ux * dir.getX() + uy * dir.getY() + uz * dir.getZ();
+        double ul = Math.sqrt(ux * ux + uy * uy + uz * uz);
+        double d = Math.sqrt(ul * ul - tm * tm);
+        if (d >= radius) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double th = Math.sqrt(radius * radius - d * d);
+        // the nearer intersection is in front of the head unless the head is inside the sphere
+        double t = tm - th > 0 ? tm - th : tm + th;
+        return t > 0 && t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
 }
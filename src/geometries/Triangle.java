@@ -7,11 +7,35 @@ import primitives.Vector;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 public class Triangle extends Polygon {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
+    /** x coordinate of the first vertex */
+    private final double v0x;
+    /** y coordinate of the first vertex */
+    private final double v0y;
+    /** z coordinate of the first vertex */
+    private final double v0z;
+    /** x component of the edge from the first vertex to the second one */
+    private final double e1x;
+    /** y component of the edge from the first vertex to the second one */
+    private final double e1y;
+    /** z component of the edge from the first vertex to the second one */
+    private final double e1z;
+    /** x component of the edge from the first vertex to the third one */
+    private final double e2x;
+    /** y component of the edge from the first vertex to the third one */
+    private final double e2y;
+    /** z component of the edge from the first vertex to the third one */
+    private final double e2z;
+
     /**
      * constructor for triangle. call to the father constructor because triangle is a type of polygon.
+     * The edges from the first vertex are prepared for the intersection calculation.
      *
      * @param p1 vertex of the triangle
      * @param p2 vertex of the triangle
@@ -19,36 +43,85 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        v0x = p1.getX();
+        v0y = p1.getY();
+        v0z = p1.getZ();
+        e1x = p2.getX() - v0x;
+        e1y = p2.getY() - v0y;
+        e1z = p2.getZ() - v0z;
+        e2x = p3.getX() - v0x;
+        e2y = p3.getY() - v0y;
+        e2z = p3.getZ() - v0z;
     }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        List<GeoPoint> pointList = plane.findGeoIntersections(ray);
+        ClosestHit hit = new ClosestHit(Double.POSITIVE_INFINITY);
+        double t = intersect(ray, hit);
+        return t == Double.POSITIVE_INFINITY ? null
+                : List.of(new GeoPoint(this, ray.getPoint(t), -1, hit.u, hit.v));
+    }
 
-        // Check if the ray intersects the plane of the triangle
-        if (pointList == null) {
-            return null;
-        }
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return alignZero(intersect(ray, null) - maxDistance) <= 0 ? 1 : 0;
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        double t = intersect(ray, null);
+        return t < maxDistance ? t : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        intersect(ray, hit);
+    }
+
+    /**
+     * Intersects a ray with the triangle by the Möller–Trumbore algorithm: the intersection point
+     * is found directly by its barycentric coordinates, without intersecting the plane first and
+     * without allocating any intermediate vectors.
+     * As before, points on the edges and the vertices don't count as intersections.
+     *
+     * @param ray the ray to intersect with the triangle
+     * @param hit the closest hit record - an intersection closer than its distance is written into it with
+     *            its barycentric coordinates relative to the second and the third vertices (may be null if
+     *            only the distance is needed)
+     * @return the distance from the ray head to the intersection point, or positive infinity if
+     * there is no intersection in front of the head
+     */
+    private double intersect(Ray ray, ClosestHit hit) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        // p = d x e2, det = e1 . p
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // the ray is parallel to the plane of the triangle
+        if (isZero(det)) return Double.POSITIVE_INFINITY;
+        double inv = 1 / det;
+
+        // first barycentric coordinate: u = (head - v0) . p / det
+        double sx = head.getX() - v0x, sy = head.getY() - v0y, sz = head.getZ() - v0z;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0 || u >= 1) return Double.POSITIVE_INFINITY;
+
+        // second barycentric coordinate: v = d . q / det, where q = (head - v0) x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (v <= 0 || alignZero(u + v - 1) >= 0) return Double.POSITIVE_INFINITY;
 
-        // Calculate the normal vectors of the triangle's edges
-        Vector v1 = vertices.get(0).subtract(ray.getHead());
-        Vector v2 = vertices.get(1).subtract(ray.getHead());
-        Vector v3 = vertices.get(2).subtract(ray.getHead());
-
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
-
-        // Calculate the dot products between the ray's direction vector and the normal vectors of the edges
-        double vn1 = alignZero(ray.getDirection().dotProduct(n1));
-        double vn2 = alignZero(ray.getDirection().dotProduct(n2));
-        double vn3 = alignZero(ray.getDirection().dotProduct(n3));
-
-        // Check if the ray intersects the triangle
-        if ((vn1 > 0 && vn2 > 0 && vn3 > 0) || (vn1 < 0 && vn2 < 0 && vn3 < 0)) {
-            return List.of(new GeoPoint(this, pointList.get(0).point));
-        } else {
-            return null;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        if (t <= 0) return Double.POSITIVE_INFINITY;
+        if (hit != null && t < hit.distance) {
+            hit.distance = t;
+            hit.geometry = this;
+            hit.index = -1;
+            hit.u = u;
+            hit.v = v;
         }
+        return t;
     }
 }
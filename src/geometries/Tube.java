@@ -12,6 +12,9 @@ import java.util.List;
  */
 public class Tube extends RadialGeometry {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The central axis of the tube.
      */
@@ -54,8 +57,28 @@ public class Tube extends RadialGeometry {
 
     }
 
+    /**
+     * A tube is infinite, so it has no bounding box.
+     *
+     * @return null
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return null;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         return List.of();
     }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return 0;
+    }
+
+    @Override
+    protected double findClosestDistance(Ray ray, double maxDistance) {
+        return Double.POSITIVE_INFINITY;
+    }
 }
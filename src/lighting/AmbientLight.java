@@ -10,6 +10,9 @@ import primitives.Double3;
  */
 public class AmbientLight extends Light {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * A constant representing no ambient light
      */
@@ -8,6 +8,9 @@ import primitives.Vector;
  * Represents a directional light source that illuminates from a specific direction.
  */
 public class DirectionalLight extends Light implements LightSource {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The direction vector of the directionalLight.
      */
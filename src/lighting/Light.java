@@ -2,10 +2,15 @@ package lighting;
 
 import primitives.Color;
 
+import java.io.Serializable;
+
 /**
  * Abstract class representing a light source.
  */
-abstract class Light {
+abstract class Light implements Serializable {
+
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
 
     /**
      * Intensity of the light source.
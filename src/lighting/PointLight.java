@@ -10,6 +10,9 @@ import primitives.Vector;
  */
 public class PointLight extends Light implements LightSource {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     public Point position; // The position of the point light source
     private double kC = 1, kL = 0, kQ = 0; // Attenuation factors: constant, linear, and quadratic
 
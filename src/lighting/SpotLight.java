@@ -11,6 +11,9 @@ import static primitives.Util.alignZero;
  * The light's intensity decreases with distance and angle according to the attenuation factors and direction.
  */
 public class SpotLight extends PointLight {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The light direction of the spotlight.
      */
@@ -3,13 +3,18 @@
  */
 package primitives;
 
+import java.io.Serializable;
+
 import static primitives.Util.isZero;
 
 /**
  * This class will serve all primitive classes based on three numbers
  * @author Dan Zilberstein
  */
-public class Double3 {
+public class Double3 implements Serializable {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /** Zero triad (0,0,0) */
     public static final Double3 ZERO = new Double3(0, 0, 0);
     /** One's triad (1,1,1) */
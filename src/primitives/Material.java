@@ -1,10 +1,15 @@
 package primitives;
 
+import java.io.Serializable;
+
 /**
  * Represents the material properties of a geometric object.
  * The material properties determine how the object interacts with light.
  */
-public class Material {
+public class Material implements Serializable {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * Diffuse reflection coefficient.
      */
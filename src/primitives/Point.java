@@ -1,10 +1,15 @@
 package primitives;
 
+import java.io.Serializable;
+
 /**
  * The Point class represents a point in three-dimensional space.
  * It provides methods for basic point operations such as addition, subtraction, and distance calculation.
  */
-public class Point {
+public class Point implements Serializable {
+
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
 
     /**
      * A constant representing the origin point (0, 0, 0).
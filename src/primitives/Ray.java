@@ -3,13 +3,17 @@ package primitives;
 import geometries.Intersectable.GeoPoint;
 import renderer.BlackBoard;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
 import static primitives.Util.isZero;
 
-public class Ray {
+public class Ray implements Serializable {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     private final Point head;
     private final Vector direction;
     /** A small constant value used to slightly move the origin of the shadow rays to avoid self-shadowing. */
@@ -23,7 +27,7 @@ public class Ray {
      */
     public Ray(Point head, Vector direction) {
         this.head = head;
-        this.direction = direction.normalize(); // Using the normalized method of Vector
+        this.direction = normalized(direction);
     }
     /**
      * Constructs a new Ray object with the specified starting point, direction, and normal.
@@ -33,10 +37,21 @@ public class Ray {
      * @param n The normal vector at the starting point.
      */
     public Ray(Point p, Vector direction, Vector n) {
-        this.direction = direction.normalize();
+        this.direction = normalized(direction);
         double nv = n.dotProduct(this.direction);
-        Vector dltVector=n.scale(nv<0 ? -DELTA : DELTA);//move the normal a bit by delta
-        head = p.add(dltVector);
+        double delta = nv < 0 ? -DELTA : DELTA; //move the point a bit by delta along the normal
+        head = new Point(p.xyz.d1 + n.xyz.d1 * delta, p.xyz.d2 + n.xyz.d2 * delta, p.xyz.d3 + n.xyz.d3 * delta);
+    }
+
+    /**
+     * Normalizes a direction vector, avoiding the allocation when it is already a unit vector
+     * (most of the directions in the tracing are).
+     *
+     * @param direction the direction vector
+     * @return the normalized direction
+     */
+    private static Vector normalized(Vector direction) {
+        return direction.lengthSquared() == 1d ? direction : direction.normalize();
     }
 
     /**
@@ -67,7 +82,9 @@ public class Ray {
         if (isZero(t)) {
             return head;
         }
-        return head.add(direction.scale(t));
+        return new Point(head.xyz.d1 + direction.xyz.d1 * t,
+                head.xyz.d2 + direction.xyz.d2 * t,
+                head.xyz.d3 + direction.xyz.d3 * t);
     }
 
     @Override
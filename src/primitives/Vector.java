@@ -1,11 +1,16 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * The Vector class represents a vector in three-dimensional space.
  * It extends the Point class and provides additional operations specific to vectors.
  */
 public class Vector extends Point {
 
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constructs a new Vector with the specified x, y, and z components.
      * Throws an IllegalArgumentException if the vector is the zero vector.
@@ -17,7 +22,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (this.xyz.equals(Double3.ZERO)) {
+        if (isZero(x) && isZero(y) && isZero(z)) {
             throw new IllegalArgumentException("Value cannot be equal to ZERO");
         }
     }
@@ -31,7 +36,7 @@ public class Vector extends Point {
      */
     public Vector(Double3 other) {
         super(other);
-        if (this.xyz.equals(Double3.ZERO)) {
+        if (isZero(other.d1) && isZero(other.d2) && isZero(other.d3)) {
             throw new IllegalArgumentException("Value cannot be equal to ZERO");
         }
     }
@@ -0,0 +1,171 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Accumulation buffer of a progressive rendering - the sums of the samples of all the rendering
+ * passes, one sample per pixel in every pass, kept in primitive float arrays (linear RGB, without
+ * any clamping).<br/>
+ * The even and the odd passes are summed separately: the two halves are independent estimates of
+ * the same image, so their difference estimates the remaining error of the image without keeping
+ * any per-pixel variance.<br/>
+ * Every pixel of a pass must be added by a single thread, and the passes must be separated by
+ * {@link #endPass()} (which must happen after all the samples of the pass have been added).
+ */
+public class AccumulationBuffer {
+    /** Horizontal resolution of the image */
+    private final int nX;
+    /** Vertical resolution of the image */
+    private final int nY;
+    /** Sums of the even passes - red, green and blue of every pixel in turn, row by row */
+    private final float[] even;
+    /** Sums of the odd passes - red, green and blue of every pixel in turn, row by row */
+    private final float[] odd;
+    /** Amount of finished passes */
+    private int passes = 0;
+
+    /**
+     * Constructs an empty accumulation buffer
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    public AccumulationBuffer(int nX, int nY) {
+        if (nX < 1 || nY < 1) throw new IllegalArgumentException("Image must have pixels");
+        if (3L * nX * nY > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Image is too large for progressive rendering");
+        this.nX = nX;
+        this.nY = nY;
+        even = new float[3 * nX * nY];
+        odd = new float[3 * nX * nY];
+    }
+
+    /**
+     * Horizontal resolution getter
+     *
+     * @return the amount of pixels by width
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Vertical resolution getter
+     *
+     * @return the amount of pixels by height
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Amount of finished passes getter
+     *
+     * @return the amount of finished passes
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Adds a sample of a pixel to the current pass
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  the color of the sample
+     */
+    public void add(int xIndex, int yIndex, Color color) {
+        float[] sums = (passes & 1) == 0 ? even : odd;
+        int index = 3 * (yIndex * nX + xIndex);
+        sums[index] += (float) color.getRed();
+        sums[index + 1] += (float) color.getGreen();
+        sums[index + 2] += (float) color.getBlue();
+    }
+
+    /**
+     * Finishes the current pass
+     */
+    public void endPass() {
+        ++passes;
+    }
+
+    /**
+     * Gets the current estimate of a pixel color - the mean of its samples in the finished passes
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the color of the pixel, black if no pass has been finished
+     */
+    public Color getColor(int xIndex, int yIndex) {
+        if (passes == 0) return Color.BLACK;
+        int index = 3 * (yIndex * nX + xIndex);
+        return new Color((double) even[index] + odd[index],
+                (double) even[index + 1] + odd[index + 1],
+                (double) even[index + 2] + odd[index + 2]).reduce(passes);
+    }
+
+    /**
+     * Estimates the remaining error of the image - the root mean square (over all the pixels and
+     * channels) of the standard error of the pixel colors. The error is estimated by the difference
+     * between the means of the even and the odd passes.
+     *
+     * @return the estimated error (in color units), infinity if there are less than 2 passes
+     */
+    public double getError() {
+        if (passes < 2) return Double.POSITIVE_INFINITY;
+        int evenPasses = (passes + 1) / 2;
+        int oddPasses = passes / 2;
+        double sum = 0;
+        for (int i = 0; i < even.length; ++i) {
+            double difference = (double) even[i] / evenPasses - (double) odd[i] / oddPasses;
+            sum += difference * difference;
+        }
+        // var(even mean - odd mean) = var * (1/evenPasses + 1/oddPasses), var(mean) = var / passes
+        return Math.sqrt(sum / even.length / (passes * (1d / evenPasses + 1d / oddPasses)));
+    }
+
+    /**
+     * Writes the accumulated passes (e.g. into a checkpoint of the rendering)
+     *
+     * @param out the output
+     * @throws IOException if the output can't be written
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(passes);
+        for (float sum : even) out.writeFloat(sum);
+        for (float sum : odd) out.writeFloat(sum);
+    }
+
+    /**
+     * Reads accumulated passes written by {@link #write(DataOutput)}
+     *
+     * @param in the input
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @return the accumulation buffer
+     * @throws IOException if the input can't be read
+     */
+    static AccumulationBuffer read(DataInput in, int nX, int nY) throws IOException {
+        AccumulationBuffer buffer = new AccumulationBuffer(nX, nY);
+        buffer.passes = in.readInt();
+        if (buffer.passes < 0) throw new IOException("Negative amount of passes");
+        for (int i = 0; i < buffer.even.length; ++i) buffer.even[i] = in.readFloat();
+        for (int i = 0; i < buffer.odd.length; ++i) buffer.odd[i] = in.readFloat();
+        return buffer;
+    }
+
+    /**
+     * Writes the current estimate of the image into an image writer
+     *
+     * @param imageWriter the image writer (of the same resolution)
+     */
+    public void writeTo(ImageWriter imageWriter) {
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j)
+                imageWriter.writePixel(j, i, getColor(j, i));
+    }
+}
@@ -6,13 +6,17 @@ import primitives.Vector;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import static primitives.Util.isZero;
 
 
 public class BlackBoard {
-    private static final Random random = new Random();
+    /**
+     * Random generator for jittering the grid points. Every blackboard has its own generator, so a
+     * blackboard must be confined to a single thread.
+     */
+    private SplittableRandom random = new SplittableRandom();
     /** The center point of the blackboard. */
     private Point pC;
     /** The up vector of the blackboard. */
@@ -33,6 +37,13 @@ public class BlackBoard {
     private double pixelSize;
     /** Half of the pixel size in the blackboard grid. */
     private double halfPixel;
+    /**
+     * Sampler of the beam points, null for the jittered grid clipped by the circle of the
+     * blackboard width
+     */
+    private Sampler sampler = null;
+    /** Buffer of the sampler positions (reused between the beams of the same density) */
+    private double[] samples = new double[0];
 
     /**
      * Constructs a blackboard with the specified width.
@@ -81,6 +92,29 @@ public class BlackBoard {
         return this;
     }
 
+    /**
+     * Reseeds the random generator of the jittering, so the following grids are reproducible.
+     * @param seed The seed of the random generator.
+     * @return The updated blackboard.
+     */
+    public BlackBoard setSeed(long seed) {
+        random = new SplittableRandom(seed);
+        if (sampler != null) sampler.setSeed(seed);
+        return this;
+    }
+
+    /**
+     * Sets the sampler of the beam points. With a sampler the beam has exactly the density amount
+     * of points, spread over the whole square of the blackboard width, instead of the jittered
+     * grid clipped by the circle of the blackboard width.
+     * @param sampler The sampler, or null for the jittered grid.
+     * @return The updated blackboard.
+     */
+    public BlackBoard setSampler(Sampler sampler) {
+        this.sampler = sampler;
+        return this;
+    }
+
     /**
      * Sets the rays for the given ray.
      * @param ray The ray for which to set the rays.
@@ -110,6 +144,20 @@ public class BlackBoard {
             return List.of(ray.getHead().add(ray.getDirection()));
 
         List<Point> points = new LinkedList<>();
+        if (sampler != null) {
+            if (samples.length != 2 * densityBeam) samples = new double[2 * densityBeam];
+            sampler.generate(samples);
+            for (int k = 0; k < densityBeam; ++k) {
+                double xJ = samples[2 * k] * width;
+                double yI = samples[2 * k + 1] * width;
+                Point pIJ = pC;
+                if (!isZero(xJ)) pIJ = pIJ.add(vRight.scale(xJ));
+                if (!isZero(yI)) pIJ = pIJ.add(vUp.scale(yI));
+                points.add(pIJ);
+            }
+            return points;
+        }
+
         for (int i = 0; i < relative; i++) {
             for (int j = 0; j < relative; j++) {
                 double randomX = random.nextDouble() * pixelSize - halfPixel;
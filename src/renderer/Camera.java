@@ -2,17 +2,38 @@ package renderer;
 
 import primitives.*;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static primitives.Util.isZero;
 
 /**
  * Represents a camera.
- * This class uses the Builder design pattern for construction.
+ * This class uses the Builder design pattern for construction.<br/>
+ * A camera is serializable together with its ray tracer and scene (but without its image writer
+ * and the state of a rendering), so the tiles of an image may be rendered by worker processes
+ * (see {@link #renderDistributed(int, RenderCoordinator)}).
  */
-public class Camera implements Cloneable {
+public class Camera implements Cloneable, Serializable {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /** The reference point of the camera. */
     private Point location;
     /** The vector that points onwards relative to the camera. */
@@ -28,20 +49,99 @@ public class Camera implements Cloneable {
     /** The distance between the camera and the view plane. */
     private double distance = 0;
     /** The image writer for writing the rendered image. */
-    private ImageWriter imageWriter;
+    private transient ImageWriter imageWriter;
     /** The ray tracer for tracing rays in the scene. */
     private RayTracerBase rayTracer;
-    /** The blackboard for generating multiple rays through a pixel. */
-    private BlackBoard blackBoard = new BlackBoard(0);
+    /**
+     * The blackboards for generating multiple rays through a pixel - one per rendering thread,
+     * since a blackboard keeps the state of the beam it is constructing.
+     */
+    private transient ThreadLocal<BlackBoard> blackBoards = ThreadLocal.withInitial(this::createBlackBoard);
+    /**
+     * Factory of the beam samplers (one per rendering thread), null for the blackboard jittered grid.
+     * It is serialized explicitly, so a factory that isn't serializable itself fails the serialization.
+     */
+    private transient Supplier<Sampler> samplerFactory = null;
+    /** Number of precomputed sample patterns of the regular super-sampling, 0 for a new beam per pixel */
+    private int samplePatterns = 0;
+    /**
+     * The sample patterns of the current rendering - sample offsets inside a pixel (x and y of every
+     * sample in turn, in pixel units), null if every pixel constructs its own beam
+     */
+    private double[][] patterns = null;
+    /** Amount of samples in a batch of the progressive sampling, 0 for a fixed amount of samples per pixel */
+    private int batchSize = 0;
+    /** Maximal half width of the confidence interval of a progressively sampled pixel color */
+    private double confidenceThreshold = 0;
+    /** The progressive samplers - one per rendering thread, since a sampler keeps the state of its pixel */
+    private transient ThreadLocal<ProgressiveSampler> progressiveSamplers =
+            ThreadLocal.withInitial(this::createProgressiveSampler);
+    /** Amount of samples taken by the progressive sampling of the last rendering */
+    private LongAdder progressiveSamples = new LongAdder();
+    /** Time budget of a progressive rendering in milliseconds, 0 for no limit */
+    private long timeBudget = 0;
+    /** Error budget of a progressive rendering (estimated standard error in color units), 0 for no limit */
+    private double errorBudget = 0;
+    /** Interval between the image snapshots of a progressive rendering in milliseconds, 0 for no snapshots */
+    private long snapshotInterval = 0;
+    /** Listener notified after every pass of a progressive rendering, null for none */
+    private transient Consumer<AccumulationBuffer> passListener = null;
+    /** Accumulation buffer of the last progressive rendering */
+    private transient AccumulationBuffer accumulation = null;
+    /** Flag whether the beam sampling is seeded (reproducible) */
+    private boolean isSeeded = false;
+    /** Seed of the beam sampling, every pixel derives its own seed from it and its coordinates */
+    private long seed = 0;
     /** Flag for adaptive super sampling */
     private Boolean isAdaptiveSampling = false;
-    private PixelManager pixelManager;
+    /** Amount of rays traced by the adaptive super-sampling of the last rendering */
+    private LongAdder adaptiveRaysTraced = new LongAdder();
+    /** Amount of adaptive super-sampling corner rays of the last rendering taken from the corner cache */
+    private LongAdder adaptiveRaysSaved = new LongAdder();
+    /** Scheduler of the image tiles between the rendering threads */
+    private transient TileManager tileManager;
+    /** Flag whether the image is streamed to its file while it is rendered (a row of tiles at a time) */
+    private boolean isStreaming = false;
+    /** File of the checkpoints of the renderings, null for no checkpoints */
+    private transient Path checkpointFile = null;
+    /** Minimal interval between the saved checkpoints in milliseconds */
+    private long checkpointInterval = 0;
+    /** Flag whether the statistics of the renderings are collected */
+    private boolean isCollectingStats = false;
+    /** Statistics of the current or the last rendering, null if they aren't collected */
+    private transient RenderStats stats = null;
+    /** Measure of the cost map of the renderings, null for no cost map */
+    private CostMap.Metric costMetric = null;
+    /** Cost map of the last rendering, null if there is none */
+    private transient CostMap costMap = null;
+    /** Checkpoint of the current rendering, null if there are no checkpoints */
+    private transient RenderCheckpoint checkpoint = null;
+    /** Edge length (in pixels) of the square tiles the image is rendered by */
+    private int tileSize = TileManager.DEFAULT_TILE_SIZE;
     /** Number of threads to use for rendering */
     private int threadsCount = 0; // -2 auto, -1 range/stream, 0 no threads, 1+ number of threads
     /** Number of spare threads if trying to use all the cores */
     private final int SPARE_THREADS = 2; // Spare threads if trying to use all the cores
+    /** Executor of the rendering threads */
+    private TileExecutor tileExecutor = TileExecutor.THREADS;
     /** Printing progress percentage interval */
     private double printInterval = 1; // printing progress percentage interval
+    /** Wall-clock time limit of a rendering of the image in milliseconds, 0 for no limit */
+    private long deadline = 0;
+    /** Deadline of the current rendering of the image, null if it has no time limit */
+    private transient RenderDeadline renderDeadline = null;
+    /** Token of the cancellation of the current rendering, null if it can't be cancelled by a token */
+    private transient CancellationToken cancellation = null;
+    /** The thread running the current rendering - interrupting it cancels the rendering */
+    private transient Thread renderingThread = null;
+    /** Flag whether the current rendering is cancelled by an interruption */
+    private transient volatile boolean interrupted = false;
+    /** Listener of the progress of the renderings, null for printing the progress to the console */
+    private transient ProgressListener progressListener = null;
+    /** Interval between the progress reports in milliseconds */
+    private long progressPeriod = DEFAULT_PROGRESS_PERIOD;
+    /** Default interval between the progress reports in milliseconds */
+    private static final long DEFAULT_PROGRESS_PERIOD = 200;
 
 
     /**
@@ -87,6 +187,51 @@ public class Camera implements Cloneable {
     public double getDistance() { return distance; }
 
 
+    /**
+     * Gets the amount of rays traced by the adaptive super-sampling of the last rendering.
+     * @return The amount of traced rays.
+     */
+    public long getAdaptiveRaysTraced() { return adaptiveRaysTraced.sum(); }
+
+    /**
+     * Gets the amount of adaptive super-sampling corner rays of the last rendering that were not traced,
+     * since the color of their corner had already been traced for a neighbouring region or pixel.
+     * @return The amount of saved rays.
+     */
+    public long getAdaptiveRaysSaved() { return adaptiveRaysSaved.sum(); }
+
+    /**
+     * Gets the amount of samples taken by the progressive sampling of the last rendering.
+     * @return The amount of samples.
+     */
+    public long getProgressiveSamples() { return progressiveSamples.sum(); }
+
+    /**
+     * Gets the accumulation buffer of the last progressive rendering.
+     * @return The accumulation buffer, null if there was no progressive rendering.
+     */
+    public AccumulationBuffer getAccumulationBuffer() { return accumulation; }
+
+    /**
+     * Gets the statistics of the last rendering of the image (see {@link Builder#setStatistics(boolean)}).
+     * @return The statistics, null if they weren't collected or the last rendering wasn't by {@link #renderImage(int)}.
+     */
+    public RenderStats getRenderStats() { return isCollectingStats ? stats : null; }
+
+    /**
+     * Gets the cost map of the last rendering of the image (see {@link Builder#setCostMap(CostMap.Metric)}).
+     * @return The cost map, null if there is none or the last rendering wasn't by {@link #renderImage(int)}.
+     */
+    public CostMap getCostMap() { return costMap; }
+
+    /**
+     * Gets the amount of tiles of the last rendering of the image that were rendered by fewer rays per pixel
+     * to meet the deadline (see {@link Builder#setDeadline(long)}).
+     * @return The amount of tiles, 0 if the rendering had no deadline.
+     */
+    public long getReducedTiles() { return renderDeadline == null ? 0 : renderDeadline.getReducedTiles(); }
+
+
     /**
      * Private default constructor to prevent instantiation.
      */
@@ -164,6 +309,10 @@ public class Camera implements Cloneable {
      */
     public List<Ray> constructRays(int nX, int nY, int j, int i, int numRays) {
         List<Ray> rays;
+        BlackBoard blackBoard = blackBoards.get();
+        // A pixel's beam depends only on the pixel (not on the thread or the rendering order)
+        if (isSeeded)
+            blackBoard.setSeed(seed + 0x9E3779B97F4A7C15L * ((long) i * nX + j + 1));
         blackBoard.setDistance(this.distance);
         blackBoard.setWidth(width/nX);
         blackBoard.setDensityBeam(numRays);
@@ -174,48 +323,448 @@ public class Camera implements Cloneable {
     }
 
     /**
-     * Renders the image by casting rays through each pixel.
+     * Creates the blackboard of a rendering thread, with its own sampler if a sampler is used.
+     * @return The new blackboard.
+     */
+    private BlackBoard createBlackBoard() {
+        return new BlackBoard(0).setSampler(samplerFactory == null ? null : samplerFactory.get());
+    }
+
+    /**
+     * Creates the progressive sampler of a rendering thread, sampling the batches by the camera sampler
+     * (or a stratified sampler if the camera has none).
+     * @return The new progressive sampler.
+     */
+    private ProgressiveSampler createProgressiveSampler() {
+        return new ProgressiveSampler(samplerFactory == null ? new StratifiedSampler() : samplerFactory.get(),
+                batchSize, confidenceThreshold);
+    }
+
+    /**
+     * Renders the image by casting rays through each pixel.<br/>
+     * If a checkpoint file is set (see {@link Builder#setCheckpoint(Path, long)}), the finished tiles are
+     * saved in it periodically, and the tiles finished by a previous (killed) rendering of the same
+     * scene with the same settings are restored from it instead of being rendered again.<br/>
+     * If a deadline is set (see {@link Builder#setDeadline(long)}), the tiles that can't be rendered by all
+     * their rays before the deadline are rendered by fewer rays per pixel.
      * @return The camera after rendering the image.
+     * @throws CancellationException if the rendering thread is interrupted.
      */
     public Camera renderImage(int numRays) {
+        return renderImage(numRays, null);
+    }
+
+    /**
+     * Renders the image like {@link #renderImage(int)}, but the rendering may be cancelled by a token (or by
+     * interrupting the rendering thread) - the rendering threads finish their current tiles and stop, the
+     * finished tiles are saved in the checkpoint (if any), so the rendering may be resumed later, and the
+     * function throws.
+     * @param numRays Number of rays to construct for each pixel.
+     * @param token The cancellation token, null if the rendering is cancelled by an interruption only.
+     * @return The camera after rendering the image.
+     * @throws CancellationException if the rendering is cancelled.
+     */
+    public Camera renderImage(int numRays, CancellationToken token) {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        prepareImage(nX, nY, numRays, deadline);
+        // the rays of every pixel are counted by the statistics
+        stats = isCollectingStats || costMetric == CostMap.Metric.RAYS
+                ? new RenderStats(tileManager.getTotalTiles()) : null;
+        costMap = costMetric == null ? null : new CostMap(nX, nY, costMetric);
+        renderDeadline = deadline > 0 ? new RenderDeadline(deadline, numRays) : null;
+        cancellation = token;
+        ProgressReporter progress = startProgress(numRays);
+        try {
+            processTiles(tile -> renderTile(nX, nY, tile, numRays));
+        } finally {
+            cancellation = null;
+            if (progress != null) progress.close();
+            // a cancelled rendering is resumed by its checkpoint
+            if (checkpoint != null) checkpoint.saveTiles(tileManager, imageWriter.getFrameBuffer());
+        }
+        if (stats != null) stats.end();
+        return this;
+    }
+
+    /**
+     * Renders the image like {@link #renderImage(int)}, but the tiles are rendered by worker processes
+     * (see {@link RenderWorker}) - the camera is serialized once together with its ray tracer and scene
+     * and shipped to every worker that connects to the coordinator, the tiles are dealt out to the
+     * workers dynamically, and the rendered pixels are written into the image writer as they arrive.
+     * @param numRays Number of rays to construct for each pixel.
+     * @param coordinator The coordinator the workers connect to.
+     * @return The camera after rendering the image.
+     * @throws IllegalArgumentException if the scene or the camera (e.g. its sampler factory) isn't serializable.
+     * @throws IllegalStateException if there are no workers to render the image.
+     */
+    public Camera renderDistributed(int numRays, RenderCoordinator coordinator) {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        prepareImage(nX, nY, numRays, 0);
+        stats = null;
+        costMap = null;
+        renderDeadline = null;
+        byte[] job = new RenderJob(nX, nY, numRays, this).write();
+        ProgressReporter progress = startProgress(numRays);
+        try {
+            coordinator.render(job, tileManager, (tile, rgb) -> {
+                for (int row = tile.row0(), k = 0; row < tile.row1(); ++row)
+                    for (int column = tile.col0(); column < tile.col1(); ++column, k += 3)
+                        imageWriter.writePixel(column, row, new Color(rgb[k], rgb[k + 1], rgb[k + 2]));
+                tileRendered(tile);
+            });
+        } finally {
+            if (progress != null) progress.close();
+        }
+        if (checkpoint != null) checkpoint.saveTiles(tileManager, imageWriter.getFrameBuffer());
+        return this;
+    }
+
+    /**
+     * Prepares the rendering of an image - the tiles, the checkpoint and the sample patterns.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param numRays Number of rays to construct for each pixel.
+     * @param timeLimit The time limit of the rendering in milliseconds, 0 for no limit.
+     */
+    private void prepareImage(int nX, int nY, int numRays, long timeLimit) {
+        // Verify that nX and nY are not zero to avoid division by zero
+        if (nY == 0 || nX == 0)
+            throw new IllegalArgumentException("It is impossible to divide by 0");
+
+        // Initialize tile manager - a streamed image encodes every row of tiles once it is rendered
+        if (isStreaming) imageWriter.startStreaming(tileSize);
+        tileManager = new TileManager(nY, nX, tileSize, isStreaming ? imageWriter::bandReady : null);
+        checkpoint = createCheckpoint(nX, nY, "tiles", numRays, timeLimit);
+        if (checkpoint != null && checkpoint.restoreTiles(tileManager, imageWriter)) {
+            // Resume the rendering - by the sample patterns it has started with
+            tileManager.skip(checkpoint.getDone());
+            patterns = checkpoint.getPatterns();
+        } else {
+            // Prepare the sample patterns once for the whole image
+            patterns = samplePatterns > 0 && numRays > 1 && !isAdaptiveSampling && batchSize == 0
+                    ? createPatterns(samplePatterns, numRays, StratifiedSampler::new) : null;
+            if (checkpoint != null) checkpoint.setPatterns(patterns);
+        }
+        adaptiveRaysTraced = new LongAdder();
+        adaptiveRaysSaved = new LongAdder();
+        progressiveSamples = new LongAdder();
+    }
+
+    /**
+     * Starts reporting the progress of the rendering of the image to the progress listener of the camera
+     * (or to the console, if the camera has no listener and the progress printing is on).
+     * @param numRays Number of rays to construct for each pixel.
+     * @return The progress reporter, null if the progress isn't reported.
+     */
+    private ProgressReporter startProgress(int numRays) {
+        ProgressListener listener = progressListener != null ? progressListener
+                : printInterval > 0 ? new ConsoleProgress(printInterval) : null;
+        if (listener == null) return null;
+        TileManager tiles = tileManager;
+        RenderStats counting = stats;
+        return new ProgressReporter(listener, progressPeriod, tiles::getDonePixels, tiles.getTotalPixels(),
+                counting != null ? counting::getTotalRays : () -> tiles.getDonePixels() * numRays);
+    }
+
+    /**
+     * Serializes the camera (e.g. for the render workers) with its sampler factory.
+     * @param out The object output stream.
+     * @throws IOException if the stream can't be written (NotSerializableException if the sampler factory
+     *                     isn't serializable).
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(samplerFactory);
+    }
+
+    /**
+     * Restores the sampler factory and the per-thread state of a deserialized camera (e.g. received by a
+     * render worker).
+     * @param in The object input stream.
+     * @throws IOException if the stream can't be read.
+     * @throws ClassNotFoundException if a class of the camera isn't found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        @SuppressWarnings("unchecked")
+        Supplier<Sampler> factory = (Supplier<Sampler>) in.readObject();
+        samplerFactory = factory;
+        blackBoards = ThreadLocal.withInitial(this::createBlackBoard);
+        progressiveSamplers = ThreadLocal.withInitial(this::createProgressiveSampler);
+    }
+
+    /**
+     * Sets the image writer of a camera received by a render worker - the rendered pixels are written into it.
+     * @param imageWriter The image writer.
+     */
+    void setImageWriter(ImageWriter imageWriter) {
+        this.imageWriter = imageWriter;
+    }
+
+    /**
+     * Renders the image progressively - pass after pass, every pass adds a single sample of every pixel
+     * to the accumulation buffer, until the budget of the rendering is reached (see
+     * {@link Builder#setRenderBudget(long, double)}) or maxPasses passes are done. The budget is checked
+     * between the passes. The pass listener is notified (by the calling thread) after every pass, and the
+     * image is written periodically if a snapshot interval is set. The final image is written into the
+     * image writer (but not to its file).<br/>
+     * The samples of every pixel follow a sample pattern of the camera sampler (a {@link HaltonSampler}
+     * if it has none, since its every prefix is well distributed).<br/>
+     * If a checkpoint file is set (see {@link Builder#setCheckpoint(Path, long)}), the accumulation buffer
+     * is saved in it periodically (between the passes), and a previous (killed) rendering of the same
+     * scene with the same settings is resumed from it. The budget is counted from the resumption.
+     * @param maxPasses The maximal number of passes (samples per pixel).
+     * @return The camera after rendering the image.
+     * @throws IllegalArgumentException if the number of passes isn't positive.
+     */
+    public Camera renderProgressive(int maxPasses) {
+        if (maxPasses < 1)
+            throw new IllegalArgumentException("Number of passes must be positive");
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
         // Verify that nX and nY are not zero to avoid division by zero
         if (nY == 0 || nX == 0)
             throw new IllegalArgumentException("It is impossible to divide by 0");
 
-        // Initialize pixel manager
-        pixelManager = new PixelManager(nY, nX, printInterval);
+        stats = null;
+        costMap = null;
+        checkpoint = createCheckpoint(nX, nY, "passes", maxPasses, 0);
+        int patternCount = samplePatterns > 0 ? samplePatterns : ProgressiveRendering.PATTERNS;
+        ProgressiveRendering rendering = new ProgressiveRendering(nX, nY, maxPasses, checkpoint,
+                length -> createPatterns(patternCount, length, HaltonSampler::new))
+                .setBudget(timeBudget, errorBudget)
+                .setSnapshotInterval(snapshotInterval)
+                .setPassListener(passListener);
+        accumulation = rendering.getAccumulation();
+        double rX = width / nX;
+        double rY = height / nY;
+        rendering.render(pass -> {
+            tileManager = new TileManager(nY, nX, tileSize);
+            processTiles(tile -> {
+                rendering.renderPass(nX, tile, pass, (column, row, x, y) -> rayTracer.traceRay(constructRay(
+                        (column - (nX - 1) / 2d) * rX + x * rX, -(row - (nY - 1) / 2d) * rY + y * rY)));
+                tileManager.tileDone(tile);
+            });
+        }, imageWriter);
+        return this;
+    }
+
+    /**
+     * Creates the checkpoint of a rendering, keyed by the content of the scene (a digest of its serialized
+     * form), the ray tracer, the camera and the sampling settings - including the time limit, since the
+     * tiles rendered by fewer rays to meet it are final only for the same limit.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param kind The kind of the rendering.
+     * @param samples The samples per pixel (or passes) of the rendering.
+     * @param timeLimit The time limit of the rendering in milliseconds, 0 for no limit.
+     * @return The checkpoint, null if there is no checkpoint file.
+     * @throws IllegalArgumentException if the scene isn't serializable.
+     */
+    private RenderCheckpoint createCheckpoint(int nX, int nY, String kind, int samples, long timeLimit) {
+        if (checkpointFile == null) return null;
+        long key = RenderCheckpoint.key(RenderCheckpoint.digest(rayTracer.scene), rayTracer.getClass().getName(),
+                location, vTo, vUp, width, height, distance, nX, nY, tileSize,
+                kind, samples, timeLimit, isSeeded, seed, samplePatterns, batchSize, confidenceThreshold, isAdaptiveSampling,
+                samplerFactory == null ? null : samplerFactory.get().getClass().getName());
+        return new RenderCheckpoint(checkpointFile, checkpointInterval, key, nX, nY);
+    }
 
-        // If no threads are specified, process pixels sequentially
+    /**
+     * Processes all the tiles of the tile manager by the threading mode of the camera.
+     * The rendering is cancelled between the tiles if the cancellation token is cancelled or the
+     * calling thread is interrupted - the threads finish their current tiles, and then the function throws
+     * (and the interruption status of the calling thread is kept).
+     * @param renderer Renderer of a single tile.
+     * @throws CancellationException if the rendering is cancelled.
+     */
+    private void processTiles(Consumer<TileManager.Tile> renderer) {
+        renderingThread = Thread.currentThread();
+        interrupted = false;
+        // If no threads are specified, process the tiles sequentially
         if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j)
-                    castRay(nX, nY, j, i, numRays);
+            renderTiles(renderer);
+        }
+        else if (threadsCount == -1) { // Process the tiles by a parallel stream
+            IntStream.range(0, tileManager.getTotalTiles()).parallel()
+                    .filter(index -> !tileManager.isSkipped(index) && !isCancelled())
+                    .forEach(index -> renderer.accept(tileManager.getTile(index)));
         }
-        else { // If threads are specified, process pixels in parallel
+        else if (tileExecutor != TileExecutor.THREADS) { // Process a task per tile by an executor
+            executeTiles(renderer);
+        }
+        else { // If threads are specified, process tiles in parallel
             var threads = new LinkedList<Thread>(); // list of threads
 
-            // Create the specified number of threads
-            while (threadsCount-- > 0)
-                threads.add(new Thread(() -> { // add a thread with its code
-                    PixelManager.Pixel pixel; // current pixel(row,col)
-                    // Allocate pixel(row,col) in loop until there are no more pixels
-                    while ((pixel = pixelManager.nextPixel()) != null)
-                        // Cast ray through pixel (and color it – inside castRay)
-                        castRay(nX, nY, pixel.col(), pixel.row(), numRays);
-                }));
+            // Create the specified number of threads, each one claims tiles until there are no more tiles
+            for (int k = 0; k < threadsCount; ++k)
+                threads.add(new Thread(() -> renderTiles(renderer)));
 
             // Start all the threads
             for (var thread : threads) thread.start();
 
-            // Wait until all the threads have finished
+            // Wait until all the threads have finished - an interruption cancels the rendering,
+            // and the threads are still waited for, since they write into the image
+            for (var thread : threads) {
+                while (thread.isAlive()) {
+                    try {
+                        thread.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) renderingThread.interrupt();
+        }
+        if (isCancelled()) throw new CancellationException("The rendering was cancelled");
+    }
+
+    /**
+     * Processes all the tiles of the tile manager by a task per tile in the executor of the camera.
+     * The function returns once all the tasks have finished - an interruption cancels the rendering (as in
+     * {@link #processTiles(Consumer)}), and a failure of a task is thrown after the other tasks have finished.
+     * @param renderer Renderer of a single tile.
+     */
+    private void executeTiles(Consumer<TileManager.Tile> renderer) {
+        RuntimeException failure = null;
+        try (ExecutorService executor = tileExecutor == TileExecutor.VIRTUAL_THREADS
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : new ForkJoinPool(threadsCount)) {
+            // Every task claims a single tile - the tiles are claimed in the order of the tile manager,
+            // and the tasks claiming no tile (the skipped ones) end immediately
+            var tasks = new LinkedList<Future<?>>();
+            for (int k = 0; k < tileManager.getTotalTiles(); ++k)
+                tasks.add(executor.submit(() -> {
+                    TileManager.Tile tile;
+                    if (!isCancelled() && (tile = tileManager.nextTile()) != null) renderer.accept(tile);
+                }));
+
+            // Wait until all the tasks have finished, since they write into the image
+            for (var task : tasks) {
+                boolean waiting = true;
+                while (waiting) {
+                    try {
+                        task.get();
+                        waiting = false;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        if (failure == null)
+                            failure = e.getCause() instanceof RuntimeException cause ? cause
+                                    : new IllegalStateException("Tile rendering failed", e.getCause());
+                        waiting = false;
+                    }
+                }
+            }
+        }
+        if (interrupted) renderingThread.interrupt();
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Checks whether the current rendering is cancelled - by its token or by interrupting its thread.
+     * @return True if the rendering is cancelled.
+     */
+    private boolean isCancelled() {
+        return interrupted || renderingThread.isInterrupted() || cancellation != null && cancellation.isCancelled();
+    }
+
+    /**
+     * Renders the tiles allocated by the tile manager until there are no more tiles or the rendering is cancelled.
+     * @param renderer Renderer of a single tile.
+     */
+    private void renderTiles(Consumer<TileManager.Tile> renderer) {
+        TileManager.Tile tile; // current tile
+        while (!isCancelled() && (tile = tileManager.nextTile()) != null)
+            renderer.accept(tile);
+    }
+
+    /**
+     * Renders all the pixels of a tile and reports the tile as done.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param tile The tile to render.
+     * @param numRays Number of rays to construct for each pixel.
+     */
+    private void renderTile(int nX, int nY, TileManager.Tile tile, int numRays) {
+        // The tiles that can't be rendered by all their rays before the deadline are rendered by fewer rays
+        RenderDeadline limit = renderDeadline;
+        if (stats == null) {
+            renderPixels(nX, nY, tile, numRays, limit);
+        } else {
+            // The intersection tests of the tile are counted by the current thread
+            RenderStats.Attachment previous = stats.startTile();
+            long begin = System.nanoTime();
             try {
-                for (var thread : threads) thread.join();
-            } catch (InterruptedException ignore) {
+                renderPixels(nX, nY, tile, numRays, limit);
+            } finally {
+                stats.endTile(tileManager.getIndex(tile), tile, begin, previous);
             }
         }
-        return this;
+        tileRendered(tile);
+    }
+
+    /**
+     * Renders all the pixels of a tile into the image writer by the rays per pixel a deadline affords.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param tile The tile to render.
+     * @param numRays Number of rays to construct for each pixel.
+     * @param limit The deadline of the rendering, null if it has no time limit.
+     */
+    private void renderPixels(int nX, int nY, TileManager.Tile tile, int numRays, RenderDeadline limit) {
+        if (limit == null)
+            renderPixels(nX, nY, tile, numRays);
+        else
+            limit.renderTile(tile.pixels(), tileManager.getTotalPixels() - tileManager.getDonePixels(),
+                    samples -> renderPixels(nX, nY, tile, samples));
+    }
+
+    /**
+     * Reports a tile as done - to the checkpoint (if any) and to the tile manager.
+     * @param tile The rendered tile.
+     */
+    private void tileRendered(TileManager.Tile tile) {
+        if (checkpoint != null)
+            checkpoint.tileDone(tileManager.getIndex(tile), tileManager, imageWriter.getFrameBuffer());
+        tileManager.tileDone(tile);
+    }
+
+    /**
+     * Renders all the pixels of a tile into the image writer.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param tile The tile to render.
+     * @param numRays Number of rays to construct for each pixel.
+     */
+    void renderPixels(int nX, int nY, TileManager.Tile tile, int numRays) {
+        // The adaptive corners shared by the pixels of the tile are traced once
+        CornerCache cache = isAdaptiveSampling && numRays > 1 ? new CornerCache(tile, numRays) : null;
+        for (int row = tile.row0(); row < tile.row1(); ++row)
+            for (int column = tile.col0(); column < tile.col1(); ++column) {
+                if (costMap == null) {
+                    // Cast ray through pixel (and color it – inside castRay)
+                    castRay(nX, nY, column, row, numRays, cache);
+                } else {
+                    long cost = pixelCost();
+                    castRay(nX, nY, column, row, numRays, cache);
+                    costMap.set(column, row, pixelCost() - cost);
+                }
+            }
+        if (cache != null) {
+            adaptiveRaysTraced.add(cache.traced);
+            adaptiveRaysSaved.add(cache.saved);
+        }
+    }
+
+    /**
+     * Reads the cost counter of the cost map metric for the current thread.
+     * @return The amount of rays traced by the thread so far, or the current time in nanoseconds.
+     */
+    private long pixelCost() {
+        return costMap.getMetric() == CostMap.Metric.TIME ? System.nanoTime() : stats.getThreadRays();
     }
 
     /**
@@ -243,8 +792,9 @@ public class Camera implements Cloneable {
      * @param column The column index of the pixel.
      * @param row The row index of the pixel.
      * @param numRays Number of rays to construct.
+     * @param cache The adaptive super-sampling corner cache of the pixel's tile, null if not sampling adaptively.
      */
-    private void castRay(int nX, int nY, int column, int row, int numRays) {
+    private void castRay(int nX, int nY, int column, int row, int numRays, CornerCache cache) {
         Color color = Color.BLACK;
         if (numRays == 1) {
             // Trace a single ray
@@ -253,21 +803,125 @@ public class Camera implements Cloneable {
         } else {
             // boolean colorsDifferernt = false;
             if(isAdaptiveSampling) {
-                double rY = height / nY;
-                double rX = width / nX;
-                double sY = rY /numRays;
-                double sX = rX / numRays;
-                Point pIJ=getPIJ(nX,nY,column,row);
-                color= adaptiveSuperSampling(pIJ, rX, rY, sX, sY);
+                // The pixel is the square of the lattice from its top left corner
+                int size = cache.resolution;
+                color = adaptiveSuperSampling(nX, nY, cache, (column - cache.column0) * size,
+                        (row - cache.row0) * size, size);
+            } else if (batchSize > 0) {
+                // Trace batches of rays until the pixel color is precise enough (progressive sampling)
+                color = castProgressive(nX, nY, column, row, numRays);
+            } else if (patterns != null && patterns[0].length == 2 * numRays) {
+                // Trace multiple rays by a precomputed pattern (regular super-sampling)
+                color = castPattern(nX, nY, column, row);
             } else {
                 // Trace multiple rays (regular super-sampling)
                 List<Ray> rays = constructRays(nX, nY, column, row, numRays);
                 color = avrageColor(rays, color);
             }
         }
-        // Write the computed color to the image and mark the pixel as done
+        // Write the computed color to the image
         imageWriter.writePixel(column, row, color);
-        pixelManager.pixelDone();
+    }
+
+    /**
+     * Creates the sample patterns of a rendering by the camera sampler (or a default sampler if
+     * the camera has none). Every pattern is a differently randomized set of the same sampler, so
+     * neighbouring pixels don't share the same sampling errors.
+     * @param count Number of patterns.
+     * @param numRays Number of samples in a pattern.
+     * @param defaultSampler Factory of the sampler to use if the camera has no sampler.
+     * @return The patterns - x and y offsets of every sample in turn, in pixel units.
+     */
+    private double[][] createPatterns(int count, int numRays, Supplier<Sampler> defaultSampler) {
+        Sampler sampler = (samplerFactory == null ? defaultSampler : samplerFactory).get();
+        if (isSeeded) sampler.setSeed(seed);
+        double[][] result = new double[count][2 * numRays];
+        for (double[] pattern : result) sampler.generate(pattern);
+        return result;
+    }
+
+    /**
+     * Casts the rays of a precomputed sample pattern through a pixel and averages their colors.
+     * Every pixel uses one of the patterns, chosen by a hash of its index, and every sample is mapped
+     * into the pixel by scaling its offsets by the pixel size - no beam objects are built.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param column The column index of the pixel.
+     * @param row The row index of the pixel.
+     * @return The average color of the pixel.
+     */
+    private Color castPattern(int nX, int nY, int column, int row) {
+        double rX = width / nX;
+        double rY = height / nY;
+        double xJ = (column - (nX - 1) / 2d) * rX;
+        double yI = -(row - (nY - 1) / 2d) * rY;
+        // direction from the camera location to the pixel center
+        double cx = vTo.getX() * distance + vRight.getX() * xJ + vUp.getX() * yI;
+        double cy = vTo.getY() * distance + vRight.getY() * xJ + vUp.getY() * yI;
+        double cz = vTo.getZ() * distance + vRight.getZ() * xJ + vUp.getZ() * yI;
+
+        double[] pattern = patterns[Math.floorMod(hash(row * nX + column), patterns.length)];
+
+        Color color = Color.BLACK;
+        for (int k = 0; k < pattern.length; k += 2) {
+            double x = pattern[k] * rX;
+            double y = pattern[k + 1] * rY;
+            Vector direction = new Vector(cx + vRight.getX() * x + vUp.getX() * y,
+                    cy + vRight.getY() * x + vUp.getY() * y,
+                    cz + vRight.getZ() * x + vUp.getZ() * y);
+            color = color.add(rayTracer.traceRay(new Ray(location, direction)));
+        }
+        return color.reduce(pattern.length / 2);
+    }
+
+    /**
+     * Hashes a pixel index for choosing its sample pattern - the murmur3 finalizer spreads the patterns
+     * without a regular structure.
+     * @param index The pixel index.
+     * @return The hash.
+     */
+    static int hash(int index) {
+        index ^= index >>> 16;
+        index *= 0x85EBCA6B;
+        index ^= index >>> 13;
+        return index;
+    }
+
+    /**
+     * Samples a pixel progressively - batch after batch, until the confidence interval of its color is
+     * narrow enough or numRays samples are taken.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param column The column index of the pixel.
+     * @param row The row index of the pixel.
+     * @param numRays The sample budget of the pixel.
+     * @return The mean color of the samples.
+     */
+    private Color castProgressive(int nX, int nY, int column, int row, int numRays) {
+        double rX = width / nX;
+        double rY = height / nY;
+        double xJ = (column - (nX - 1) / 2d) * rX;
+        double yI = -(row - (nY - 1) / 2d) * rY;
+        ProgressiveSampler sampler = progressiveSamplers.get();
+        // A pixel's samples depend only on the pixel (not on the thread or the rendering order)
+        if (isSeeded)
+            sampler.setSeed(seed + 0x9E3779B97F4A7C15L * ((long) row * nX + column + 1));
+        Color color = sampler.sample((x, y) -> rayTracer.traceRay(constructRay(xJ + x * rX, yI + y * rY)),
+                numRays);
+        progressiveSamples.add(sampler.getSampleCount());
+        return color;
+    }
+
+    /**
+     * Constructs a ray from the camera through a point of the view plane.
+     * @param x Horizontal offset of the point from the view plane center.
+     * @param y Vertical offset of the point from the view plane center.
+     * @return The ray.
+     */
+    private Ray constructRay(double x, double y) {
+        return new Ray(location, new Vector(vTo.getX() * distance + vRight.getX() * x + vUp.getX() * y,
+                vTo.getY() * distance + vRight.getY() * x + vUp.getY() * y,
+                vTo.getZ() * distance + vRight.getZ() * x + vUp.getZ() * y));
     }
 
     /**
@@ -332,6 +986,168 @@ public class Camera implements Cloneable {
     }
 
 
+    /**
+     * Cache of the adaptive super-sampling corner colors of a single tile.<br/>
+     * The corners of all the adaptive regions lie on a sub-pixel lattice: a pixel is subdivided
+     * in halves until the regions are smaller than twice the minimal size, so a power of two
+     * lattice units per pixel edge hold all the corners and the centers of the smallest regions.
+     * A corner shared by neighbouring regions (or neighbouring pixels) is traced once, and then
+     * found by its lattice coordinates. The cache is created per tile and used only by the thread
+     * rendering the tile, so it needs no synchronization.
+     */
+    private static class CornerCache {
+        /** Lattice units per pixel edge, the smallest region is 2 units wide */
+        final int resolution;
+        /** First column of the tile */
+        final int column0;
+        /** First row of the tile */
+        final int row0;
+        /** Lattice coordinates of the cached corners (y in the high half), open addressing */
+        private long[] keys;
+        /** Colors of the cached corners, null for an empty slot */
+        private Color[] colors;
+        /** Amount of cached corners */
+        private int size = 0;
+        /** Amount of rays traced for the tile */
+        long traced = 0;
+        /** Amount of corner rays found in the cache */
+        long saved = 0;
+
+        /**
+         * Creates an empty cache for a tile
+         * @param tile The tile.
+         * @param numRays Number of rays per pixel edge - the minimal region is 1/numRays of a pixel.
+         */
+        CornerCache(TileManager.Tile tile, int numRays) {
+            resolution = 2 * Integer.highestOneBit(numRays);
+            column0 = tile.col0();
+            row0 = tile.row0();
+            // room for the pixel corners at least
+            int capacity = Integer.highestOneBit(4 * (tile.col1() - column0 + 1) * (tile.row1() - row0 + 1));
+            keys = new long[capacity];
+            colors = new Color[capacity];
+        }
+
+        /**
+         * Finds the slot of a lattice point - either its cached color or the empty slot to store it
+         * @param key The lattice point coordinates.
+         * @return The slot index.
+         */
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int index = (int) (key * 0x9E3779B97F4A7C15L >>> 32) & mask;
+            while (colors[index] != null && keys[index] != key) index = (index + 1) & mask;
+            return index;
+        }
+
+        /**
+         * Gets the cached color of a lattice point
+         * @param x Lattice column (relative to the tile).
+         * @param y Lattice row (relative to the tile).
+         * @return The color, or null if the point hasn't been traced yet.
+         */
+        Color get(int x, int y) {
+            return colors[slot((long) y << 32 | x)];
+        }
+
+        /**
+         * Stores the color of a lattice point
+         * @param x Lattice column (relative to the tile).
+         * @param y Lattice row (relative to the tile).
+         * @param color The traced color.
+         */
+        void put(int x, int y, Color color) {
+            long key = (long) y << 32 | x;
+            int index = slot(key);
+            keys[index] = key;
+            colors[index] = color;
+            // keep the table at most half full
+            if (++size * 2 > keys.length) {
+                long[] oldKeys = keys;
+                Color[] oldColors = colors;
+                keys = new long[oldKeys.length * 2];
+                colors = new Color[oldKeys.length * 2];
+                for (int i = 0; i < oldKeys.length; ++i)
+                    if (oldColors[i] != null) {
+                        index = slot(oldKeys[i]);
+                        keys[index] = oldKeys[i];
+                        colors[index] = oldColors[i];
+                    }
+            }
+        }
+    }
+
+    /**
+     * Performs adaptive super-sampling on a square region of the lattice of a tile - the same
+     * subdivision as {@link #adaptiveSuperSampling(Point, double, double, double, double)}, but the
+     * corner colors are taken from the tile's cache whenever a neighbouring region has traced them.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param cache The corner cache of the tile.
+     * @param x Lattice column of the region's top left corner (relative to the tile).
+     * @param y Lattice row of the region's top left corner (relative to the tile).
+     * @param size Edge length of the region in lattice units.
+     * @return The averaged color of the region.
+     */
+    private Color adaptiveSuperSampling(int nX, int nY, CornerCache cache, int x, int y, int size) {
+        // The smallest region is sampled by a single ray through its center
+        if (size <= 2) {
+            ++cache.traced;
+            return traceLatticeRay(nX, nY, cache, x + 1, y + 1);
+        }
+
+        // Corner colors - bottom left first, as the uncached sampling compares them to it
+        Color first = cornerColor(nX, nY, cache, x, y + size);
+        if (first.isAlmostEquals(cornerColor(nX, nY, cache, x, y))
+                && first.isAlmostEquals(cornerColor(nX, nY, cache, x + size, y + size))
+                && first.isAlmostEquals(cornerColor(nX, nY, cache, x + size, y)))
+            return first;
+
+        // Otherwise average the four sub-regions
+        int half = size / 2;
+        return adaptiveSuperSampling(nX, nY, cache, x, y + half, half)
+                .add(adaptiveSuperSampling(nX, nY, cache, x, y, half))
+                .add(adaptiveSuperSampling(nX, nY, cache, x + half, y + half, half))
+                .add(adaptiveSuperSampling(nX, nY, cache, x + half, y, half))
+                .reduce(4);
+    }
+
+    /**
+     * Gets the color of a corner lattice point, tracing it only if it isn't cached yet.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param cache The corner cache of the tile.
+     * @param x Lattice column (relative to the tile).
+     * @param y Lattice row (relative to the tile).
+     * @return The color of the corner.
+     */
+    private Color cornerColor(int nX, int nY, CornerCache cache, int x, int y) {
+        Color color = cache.get(x, y);
+        if (color != null) {
+            ++cache.saved;
+            return color;
+        }
+        ++cache.traced;
+        color = traceLatticeRay(nX, nY, cache, x, y);
+        cache.put(x, y, color);
+        return color;
+    }
+
+    /**
+     * Traces a ray through a lattice point of a tile.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param cache The corner cache of the tile.
+     * @param x Lattice column (relative to the tile).
+     * @param y Lattice row (relative to the tile).
+     * @return The color of the ray.
+     */
+    private Color traceLatticeRay(int nX, int nY, CornerCache cache, int x, int y) {
+        double xJ = ((double) x / cache.resolution + cache.column0 - nX / 2d) * (width / nX);
+        double yI = -((double) y / cache.resolution + cache.row0 - nY / 2d) * (height / nY);
+        return rayTracer.traceRay(constructRay(xJ, yI));
+    }
+
     /**
      * Prints a grid on the image with the specified interval and color.
      * @param interval The interval between the grid lines.
@@ -595,6 +1411,277 @@ public class Camera implements Cloneable {
             this.camera.rayTracer = rayTracer;
             return this;
         }
+        /**
+         * Sets the edge length of the square tiles the image is rendered by.
+         * @param tileSize The tile edge length in pixels.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the tile size is not positive.
+         */
+        public Builder setTileSize(int tileSize) {
+            if (tileSize < 1) {
+                throw new IllegalArgumentException("Tile size must be positive");
+            }
+            camera.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * Sets the multithreading mode of the rendering.
+         * @param threads -2 for using all the available cores (but the spare ones),
+         *                -1 for a parallel stream of tiles,
+         *                0 for no multithreading,
+         *                1 or more for the number of rendering threads.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the parameter is less than -2.
+         */
+        public Builder setMultithreading(int threads) {
+            if (threads < -2) {
+                throw new IllegalArgumentException("Multithreading parameter must be -2 or higher");
+            }
+            if (threads == -2) {
+                int cores = Runtime.getRuntime().availableProcessors() - camera.SPARE_THREADS;
+                camera.threadsCount = Math.max(1, cores);
+            } else {
+                camera.threadsCount = threads;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the executor of the rendering threads, used when the image is rendered by a number of threads
+         * (see {@link #setMultithreading(int)}).
+         * @param executor The executor of the rendering threads.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the executor is null.
+         */
+        public Builder setTileExecutor(TileExecutor executor) {
+            if (executor == null) {
+                throw new IllegalArgumentException("Tile executor must not be null");
+            }
+            camera.tileExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the interval of printing the rendering progress to the console (by a {@link ConsoleProgress}),
+         * unless the camera has a progress listener.
+         * @param interval The printing interval in percents, 0 for no printing.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the interval is negative.
+         */
+        public Builder setDebugPrint(double interval) {
+            if (interval < 0) {
+                throw new IllegalArgumentException("Interval value must be non-negative");
+            }
+            camera.printInterval = interval;
+            return this;
+        }
+
+        /**
+         * Sets the listener of the progress of the renderings of the image (instead of printing the progress
+         * to the console). The listener is called periodically by a reporting thread, not by the rendering
+         * threads, and once more at the end of every rendering.
+         * @param listener The listener, null for printing the progress to the console (see {@link #setDebugPrint(double)}).
+         * @param millis The interval between the progress reports in milliseconds.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the interval isn't positive.
+         */
+        public Builder setProgressListener(ProgressListener listener, long millis) {
+            if (millis <= 0) {
+                throw new IllegalArgumentException("Progress interval must be positive");
+            }
+            camera.progressListener = listener;
+            camera.progressPeriod = millis;
+            return this;
+        }
+
+        /**
+         * Sets the wall-clock time limit of a rendering of the image (see {@link Camera#renderImage(int)}) -
+         * the rendering threads check it between the tiles, and once the remaining tiles can't be rendered
+         * by all their rays before the deadline, they are rendered by fewer rays per pixel (down to a single
+         * ray), so the image is finished on time. The first tile of every thread is rendered by a single ray
+         * per pixel first, to estimate the cost of a ray.
+         * @param millis The time limit in milliseconds, 0 for no limit.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the time limit is negative.
+         */
+        public Builder setDeadline(long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("Deadline must be non-negative");
+            }
+            camera.deadline = millis;
+            return this;
+        }
+
+        /**
+         * Seeds the random jittering of the ray beams, so the rendered image is reproducible and
+         * doesn't depend on the multithreading mode.
+         * @param seed The seed of the beam sampling.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setSeed(long seed) {
+            camera.isSeeded = true;
+            camera.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the sampler of the ray beams of the regular super-sampling. Every rendering thread
+         * gets its own sampler from the factory (e.g. {@code HaltonSampler::new}), and then every
+         * pixel gets exactly numRays rays spread over the whole pixel, instead of the default jittered
+         * grid of about numRays<sup>2</sup> rays clipped by a circle.
+         * @param samplerFactory The factory of the samplers, null for the default jittered grid.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setSampler(Supplier<Sampler> samplerFactory) {
+            camera.samplerFactory = samplerFactory;
+            return this;
+        }
+
+        /**
+         * Sets the number of sample patterns the regular super-sampling precomputes once per rendering.
+         * Every pixel then takes exactly numRays samples by one of the patterns (chosen by the pixel),
+         * scaled to the pixel size, instead of constructing a new beam of rays per pixel. The patterns
+         * are generated by the sampler of the camera (a {@link StratifiedSampler} if it has none).
+         * @param count The number of patterns, 0 for a new beam per pixel (the default).
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the number is negative.
+         */
+        public Builder setSamplePatterns(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Number of sample patterns must be non-negative");
+            }
+            camera.samplePatterns = count;
+            return this;
+        }
+
+        /**
+         * Turns on the progressive (variance driven) super-sampling: every pixel is sampled by batches
+         * of rays until the 95% confidence interval of every channel of its color is within the threshold,
+         * but not beyond the numRays samples of the rendering. Flat regions then cost a single batch,
+         * while edges and noisy regions get the whole budget. The batches are generated by the sampler
+         * of the camera (a {@link StratifiedSampler} if it has none).
+         * @param batchSize The amount of samples in a batch, 0 to turn the progressive sampling off.
+         * @param threshold The maximal half width of the confidence interval, in color units
+         *                  (255 is the full printed intensity).
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the batch has a single sample or less (other than 0),
+         *                                  or the threshold is negative.
+         */
+        public Builder setProgressiveSampling(int batchSize, double threshold) {
+            if (batchSize < 0 || batchSize == 1) {
+                throw new IllegalArgumentException("A progressive sampling batch must have at least 2 samples");
+            }
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Confidence threshold must be non-negative");
+            }
+            camera.batchSize = batchSize;
+            camera.confidenceThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the budget of a progressive rendering - it stops after the first pass that exceeds the
+         * time budget or reaches the error budget, whichever comes first.
+         * @param millis The time budget in milliseconds, 0 for no time limit.
+         * @param error The error budget - the estimated root mean square standard error of the pixel
+         *              colors, in color units (255 is the full printed intensity), 0 for no error limit.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if a budget is negative.
+         */
+        public Builder setRenderBudget(long millis, double error) {
+            if (millis < 0 || error < 0) {
+                throw new IllegalArgumentException("Rendering budget must be non-negative");
+            }
+            camera.timeBudget = millis;
+            camera.errorBudget = error;
+            return this;
+        }
+
+        /**
+         * Sets the interval between the image snapshots of a progressive rendering - the intermediate
+         * image is written to the image file after a pass, once the interval has passed since the
+         * previous snapshot.
+         * @param millis The interval in milliseconds, 0 for no snapshots.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the interval is negative.
+         */
+        public Builder setSnapshotInterval(long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("Snapshot interval must be non-negative");
+            }
+            camera.snapshotInterval = millis;
+            return this;
+        }
+
+        /**
+         * Sets the listener of a progressive rendering, notified with the accumulation buffer after
+         * every pass.
+         * @param listener The listener, null for none.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setPassListener(Consumer<AccumulationBuffer> listener) {
+            camera.passListener = listener;
+            return this;
+        }
+
+        /**
+         * Sets whether the image is streamed to its file while it is rendered - every row of tiles is
+         * encoded and written as soon as all its tiles are rendered, and writing the image only finishes
+         * the file (see {@link ImageWriter#startStreaming(int)}).
+         * @param isStreaming True to stream the image.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setStreaming(boolean isStreaming) {
+            camera.isStreaming = isStreaming;
+            return this;
+        }
+
+        /**
+         * Sets the checkpoint file of the renderings - the progress of a rendering is saved in it
+         * periodically, so a killed rendering may be resumed by rendering the same scene with the same
+         * settings again (see {@link Camera#renderImage(int)} and {@link Camera#renderProgressive(int)}).
+         * The scene is recognized by a digest of its serialized content, so a checkpoint of a changed scene is
+         * ignored (and a scene with a non-serializable geometry can't be checkpointed).
+         * @param file The checkpoint file, null for no checkpoints.
+         * @param millis The minimal interval between the saved checkpoints in milliseconds.
+         * @return The Builder instance for chaining.
+         * @throws IllegalArgumentException if the interval is negative.
+         */
+        public Builder setCheckpoint(Path file, long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("Checkpoint interval must be non-negative");
+            }
+            camera.checkpointFile = file;
+            camera.checkpointInterval = millis;
+            return this;
+        }
+
+        /**
+         * Sets whether the statistics of the renderings are collected - the rays traced by their types and
+         * recursion depths, the intersection tests by the classes of the geometries and the rendering time
+         * of every tile (see {@link Camera#getRenderStats()}). The counting slows the rendering slightly.
+         * @param isCollectingStats True to collect the statistics.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setStatistics(boolean isCollectingStats) {
+            camera.isCollectingStats = isCollectingStats;
+            return this;
+        }
+
+        /**
+         * Sets the cost map of the renderings - the rays traced for every pixel or the time spent on it,
+         * which may be written as a false colour image alongside the image itself (see
+         * {@link Camera#getCostMap()} and {@link CostMap#writeToImage(String)}). The corner rays the
+         * adaptive super-sampling shares between neighbouring pixels are counted by the pixel tracing them.
+         * @param metric The measure of the pixel costs, null for no cost map.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setCostMap(CostMap.Metric metric) {
+            camera.costMetric = metric;
+            return this;
+        }
+
         public Builder setIsAdaptive(boolean isAdaptiveSampling){
             camera.isAdaptiveSampling=isAdaptiveSampling;
             return this;
@@ -664,11 +1751,16 @@ public class Camera implements Cloneable {
                 this.camera.vRight = this.camera.vTo.crossProduct(this.camera.vUp).normalize();
             }
 
+            Camera built;
             try {
-                return (Camera) this.camera.clone();
+                built = (Camera) this.camera.clone();
             } catch (CloneNotSupportedException e) {
                 throw new RuntimeException(e);
             }
+            // the blackboards (and their samplers) must not be shared with the other built cameras
+            built.blackBoards = ThreadLocal.withInitial(built::createBlackBoard);
+            built.progressiveSamplers = ThreadLocal.withInitial(built::createProgressiveSampler);
+            return built;
         }
     }
 
@@ -0,0 +1,27 @@
+package renderer;
+
+/**
+ * Token of a cooperative cancellation of a rendering (see {@link Camera#renderImage(int, CancellationToken)}).
+ * Any thread may cancel the rendering by the token; the rendering threads check it between the tiles, so
+ * they finish their current tiles and stop. The class is thread safe.
+ */
+public class CancellationToken {
+    /** Flag whether the rendering is cancelled */
+    private volatile boolean cancelled = false;
+
+    /**
+     * Cancels the rendering
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the rendering is cancelled
+     *
+     * @return true if the rendering is cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,67 @@
+package renderer;
+
+/**
+ * Progress listener printing the progress of a rendering to the console - the percentage, the estimated
+ * remaining time and the rate in rays per second, on a single line that is rewritten by every report.
+ */
+public class ConsoleProgress implements ProgressListener {
+    /** Printing format */
+    private static final String PRINT_FORMAT = "%5.1f%%  ETA %s  %.2fM rays/s\r";
+
+    /** Printing interval (in permille) */
+    private final int interval;
+    /** Last printed progress (in permille), -1 before the first report */
+    private int lastPrinted = -1;
+
+    /**
+     * Constructs a console progress listener
+     *
+     * @param interval printing interval in percents - a report is printed once the progress has advanced
+     *                 by the interval since the last printed report
+     * @throws IllegalArgumentException if the interval isn't positive
+     */
+    public ConsoleProgress(double interval) {
+        if (interval <= 0) throw new IllegalArgumentException("Interval value must be positive");
+        this.interval = Math.max(1, (int) (interval * 10));
+    }
+
+    @Override
+    public void progress(Progress progress) {
+        int permille = (int) (1000 * progress.fraction());
+        // a new rendering starts over
+        if (permille < lastPrinted) lastPrinted = -1;
+        if (lastPrinted >= 0 && permille - lastPrinted < interval) return;
+        print(progress);
+        lastPrinted = permille;
+    }
+
+    @Override
+    public void done(Progress progress) {
+        print(progress);
+        System.out.println();
+        lastPrinted = -1;
+    }
+
+    /**
+     * Prints a report of the progress
+     *
+     * @param progress the progress
+     */
+    private static void print(Progress progress) {
+        String eta = progress.eta() < 0 ? "--:--" : formatTime(progress.eta());
+        System.out.printf(PRINT_FORMAT, 100 * progress.fraction(), eta, progress.raysPerSecond() / 1e6);
+    }
+
+    /**
+     * Formats a time as minutes and seconds (and hours if needed)
+     *
+     * @param nanos the time in nanoseconds
+     * @return the formatted time
+     */
+    static String formatTime(long nanos) {
+        long seconds = (nanos + 500_000_000) / 1_000_000_000;
+        return seconds >= 3600
+                ? String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60)
+                : String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,150 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+
+/**
+ * Map of the rendering cost of every pixel of an image (see {@link Camera.Builder#setCostMap(Metric)}) -
+ * the amount of rays traced for the pixel (including the reflected, refracted and shadow rays) or the
+ * time spent on it. The map is written as a false colour image, so the regions of the scene that blow up
+ * the rendering time (complex geometry, many lights, deep reflections, subdivided adaptive regions)
+ * stand out.<br/>
+ * The cost of a pixel is written by the thread rendering it, and the map is read once the rendering is done.
+ */
+public class CostMap {
+    /**
+     * The measure of the cost of a pixel
+     */
+    public enum Metric {
+        /** Amount of rays traced for the pixel */
+        RAYS,
+        /** Time spent on the pixel in nanoseconds */
+        TIME
+    }
+
+    /** The colours of the false colour ramp, from the cheapest pixels to the most expensive ones */
+    private static final Color[] RAMP = {
+            new Color(0, 0, 0), new Color(0, 0, 255), new Color(0, 255, 255), new Color(0, 255, 0),
+            new Color(255, 255, 0), new Color(255, 0, 0), new Color(255, 255, 255)};
+    /** The percentile of the costs mapped to the top of the ramp - a few outliers don't darken the whole map */
+    private static final double TOP_PERCENTILE = 0.99;
+
+    /** Horizontal resolution of the map */
+    private final int nX;
+    /** Vertical resolution of the map */
+    private final int nY;
+    /** The measure of the costs */
+    private final Metric metric;
+    /** The cost of every pixel, row by row */
+    private final float[] costs;
+
+    /**
+     * Constructs an empty cost map of an image
+     *
+     * @param nX     amount of pixels by width
+     * @param nY     amount of pixels by height
+     * @param metric the measure of the costs
+     */
+    CostMap(int nX, int nY, Metric metric) {
+        this.nX = nX;
+        this.nY = nY;
+        this.metric = metric;
+        costs = new float[nX * nY];
+    }
+
+    /**
+     * Metric getter
+     *
+     * @return the measure of the costs
+     */
+    public Metric getMetric() {
+        return metric;
+    }
+
+    /**
+     * Map X axis resolution
+     *
+     * @return the amount of horizontal pixels
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Map Y axis resolution
+     *
+     * @return the amount of vertical pixels
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Sets the cost of a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param cost   the cost of the pixel
+     */
+    void set(int xIndex, int yIndex, long cost) {
+        costs[yIndex * nX + xIndex] = cost;
+    }
+
+    /**
+     * Gets the cost of a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the cost of the pixel (rays or nanoseconds, by the metric)
+     */
+    public double get(int xIndex, int yIndex) {
+        return costs[yIndex * nX + xIndex];
+    }
+
+    /**
+     * Gets the total cost of the image
+     *
+     * @return the sum of the costs of all the pixels
+     */
+    public double getTotal() {
+        double total = 0;
+        for (float cost : costs) total += cost;
+        return total;
+    }
+
+    /**
+     * Writes the map as a false colour image by an image writer - the cost of every pixel is scaled by
+     * the 99th percentile of the costs and coloured by a ramp from black (no cost) through blue, cyan,
+     * green, yellow and red to white (the percentile and above)
+     *
+     * @param imageName the name of the image file (without the extension)
+     */
+    public void writeToImage(String imageName) {
+        float[] sorted = costs.clone();
+        Arrays.sort(sorted);
+        double top = sorted.length == 0 ? 0 : sorted[(int) ((sorted.length - 1) * TOP_PERCENTILE)];
+        if (top <= 0) top = sorted.length == 0 ? 1 : Math.max(1, sorted[sorted.length - 1]);
+
+        ImageWriter imageWriter = new ImageWriter(imageName, nX, nY);
+        for (int row = 0; row < nY; ++row)
+            for (int column = 0; column < nX; ++column)
+                imageWriter.writePixel(column, row, ramp(costs[row * nX + column] / top));
+        imageWriter.writeToImage();
+    }
+
+    /**
+     * Colours a relative cost by the false colour ramp - linearly between the colours of the ramp
+     *
+     * @param t the relative cost, from 0 (black) to 1 (white), clamped to the range
+     * @return the colour
+     */
+    static Color ramp(double t) {
+        if (!(t > 0)) return RAMP[0];
+        if (t >= 1) return RAMP[RAMP.length - 1];
+        double position = t * (RAMP.length - 1);
+        int index = (int) position;
+        double fraction = position - index;
+        return RAMP[index].scale(1 - fraction).add(RAMP[index + 1].scale(fraction));
+    }
+}
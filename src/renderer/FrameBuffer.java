@@ -0,0 +1,152 @@
+package renderer;
+
+import primitives.Color;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.stream.IntStream;
+
+/**
+ * High dynamic range frame buffer - the linear RGB intensities of the pixels, kept as they are
+ * (without clamping) in a primitive float array. Writing a pixel allocates nothing; the tone
+ * mapping and the quantization to 8 bits happen only when the image is produced, and run on all
+ * the rows in parallel.<br/>
+ * The pixels are kept on the heap; {@link MappedFrameBuffer} keeps them in a memory-mapped file.<br/>
+ * Different pixels may be written concurrently by different threads.
+ */
+public class FrameBuffer implements PixelSink {
+    /** Horizontal resolution of the image */
+    protected final int nX;
+    /** Vertical resolution of the image */
+    protected final int nY;
+    /** Red, green and blue of every pixel in turn, row by row (null if the pixels are kept elsewhere) */
+    private final float[] rgb;
+
+    /**
+     * Constructs a black frame buffer
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    public FrameBuffer(int nX, int nY) {
+        this(nX, nY, true);
+    }
+
+    /**
+     * Constructs a frame buffer
+     *
+     * @param nX       amount of pixels by width
+     * @param nY       amount of pixels by height
+     * @param allocate whether to allocate the pixels on the heap (false for a sub-class keeping them elsewhere)
+     */
+    protected FrameBuffer(int nX, int nY, boolean allocate) {
+        if (nX < 1 || nY < 1) throw new IllegalArgumentException("Image must have pixels");
+        if (allocate && 3L * nX * nY > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Image is too large for the heap, use a mapped frame buffer");
+        this.nX = nX;
+        this.nY = nY;
+        rgb = allocate ? new float[3 * nX * nY] : null;
+    }
+
+    /**
+     * Horizontal resolution getter
+     *
+     * @return the amount of pixels by width
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * Vertical resolution getter
+     *
+     * @return the amount of pixels by height
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    @Override
+    public void set(int xIndex, int yIndex, Color color) {
+        int index = 3 * (yIndex * nX + xIndex);
+        rgb[index] = narrow(color.getRed());
+        rgb[index + 1] = narrow(color.getGreen());
+        rgb[index + 2] = narrow(color.getBlue());
+    }
+
+    /**
+     * Gets the (linear, unclamped) color of a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the color
+     */
+    public Color get(int xIndex, int yIndex) {
+        int index = 3 * (yIndex * nX + xIndex);
+        return new Color(rgb[index], rgb[index + 1], rgb[index + 2]);
+    }
+
+    /**
+     * Tone maps and quantizes a row of pixels to 8 bit RGB
+     *
+     * @param yIndex      Y axis index of the row
+     * @param toneMapping the tone mapping operator
+     * @param pixels      array for the packed RGB pixels of the row
+     * @param offset      index of the first pixel of the row in the array
+     */
+    public void quantizeRow(int yIndex, ToneMapping toneMapping, int[] pixels, int offset) {
+        for (int j = 0, index = 3 * yIndex * nX; j < nX; ++j, index += 3)
+            pixels[offset + j] = pack(toneMapping, rgb[index], rgb[index + 1], rgb[index + 2]);
+    }
+
+    /**
+     * Produces the 8 bit image - tone maps and quantizes all the rows in parallel
+     *
+     * @param toneMapping the tone mapping operator
+     * @return the image
+     */
+    public BufferedImage toImage(ToneMapping toneMapping) {
+        BufferedImage image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        IntStream.range(0, nY).parallel().forEach(i -> quantizeRow(i, toneMapping, pixels, i * nX));
+        return image;
+    }
+
+    /**
+     * Tone maps and quantizes a pixel to 8 bit RGB
+     *
+     * @param toneMapping the tone mapping operator
+     * @param red         the linear red intensity
+     * @param green       the linear green intensity
+     * @param blue        the linear blue intensity
+     * @return the packed RGB pixel
+     */
+    protected static int pack(ToneMapping toneMapping, float red, float green, float blue) {
+        return quantize(toneMapping.map(red)) << 16 | quantize(toneMapping.map(green)) << 8
+                | quantize(toneMapping.map(blue));
+    }
+
+    /**
+     * Narrows a linear intensity to a float - to the largest float that isn't above it, so the truncation of
+     * the {@link ToneMapping#CLAMP} quantization gives the same 8 bit intensity as for the double value
+     * (e.g. 127.99999999 stays below 128 instead of being rounded up to it)
+     *
+     * @param value the linear intensity
+     * @return the narrowed intensity
+     */
+    static float narrow(double value) {
+        float narrowed = (float) value;
+        return narrowed > value ? Math.nextDown(narrowed) : narrowed;
+    }
+
+    /**
+     * Quantizes a mapped intensity to 8 bits - truncated and clipped to 255
+     *
+     * @param value the mapped intensity
+     * @return the 8 bit intensity
+     */
+    private static int quantize(double value) {
+        int quantized = (int) value;
+        return quantized > 255 ? 255 : quantized;
+    }
+}
@@ -0,0 +1,58 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampler of the two-dimensional Halton low-discrepancy sequence (radical inverses in bases 2
+ * and 3). The samples of every pixel are the first points of the sequence, shifted by a random
+ * offset modulo 1 (Cranley-Patterson rotation), so that neighbouring pixels are not correlated.
+ */
+public class HaltonSampler implements Sampler {
+    /** Random generator of the rotations */
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void generate(double[] samples) {
+        double shiftX = random.nextDouble();
+        double shiftY = random.nextDouble();
+        for (int k = 0, count = samples.length / 2; k < count; ++k) {
+            samples[2 * k] = rotate(radicalInverse(k, 2), shiftX);
+            samples[2 * k + 1] = rotate(radicalInverse(k, 3), shiftY);
+        }
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Calculates the radical inverse of an index - its digits in a base mirrored around the
+     * radix point
+     *
+     * @param index the index
+     * @param base  the base
+     * @return the radical inverse, in [0, 1)
+     */
+    static double radicalInverse(int index, int base) {
+        double result = 0;
+        double digitWeight = 1d / base;
+        for (int i = index; i > 0; i /= base) {
+            result += (i % base) * digitWeight;
+            digitWeight /= base;
+        }
+        return result;
+    }
+
+    /**
+     * Shifts a coordinate modulo 1 and centers it around the pixel center
+     *
+     * @param value the coordinate, in [0, 1)
+     * @param shift the shift, in [0, 1)
+     * @return the shifted coordinate, in [-0.5, 0.5)
+     */
+    private static double rotate(double value, double shift) {
+        double shifted = value + shift;
+        return (shifted >= 1 ? shifted - 1 : shifted) - 0.5;
+    }
+}
@@ -2,10 +2,8 @@ package renderer;
 
 import primitives.Color;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,7 +11,11 @@ import java.util.logging.Logger;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution<br/>
+ * The pixels are kept in a high dynamic range {@link FrameBuffer}, and they are
+ * tone mapped and quantized to 8 bits only when the image is written - by a
+ * {@link PngEncoder} that deflates bands of rows in parallel. The image may also be
+ * streamed: every band is encoded and written as soon as its rows are final
  *
  * @author Dan
  */
@@ -32,9 +34,22 @@ public class ImageWriter {
      */
     private int nY;
     /**
-     * Image generation buffer (the matrix of the pixels)
+     * Image generation buffer (the matrix of the pixels, linear and unclamped), null if the pixels are
+     * only passed to a pixel sink
      */
-    private BufferedImage image;
+    private final FrameBuffer frameBuffer;
+    /**
+     * Destination of the written pixels - the frame buffer, or the pixel sink of a render worker
+     */
+    private final PixelSink pixels;
+    /**
+     * Tone mapping of the pixels when the image is written
+     */
+    private ToneMapping toneMapping = ToneMapping.CLAMP;
+    /**
+     * Encoder of the image being streamed, null if the image isn't streamed
+     */
+    private PngEncoder stream = null;
     /**
      * image file name, not including the file extension '.png'
      */
@@ -58,7 +73,48 @@ public class ImageWriter {
         this.nX = nX;
         this.nY = nY;
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        frameBuffer = new FrameBuffer(nX, nY);
+        pixels = frameBuffer;
+    }
+
+    /**
+     * Image Writer constructor for very large images - the pixels are kept out of the heap,
+     * in a {@link MappedFrameBuffer} on the given file (the pixels already in the file are kept)
+     *
+     * @param imageName       the name of png file
+     * @param nX              amount of pixels by Width
+     * @param nY              amount of pixels by height
+     * @param frameBufferFile the file of the frame buffer
+     */
+    public ImageWriter(String imageName, int nX, int nY, Path frameBufferFile) {
+        this.imageName = imageName;
+        this.nX = nX;
+        this.nY = nY;
+
+        try {
+            frameBuffer = new MappedFrameBuffer(nX, nY, frameBufferFile);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't map the frame buffer file " + frameBufferFile, e);
+        }
+        pixels = frameBuffer;
+    }
+
+    /**
+     * Image Writer constructor passing the pixels to a pixel sink (of a render worker) - the writer keeps
+     * no frame buffer, so it can't write the image
+     *
+     * @param imageName the name of png file
+     * @param nX        amount of pixels by Width
+     * @param nY        amount of pixels by height
+     * @param pixels    the pixel sink
+     */
+    ImageWriter(String imageName, int nX, int nY, PixelSink pixels) {
+        this.imageName = imageName;
+        this.nX = nX;
+        this.nY = nY;
+        this.frameBuffer = null;
+        this.pixels = pixels;
     }
 
     // ***************** Getters/Setters ********************** //
@@ -81,23 +137,100 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * Frame buffer getter - the linear (high dynamic range) pixels, e.g. for post-processing
+     *
+     * @return the frame buffer, null if the pixels are passed to a pixel sink (of a render worker)
+     */
+    public FrameBuffer getFrameBuffer() {
+        return frameBuffer;
+    }
+
+    /**
+     * Tone mapping setter
+     *
+     * @param toneMapping the tone mapping of the pixels when the image is written
+     * @return the image writer itself
+     */
+    public ImageWriter setToneMapping(ToneMapping toneMapping) {
+        this.toneMapping = toneMapping;
+        return this;
+    }
+
     // ***************** Operations ******************** //
 
     /**
      * Function writeToImage produces unoptimized png file of the image according
      * to
-     * pixel color matrix in the directory of the project
+     * pixel color matrix in the directory of the project. If the image is being
+     * streamed, the function encodes the bands that haven't been encoded yet and
+     * finishes the stream
      */
     public void writeToImage() {
         try {
-            File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-            ImageIO.write(image, "png", file);
+            if (stream != null) {
+                PngEncoder encoder = stream;
+                stream = null;
+                encoder.finish();
+            } else {
+                // bands of about 256KB keep all the cores busy and still compress well
+                int bandRows = Math.max(8, (1 << 18) / (3 * nX + 1));
+                PngEncoder.encode(frameBuffer, toneMapping, getFile(), bandRows);
+            }
         } catch (IOException e) {
-            logger.log(Level.SEVERE, "I/O error", e);
-            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+            throw ioError(e);
+        }
+    }
+
+    /**
+     * Starts streaming the image to its file - from now on every band of rows is
+     * encoded and written as soon as it is reported to be final (by
+     * {@link #bandReady(int)}), and {@link #writeToImage()} finishes the stream.
+     * The pixels of a band that are written after the band is reported are not
+     * in the image. An unfinished previous stream is finished first
+     *
+     * @param bandRows amount of rows in a band
+     */
+    public void startStreaming(int bandRows) {
+        if (stream != null) writeToImage();
+        try {
+            stream = new PngEncoder(frameBuffer, toneMapping, getFile(), bandRows);
+        } catch (IOException e) {
+            throw ioError(e);
         }
     }
 
+    /**
+     * Reports that the rows of a band are final, so the band may be encoded
+     * (if the image is streamed). The function is thread safe
+     *
+     * @param band the band index (the rows of the band follow the band rows of the stream)
+     */
+    public void bandReady(int band) {
+        PngEncoder encoder = stream;
+        if (encoder != null) encoder.bandReady(band);
+    }
+
+    /**
+     * The image file path
+     *
+     * @return the path
+     */
+    private Path getFile() {
+        return Path.of(FOLDER_PATH, imageName + ".png");
+    }
+
+    /**
+     * Logs an I/O failure
+     *
+     * @param e the failure
+     * @return the exception to throw
+     */
+    private IllegalStateException ioError(IOException e) {
+        logger.log(Level.SEVERE, "I/O error", e);
+        return new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+    }
+
     /**
      * The function writePixel writes a color of a specific pixel into pixel color
      * matrix
@@ -107,7 +240,7 @@ public class ImageWriter {
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        pixels.set(xIndex, yIndex, color);
     }
 
 }
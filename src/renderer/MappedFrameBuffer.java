@@ -0,0 +1,102 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Out-of-core frame buffer - the linear RGB intensities are kept in a memory-mapped file instead of
+ * the heap, so the image size is limited by the disk rather than by the heap. The rendering threads
+ * write the pixels directly into the mapping, and the operating system pages them out as needed.<br/>
+ * The file holds the pixels row by row as little endian floats (red, green and blue of every pixel in
+ * turn). A single mapping can't exceed 2GB, so the file is mapped by chunks of whole rows. An existing
+ * file keeps its pixels, so a frame buffer may be reopened (e.g. to resume a rendering).
+ */
+public class MappedFrameBuffer extends FrameBuffer {
+    /** Default maximal size of a mapped chunk of the file in bytes */
+    private static final long CHUNK_BYTES = 1L << 30;
+    /** Bytes of a pixel - three floats */
+    private static final int PIXEL_BYTES = 12;
+
+    /** Amount of rows in a mapped chunk */
+    private final int chunkRows;
+    /** The mapped chunks of the file */
+    private final MappedByteBuffer[] mappings;
+    /** Float views of the mapped chunks */
+    private final FloatBuffer[] chunks;
+
+    /**
+     * Constructs a frame buffer mapped to a file (the file is created or resized if needed)
+     *
+     * @param nX   amount of pixels by width
+     * @param nY   amount of pixels by height
+     * @param file the file of the pixels
+     * @throws IOException if the file can't be mapped
+     */
+    public MappedFrameBuffer(int nX, int nY, Path file) throws IOException {
+        this(nX, nY, file, CHUNK_BYTES);
+    }
+
+    /**
+     * Constructs a frame buffer mapped to a file by chunks of a given maximal size
+     *
+     * @param nX         amount of pixels by width
+     * @param nY         amount of pixels by height
+     * @param file       the file of the pixels
+     * @param chunkBytes maximal size of a mapped chunk in bytes (at least a single row is mapped)
+     * @throws IOException if the file can't be mapped
+     */
+    MappedFrameBuffer(int nX, int nY, Path file, long chunkBytes) throws IOException {
+        super(nX, nY, false);
+        long rowBytes = (long) PIXEL_BYTES * nX;
+        chunkRows = (int) Math.min(nY, Math.max(1, chunkBytes / rowBytes));
+        int count = (nY + chunkRows - 1) / chunkRows;
+        mappings = new MappedByteBuffer[count];
+        chunks = new FloatBuffer[count];
+        // the mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            for (int c = 0; c < count; ++c) {
+                int rows = Math.min(chunkRows, nY - c * chunkRows);
+                mappings[c] = channel.map(FileChannel.MapMode.READ_WRITE, rowBytes * chunkRows * c, rowBytes * rows);
+                chunks[c] = mappings[c].order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            }
+        }
+    }
+
+    @Override
+    public void set(int xIndex, int yIndex, Color color) {
+        FloatBuffer chunk = chunks[yIndex / chunkRows];
+        int index = 3 * (yIndex % chunkRows * nX + xIndex);
+        chunk.put(index, narrow(color.getRed()));
+        chunk.put(index + 1, narrow(color.getGreen()));
+        chunk.put(index + 2, narrow(color.getBlue()));
+    }
+
+    @Override
+    public Color get(int xIndex, int yIndex) {
+        FloatBuffer chunk = chunks[yIndex / chunkRows];
+        int index = 3 * (yIndex % chunkRows * nX + xIndex);
+        return new Color(chunk.get(index), chunk.get(index + 1), chunk.get(index + 2));
+    }
+
+    @Override
+    public void quantizeRow(int yIndex, ToneMapping toneMapping, int[] pixels, int offset) {
+        FloatBuffer chunk = chunks[yIndex / chunkRows];
+        for (int j = 0, index = 3 * (yIndex % chunkRows * nX); j < nX; ++j, index += 3)
+            pixels[offset + j] = pack(toneMapping, chunk.get(index), chunk.get(index + 1), chunk.get(index + 2));
+    }
+
+    /**
+     * Writes the pixels that have been changed in memory to the file
+     */
+    public void force() {
+        for (MappedByteBuffer mapping : mappings) mapping.force();
+    }
+}
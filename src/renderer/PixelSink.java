@@ -0,0 +1,18 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * Destination of the pixels written by an {@link ImageWriter} - a {@link FrameBuffer} keeping the whole image,
+ * or the tile buffer of a {@link RenderWorker} keeping only the tiles being rendered
+ */
+interface PixelSink {
+    /**
+     * Sets the color of a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  the color
+     */
+    void set(int xIndex, int yIndex, Color color);
+}
@@ -0,0 +1,355 @@
+package renderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming PNG encoder of a {@link FrameBuffer} - the image is divided into bands of rows, every band
+ * is tone mapped, filtered and deflated on its own (in parallel, on the common fork-join pool), and
+ * the compressed bands are written to the file as IDAT chunks in their order as soon as they are
+ * ready. A band may be encoded as soon as its rows are final, e.g. while the rest of the image is
+ * still being rendered, and the whole 8 bit image is never held in memory.<br/>
+ * The bands are deflated independently (every band but the last ends by a sync flush), so together
+ * they form a single valid zlib stream, whose Adler-32 checksum is combined from the checksums of
+ * the bands. The first row of a band may depend only on itself (filter None or Sub), since the rows
+ * of the previous band may not be final yet.
+ */
+public class PngEncoder {
+    /** PNG file signature */
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    /** zlib stream header - deflate with a 32K window, default compression */
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+    /** Adler-32 modulus */
+    private static final int ADLER_BASE = 65521;
+    /** PNG row filter types */
+    private static final int NONE = 0, SUB = 1, UP = 2, AVERAGE = 3, PAETH = 4;
+
+    /** The encoded frame buffer */
+    private final FrameBuffer frameBuffer;
+    /** The tone mapping of the pixels */
+    private final ToneMapping toneMapping;
+    /** Amount of rows in a band */
+    private final int bandRows;
+    /** Amount of bands */
+    private final int bandCount;
+    /** The output file */
+    private final FileChannel channel;
+    /** Compression tasks of the submitted bands (null for the bands not submitted yet) */
+    private final CompletableFuture<?>[] tasks;
+    /** Compressed bands waiting for the previous bands to be written */
+    private final byte[][] compressed;
+    /** Adler-32 checksums of the filtered data of the bands */
+    private final long[] checksums;
+    /** Lengths of the filtered data of the bands */
+    private final long[] lengths;
+    /** Index of the next band to be written */
+    private int nextBand = 0;
+    /** Adler-32 checksum of the filtered data of the written bands */
+    private long checksum = 1;
+    /** First failure of writing the file, null if none */
+    private IOException failure = null;
+
+    /**
+     * Starts encoding an image - creates the file and writes the image header
+     *
+     * @param frameBuffer the frame buffer of the image
+     * @param toneMapping the tone mapping of the pixels
+     * @param file        the output file
+     * @param bandRows    amount of rows in a band
+     * @throws IOException if the file can't be written
+     */
+    public PngEncoder(FrameBuffer frameBuffer, ToneMapping toneMapping, Path file, int bandRows) throws IOException {
+        if (bandRows < 1) throw new IllegalArgumentException("Band must have rows");
+        this.frameBuffer = frameBuffer;
+        this.toneMapping = toneMapping;
+        this.bandRows = bandRows;
+        bandCount = (frameBuffer.getNy() + bandRows - 1) / bandRows;
+        tasks = new CompletableFuture<?>[bandCount];
+        compressed = new byte[bandCount][];
+        checksums = new long[bandCount];
+        lengths = new long[bandCount];
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        write(ByteBuffer.wrap(SIGNATURE));
+        ByteBuffer header = ByteBuffer.allocate(13)
+                .putInt(frameBuffer.getNx()).putInt(frameBuffer.getNy())
+                .put((byte) 8) // bit depth
+                .put((byte) 2) // color type - RGB
+                .put((byte) 0).put((byte) 0).put((byte) 0); // deflate, adaptive filtering, no interlace
+        writeChunk("IHDR", header.array());
+    }
+
+    /**
+     * Encodes a whole frame buffer into a file, deflating the bands in parallel
+     *
+     * @param frameBuffer the frame buffer of the image
+     * @param toneMapping the tone mapping of the pixels
+     * @param file        the output file
+     * @param bandRows    amount of rows in a band
+     * @throws IOException if the file can't be written or the pixels of a band can't be read
+     */
+    public static void encode(FrameBuffer frameBuffer, ToneMapping toneMapping, Path file, int bandRows)
+            throws IOException {
+        new PngEncoder(frameBuffer, toneMapping, file, bandRows).finish();
+    }
+
+    /**
+     * Amount of rows in a band getter
+     *
+     * @return the amount of rows in a band
+     */
+    public int getBandRows() {
+        return bandRows;
+    }
+
+    /**
+     * Submits a band for encoding - its rows in the frame buffer must be final.
+     * The function is thread safe, and a band submitted more than once is encoded once.
+     *
+     * @param band the band index
+     */
+    public void bandReady(int band) {
+        synchronized (tasks) {
+            if (tasks[band] == null)
+                tasks[band] = CompletableFuture.runAsync(() -> compress(band));
+        }
+    }
+
+    /**
+     * Finishes the image - submits the bands that haven't been submitted, waits until all the bands
+     * are written, writes the end of the image and closes the file.<br/>
+     * Only a few bands per core are in flight at a time, so that an image that doesn't fit in the
+     * heap (e.g. of a {@link MappedFrameBuffer}) is encoded in a bounded amount of memory
+     *
+     * @throws IOException if the file can't be written or the pixels of a band can't be read
+     */
+    public void finish() throws IOException {
+        int window = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        try {
+            for (int band = 0; band < bandCount; ++band) {
+                if (band >= window) {
+                    CompletableFuture<?> task;
+                    synchronized (tasks) {
+                        task = tasks[band - window];
+                    }
+                    task.join();
+                }
+                bandReady(band);
+            }
+            CompletableFuture.allOf(tasks).join();
+            synchronized (this) {
+                if (failure != null) throw failure;
+            }
+            writeChunk("IEND", new byte[0]);
+        } catch (CompletionException e) {
+            // a band failed - e.g. the pixels of a mapped frame buffer couldn't be read
+            if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IOException("Encoding a band failed", e.getCause());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Filters and deflates a band, then writes all the bands that are ready in their order
+     *
+     * @param band the band index
+     */
+    private void compress(int band) {
+        int nX = frameBuffer.getNx();
+        int row0 = band * bandRows;
+        int row1 = Math.min(row0 + bandRows, frameBuffer.getNy());
+        int stride = 3 * nX;
+        byte[] filtered = new byte[(row1 - row0) * (stride + 1)];
+        int[] pixels = new int[nX];
+        byte[] previous = new byte[stride];
+        byte[] current = new byte[stride];
+        byte[] scratch = new byte[stride];
+        for (int row = row0; row < row1; ++row) {
+            frameBuffer.quantizeRow(row, toneMapping, pixels, 0);
+            for (int j = 0; j < nX; ++j) {
+                current[3 * j] = (byte) (pixels[j] >> 16);
+                current[3 * j + 1] = (byte) (pixels[j] >> 8);
+                current[3 * j + 2] = (byte) pixels[j];
+            }
+            filterRow(current, row == row0 ? null : previous, filtered, (row - row0) * (stride + 1), scratch);
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        Adler32 adler = new Adler32();
+        adler.update(filtered);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(filtered);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(filtered.length / 4 + 64);
+        byte[] buffer = new byte[64 * 1024];
+        if (band == bandCount - 1) {
+            deflater.finish();
+            while (!deflater.finished())
+                output.write(buffer, 0, deflater.deflate(buffer));
+        } else {
+            // a sync flush ends the band on a byte boundary without ending the stream
+            int count;
+            do {
+                count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                output.write(buffer, 0, count);
+            } while (count == buffer.length);
+        }
+        deflater.end();
+        bandCompressed(band, output.toByteArray(), adler.getValue(), filtered.length);
+    }
+
+    /**
+     * Stores a compressed band and writes all the bands that are ready in their order
+     *
+     * @param band     the band index
+     * @param data     the compressed band
+     * @param adler    Adler-32 checksum of the filtered band
+     * @param length   length of the filtered band
+     */
+    private synchronized void bandCompressed(int band, byte[] data, long adler, long length) {
+        compressed[band] = data;
+        checksums[band] = adler;
+        lengths[band] = length;
+        try {
+            while (nextBand < bandCount && compressed[nextBand] != null && failure == null) {
+                checksum = combine(checksum, checksums[nextBand], lengths[nextBand]);
+                byte[] prefix = nextBand == 0 ? ZLIB_HEADER : new byte[0];
+                byte[] suffix = nextBand == bandCount - 1
+                        ? ByteBuffer.allocate(4).putInt((int) checksum).array() : new byte[0];
+                writeChunk("IDAT", prefix, compressed[nextBand], suffix);
+                compressed[nextBand++] = null;
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Filters a row by the filter type that gives the smallest sum of absolute differences
+     * (the usual heuristic for choosing the filter per row)
+     *
+     * @param row      the row (RGB bytes)
+     * @param previous the previous row, null if the filter mustn't depend on it
+     * @param output   array for the filtered rows
+     * @param offset   index of the filtered row (starting with its filter type) in the array
+     * @param scratch  array for a candidate filtered row, as long as the row
+     */
+    private static void filterRow(byte[] row, byte[] previous, byte[] output, int offset, byte[] scratch) {
+        long bestSum = Long.MAX_VALUE;
+        int lastFilter = previous == null ? SUB : PAETH;
+        for (int filter = NONE; filter <= lastFilter; ++filter) {
+            filter(filter, row, previous, scratch);
+            long sum = 0;
+            for (byte b : scratch) sum += Math.abs(b);
+            if (sum < bestSum) {
+                bestSum = sum;
+                output[offset] = (byte) filter;
+                System.arraycopy(scratch, 0, output, offset + 1, scratch.length);
+            }
+        }
+    }
+
+    /**
+     * Filters a row by a filter type
+     *
+     * @param filter   the filter type
+     * @param row      the row (RGB bytes)
+     * @param previous the previous row (may be null for filters None and Sub)
+     * @param output   array for the filtered row
+     */
+    private static void filter(int filter, byte[] row, byte[] previous, byte[] output) {
+        int length = row.length;
+        switch (filter) {
+            case NONE -> System.arraycopy(row, 0, output, 0, length);
+            case SUB -> {
+                System.arraycopy(row, 0, output, 0, 3);
+                for (int k = 3; k < length; ++k) output[k] = (byte) (row[k] - row[k - 3]);
+            }
+            case UP -> {
+                for (int k = 0; k < length; ++k) output[k] = (byte) (row[k] - previous[k]);
+            }
+            case AVERAGE -> {
+                for (int k = 0; k < 3; ++k) output[k] = (byte) (row[k] - ((previous[k] & 0xFF) >> 1));
+                for (int k = 3; k < length; ++k)
+                    output[k] = (byte) (row[k] - ((row[k - 3] & 0xFF) + (previous[k] & 0xFF) >> 1));
+            }
+            default -> { // PAETH
+                for (int k = 0; k < 3; ++k) output[k] = (byte) (row[k] - previous[k]);
+                for (int k = 3; k < length; ++k) {
+                    int a = row[k - 3] & 0xFF;
+                    int b = previous[k] & 0xFF;
+                    int c = previous[k - 3] & 0xFF;
+                    int pa = Math.abs(b - c);
+                    int pb = Math.abs(a - c);
+                    int pc = Math.abs(a + b - 2 * c);
+                    output[k] = (byte) (row[k] - (pa <= pb && pa <= pc ? a : pb <= pc ? b : c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two consecutive sequences (as zlib's adler32_combine)
+     *
+     * @param adler1  checksum of the first sequence
+     * @param adler2  checksum of the second sequence
+     * @param length2 length of the second sequence
+     * @return the checksum of the concatenated sequences
+     */
+    static long combine(long adler1, long adler2, long length2) {
+        long remainder = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = remainder * sum1 % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += (adler1 >> 16 & 0xFFFF) + (adler2 >> 16 & 0xFFFF) + ADLER_BASE - remainder;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum2 >= 2L * ADLER_BASE) sum2 -= 2L * ADLER_BASE;
+        if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+        return sum1 | sum2 << 16;
+    }
+
+    /**
+     * Writes a chunk to the file
+     *
+     * @param type  the chunk type
+     * @param parts the chunk data, in parts
+     * @throws IOException if the file can't be written
+     */
+    private void writeChunk(String type, byte[]... parts) throws IOException {
+        int length = 0;
+        for (byte[] part : parts) length += part.length;
+        ByteBuffer chunk = ByteBuffer.allocate(length + 12).putInt(length).put(type.getBytes(StandardCharsets.US_ASCII));
+        for (byte[] part : parts) chunk.put(part);
+        CRC32 crc = new CRC32();
+        crc.update(chunk.array(), 4, length + 4);
+        chunk.putInt((int) crc.getValue()).flip();
+        write(chunk);
+    }
+
+    /**
+     * Writes a buffer to the file
+     *
+     * @param buffer the buffer
+     * @throws IOException if the file can't be written
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+}
@@ -0,0 +1,58 @@
+package renderer;
+
+/**
+ * Listener of the progress of a rendering (see {@link Camera.Builder#setProgressListener(ProgressListener, long)}).<br/>
+ * The listener is called periodically by a reporting thread of its own, never by the rendering threads,
+ * so a slow listener (e.g. printing to a slow terminal or a redirected log) doesn't stall the rendering.
+ * A listener is called by a single thread at a time.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Progress of a rendering
+     *
+     * @param donePixels  amount of rendered pixels (including the pixels restored from a checkpoint)
+     * @param totalPixels amount of pixels of the image
+     * @param rays        amount of rays traced - all the rays if the statistics are collected (see
+     *                    {@link Camera.Builder#setStatistics(boolean)}), otherwise the primary rays of the
+     *                    rendered pixels
+     * @param elapsed     time since the rendering started in nanoseconds
+     * @param eta         estimated remaining time in nanoseconds, -1 if it can't be estimated yet
+     */
+    record Progress(long donePixels, long totalPixels, long rays, long elapsed, long eta) {
+        /**
+         * Gets the rendered part of the image
+         *
+         * @return the rendered part, from 0 to 1
+         */
+        public double fraction() {
+            return totalPixels == 0 ? 1 : (double) donePixels / totalPixels;
+        }
+
+        /**
+         * Gets the rate of the rendering
+         *
+         * @return the average amount of rays traced in a second since the rendering started
+         */
+        public double raysPerSecond() {
+            return elapsed == 0 ? 0 : rays * 1e9 / elapsed;
+        }
+    }
+
+    /**
+     * Reports the progress of a rendering
+     *
+     * @param progress the progress
+     */
+    void progress(Progress progress);
+
+    /**
+     * Reports the end of a rendering - called once, after the last call of {@link #progress(Progress)}.
+     * Reports the final progress by default.
+     *
+     * @param progress the final progress
+     */
+    default void done(Progress progress) {
+        progress(progress);
+    }
+}
@@ -0,0 +1,101 @@
+package renderer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reporter of the progress of a rendering to a {@link ProgressListener} - a scheduler thread samples the
+ * progress counters of the rendering periodically and calls the listener, so the rendering threads only
+ * update their counters and never wait for the listener. The ETA is estimated by the rate of the
+ * rendering since the reporter started (the pixels restored from a checkpoint don't speed it up).
+ */
+class ProgressReporter implements AutoCloseable {
+    /** The listener */
+    private final ProgressListener listener;
+    /** Supplier of the amount of rendered pixels */
+    private final LongSupplier donePixels;
+    /** Amount of pixels of the image */
+    private final long totalPixels;
+    /** Supplier of the amount of traced rays */
+    private final LongSupplier rays;
+    /** Start time of the rendering (System.nanoTime) */
+    private final long start = System.nanoTime();
+    /** Amount of pixels already rendered when the reporter started */
+    private final long initialPixels;
+    /** The scheduler thread */
+    private final ScheduledExecutorService scheduler;
+    /** Logger for reporting listener failures */
+    private static final Logger logger = Logger.getLogger("ProgressReporter");
+
+    /**
+     * Constructs a reporter and starts reporting
+     *
+     * @param listener    the listener
+     * @param period      interval between the reports in milliseconds
+     * @param donePixels  supplier of the amount of rendered pixels (thread safe)
+     * @param totalPixels amount of pixels of the image
+     * @param rays        supplier of the amount of traced rays (thread safe)
+     */
+    ProgressReporter(ProgressListener listener, long period, LongSupplier donePixels, long totalPixels,
+                     LongSupplier rays) {
+        this.listener = listener;
+        this.donePixels = donePixels;
+        this.totalPixels = totalPixels;
+        this.rays = rays;
+        initialPixels = donePixels.getAsLong();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "render-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> call(false), 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Samples the progress of the rendering
+     *
+     * @return the progress
+     */
+    ProgressListener.Progress snapshot() {
+        long elapsed = System.nanoTime() - start;
+        long done = donePixels.getAsLong();
+        long rendered = done - initialPixels;
+        long eta = done >= totalPixels ? 0
+                : rendered <= 0 ? -1 : (long) ((double) elapsed * (totalPixels - done) / rendered);
+        return new ProgressListener.Progress(done, totalPixels, rays.getAsLong(), elapsed, eta);
+    }
+
+    /**
+     * Calls the listener with the current progress
+     *
+     * @param isDone true if the rendering is done
+     */
+    private void call(boolean isDone) {
+        try {
+            if (isDone) listener.done(snapshot());
+            else listener.progress(snapshot());
+        } catch (RuntimeException e) {
+            // a failing listener must not cancel the following reports
+            logger.log(Level.WARNING, "Progress listener failed", e);
+        }
+    }
+
+    /**
+     * Ends the reporting - the listener is called by the scheduler thread for the end of the rendering,
+     * and the function returns once it is done
+     */
+    @Override
+    public void close() {
+        scheduler.execute(() -> call(true));
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Progressive rendering of an image (see {@link Camera#renderProgressive(int)}) - pass after pass, every
+ * pass adds a single sample of every pixel to the accumulation buffer, until the budget of the rendering
+ * is reached or the maximal amount of passes is done. The budget is checked between the passes.<br/>
+ * The samples of every pixel follow one of the sample patterns of the rendering, chosen by a hash of the
+ * pixel index. The even and the odd passes follow different patterns - the accumulation buffer estimates
+ * the error by comparing them, so each half must be a well distributed sample set on its own.<br/>
+ * A rendering with a checkpoint (see {@link RenderCheckpoint}) is resumed from the passes saved in it, by
+ * the sample patterns it has started with, and the budget is counted from the resumption.
+ */
+class ProgressiveRendering {
+    /** Default number of sample patterns */
+    static final int PATTERNS = 64;
+    /** Maximal length of a sample pattern, longer renderings continue by another pattern */
+    private static final int PATTERN_LENGTH = 256;
+
+    /**
+     * Tracer of a sample of a pixel
+     */
+    @FunctionalInterface
+    interface SampleTracer {
+        /**
+         * Traces a sample of a pixel
+         *
+         * @param column the column index of the pixel
+         * @param row    the row index of the pixel
+         * @param x      the horizontal offset of the sample from the pixel center, in pixel units
+         * @param y      the vertical offset of the sample from the pixel center, in pixel units
+         * @return the color of the sample
+         */
+        Color trace(int column, int row, double x, double y);
+    }
+
+    /** Maximal amount of passes */
+    private final int maxPasses;
+    /** The checkpoint of the rendering, null if there is none */
+    private final RenderCheckpoint checkpoint;
+    /** The sample patterns - x and y offsets of every sample in turn, in pixel units */
+    private final double[][] patterns;
+    /** The accumulation buffer */
+    private final AccumulationBuffer accumulation;
+    /** Time budget in milliseconds, 0 for no limit */
+    private long timeBudget = 0;
+    /** Error budget (estimated standard error in color units), 0 for no limit */
+    private double errorBudget = 0;
+    /** Interval between the image snapshots in milliseconds, 0 for no snapshots */
+    private long snapshotInterval = 0;
+    /** Listener notified after every pass, null for none */
+    private Consumer<AccumulationBuffer> passListener = null;
+
+    /**
+     * Prepares a progressive rendering - resumes it from its checkpoint, or starts it anew
+     *
+     * @param nX             amount of pixels by width
+     * @param nY             amount of pixels by height
+     * @param maxPasses      the maximal amount of passes
+     * @param checkpoint     the checkpoint of the rendering, null if there is none
+     * @param patternFactory factory of the sample patterns by their amount of samples
+     */
+    ProgressiveRendering(int nX, int nY, int maxPasses, RenderCheckpoint checkpoint,
+                         IntFunction<double[][]> patternFactory) {
+        this.maxPasses = maxPasses;
+        this.checkpoint = checkpoint;
+        AccumulationBuffer restored = checkpoint == null ? null : checkpoint.restorePasses();
+        if (restored != null) {
+            // Resume the rendering - by the sample patterns it has started with
+            patterns = checkpoint.getPatterns();
+            accumulation = restored;
+        } else {
+            patterns = patternFactory.apply(Math.min(maxPasses - maxPasses / 2, PATTERN_LENGTH));
+            accumulation = new AccumulationBuffer(nX, nY);
+            if (checkpoint != null) checkpoint.setPatterns(patterns);
+        }
+    }
+
+    /**
+     * Sets the budget of the rendering
+     *
+     * @param millis the time budget in milliseconds, 0 for no time limit
+     * @param error  the error budget, 0 for no error limit
+     * @return the rendering itself
+     */
+    ProgressiveRendering setBudget(long millis, double error) {
+        timeBudget = millis;
+        errorBudget = error;
+        return this;
+    }
+
+    /**
+     * Sets the interval between the image snapshots
+     *
+     * @param millis the interval in milliseconds, 0 for no snapshots
+     * @return the rendering itself
+     */
+    ProgressiveRendering setSnapshotInterval(long millis) {
+        snapshotInterval = millis;
+        return this;
+    }
+
+    /**
+     * Sets the listener notified after every pass
+     *
+     * @param listener the listener, null for none
+     * @return the rendering itself
+     */
+    ProgressiveRendering setPassListener(Consumer<AccumulationBuffer> listener) {
+        passListener = listener;
+        return this;
+    }
+
+    /**
+     * Accumulation buffer getter
+     *
+     * @return the accumulation buffer
+     */
+    AccumulationBuffer getAccumulation() {
+        return accumulation;
+    }
+
+    /**
+     * Renders the passes until the budget is reached or all the passes are done, and writes the final
+     * image into the image writer (but not to its file)
+     *
+     * @param passRenderer renderer of a whole pass by its index
+     * @param imageWriter  the image writer of the snapshots and of the final image
+     */
+    void render(IntConsumer passRenderer, ImageWriter imageWriter) {
+        long start = System.nanoTime();
+        long lastSnapshot = start;
+        boolean isDone = accumulation.getPasses() >= maxPasses
+                || errorBudget > 0 && accumulation.getError() <= errorBudget;
+        while (!isDone) {
+            passRenderer.accept(accumulation.getPasses());
+            accumulation.endPass();
+            if (checkpoint != null) checkpoint.passDone(accumulation);
+            if (passListener != null) passListener.accept(accumulation);
+
+            long now = System.nanoTime();
+            isDone = accumulation.getPasses() >= maxPasses
+                    || timeBudget > 0 && now - start >= timeBudget * 1_000_000
+                    || errorBudget > 0 && accumulation.getError() <= errorBudget;
+            if (!isDone && snapshotInterval > 0 && now - lastSnapshot >= snapshotInterval * 1_000_000) {
+                accumulation.writeTo(imageWriter);
+                imageWriter.writeToImage();
+                lastSnapshot = now;
+            }
+        }
+        if (checkpoint != null) checkpoint.savePasses(accumulation);
+        accumulation.writeTo(imageWriter);
+    }
+
+    /**
+     * Renders a single pass over the pixels of a tile - adds a sample of every pixel to the accumulation
+     * buffer
+     *
+     * @param nX     amount of pixels by width
+     * @param tile   the tile
+     * @param pass   the index of the pass
+     * @param tracer tracer of the samples
+     */
+    void renderPass(int nX, TileManager.Tile tile, int pass, SampleTracer tracer) {
+        int length = patterns[0].length / 2;
+        int sample = 2 * (pass / 2 % length);
+        // every cycle of the pattern length continues by another pattern
+        int cycle = (pass / 2 / length * 2 + pass % 2) * 0x61C88647;
+        for (int row = tile.row0(); row < tile.row1(); ++row)
+            for (int column = tile.col0(); column < tile.col1(); ++column) {
+                double[] pattern = patterns[Math.floorMod(Camera.hash(row * nX + column + cycle), patterns.length)];
+                accumulation.add(column, row, tracer.trace(column, row, pattern[sample], pattern[sample + 1]));
+            }
+    }
+}
@@ -0,0 +1,143 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * Progressive sampler of a single pixel: the pixel is sampled batch after batch, and the sampling
+ * stops as soon as the color is known precisely enough, or when the sample budget is exhausted.<br/>
+ * After every batch the 95% confidence interval of the mean of every color channel is estimated by
+ * the running variance of the samples (Welford's algorithm, kept in plain double fields). A flat
+ * region has no variance and stops after the first batch, while edges, glossy highlights and other
+ * noisy regions keep sampling up to the budget.<br/>
+ * The sampler keeps the state of the current pixel, so it is not thread safe - every rendering
+ * thread must use its own.
+ */
+public class ProgressiveSampler {
+    /**
+     * Tracer of a single sample of the pixel being sampled
+     */
+    @FunctionalInterface
+    public interface SampleTracer {
+        /**
+         * Traces a sample of the pixel
+         *
+         * @param x horizontal offset from the pixel center, in pixel units
+         * @param y vertical offset from the pixel center, in pixel units
+         * @return the color of the sample
+         */
+        Color trace(double x, double y);
+    }
+
+    /** Standard score of the 95% confidence interval */
+    private static final double CONFIDENCE_Z = 1.96;
+
+    /** Generator of the sample positions of every batch */
+    private final Sampler sampler;
+    /** Amount of samples in a batch */
+    private final int batchSize;
+    /** Maximal half width of the confidence interval of every channel (in color units) */
+    private final double threshold;
+    /** Sample positions of the current batch */
+    private final double[] samples;
+
+    /** Amount of samples of the current pixel */
+    private int count;
+    /** Running mean of the red channel */
+    private double meanR;
+    /** Running mean of the green channel */
+    private double meanG;
+    /** Running mean of the blue channel */
+    private double meanB;
+    /** Running sum of the squared deviations of the red channel */
+    private double m2R;
+    /** Running sum of the squared deviations of the green channel */
+    private double m2G;
+    /** Running sum of the squared deviations of the blue channel */
+    private double m2B;
+
+    /**
+     * Constructs a progressive sampler
+     *
+     * @param sampler   generator of the sample positions of every batch
+     * @param batchSize amount of samples in a batch
+     * @param threshold maximal half width of the 95% confidence interval of every color channel
+     *                  (in color units, where 255 is the full printed intensity), 0 to always take
+     *                  the whole budget
+     * @throws IllegalArgumentException if the batch has less than 2 samples or the threshold is negative
+     */
+    public ProgressiveSampler(Sampler sampler, int batchSize, double threshold) {
+        if (batchSize < 2) throw new IllegalArgumentException("A batch must have at least 2 samples");
+        if (threshold < 0) throw new IllegalArgumentException("Threshold must be non-negative");
+        this.sampler = sampler;
+        this.batchSize = batchSize;
+        this.threshold = threshold;
+        samples = new double[2 * batchSize];
+    }
+
+    /**
+     * Reseeds the sample positions generator, so the following pixels are reproducible
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        sampler.setSeed(seed);
+    }
+
+    /**
+     * Samples a pixel until its color is precise enough or the budget is exhausted.
+     * The budget is rounded up to whole batches.
+     *
+     * @param tracer     tracer of the samples of the pixel
+     * @param maxSamples the sample budget of the pixel
+     * @return the mean color of the samples
+     */
+    public Color sample(SampleTracer tracer, int maxSamples) {
+        count = 0;
+        meanR = meanG = meanB = 0;
+        m2R = m2G = m2B = 0;
+        do {
+            sampler.generate(samples);
+            for (int k = 0; k < samples.length; k += 2)
+                add(tracer.trace(samples[k], samples[k + 1]));
+        } while (count < maxSamples && !isConverged());
+        return new Color(Math.max(meanR, 0), Math.max(meanG, 0), Math.max(meanB, 0));
+    }
+
+    /**
+     * Gets the amount of samples taken for the last pixel
+     *
+     * @return the amount of samples
+     */
+    public int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * Adds a sample to the running mean and variance of every channel
+     *
+     * @param color the color of the sample
+     */
+    private void add(Color color) {
+        ++count;
+        double delta = color.getRed() - meanR;
+        meanR += delta / count;
+        m2R += delta * (color.getRed() - meanR);
+        delta = color.getGreen() - meanG;
+        meanG += delta / count;
+        m2G += delta * (color.getGreen() - meanG);
+        delta = color.getBlue() - meanB;
+        meanB += delta / count;
+        m2B += delta * (color.getBlue() - meanB);
+    }
+
+    /**
+     * Checks whether the confidence interval of every channel is within the threshold
+     *
+     * @return true if the pixel color is precise enough
+     */
+    private boolean isConverged() {
+        // z * sqrt(variance / n) <= threshold, where variance = m2 / (n - 1)
+        double limit = threshold * threshold * count * (count - 1) / (CONFIDENCE_Z * CONFIDENCE_Z);
+        return threshold > 0 && m2R <= limit && m2G <= limit && m2B <= limit;
+    }
+}
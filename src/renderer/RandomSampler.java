@@ -0,0 +1,23 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampler of independent uniformly distributed random samples over the whole pixel.
+ * It is the simplest sampler and the noisiest one - the samples may clump together.
+ */
+public class RandomSampler implements Sampler {
+    /** Random generator of the samples */
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void generate(double[] samples) {
+        for (int k = 0; k < samples.length; ++k)
+            samples[k] = random.nextDouble() - 0.5;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+}
@@ -5,12 +5,17 @@ import primitives.Color;
 import primitives.Ray;
 import scene.Scene;
 
+import java.io.Serializable;
+
 /**
  * An abstract class that serves as a base for Ray Tracing implementations.
  * Ray tracing is a rendering technique for generating an image by tracing the path of light
  * as pixels in the image plane and simulating the effects of its encounters with virtual objects.
  */
-public abstract class RayTracerBase {
+public abstract class RayTracerBase implements Serializable {
+
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
 
     /**
      * The Scene object containing all the objects to be rendered.
@@ -26,7 +31,6 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
-
     /**
      * Abstract method to trace a Ray and calculate the resulting color.
      *
@@ -0,0 +1,365 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checkpoint of a long rendering, kept in a compact binary file, so a rendering that has been killed
+ * may be resumed instead of being started over.<br/>
+ * A tiled rendering ({@link Camera#renderImage(int)}) keeps its finished tiles - their indices and
+ * their linear pixels. A progressive rendering ({@link Camera#renderProgressive(int)}) keeps its
+ * accumulation buffer. Both keep the sample patterns of the rendering, so the resumed rendering
+ * samples the pixels exactly as the killed one would have.<br/>
+ * The file starts by a key of the rendering settings (a digest of the serialized scene, the ray tracer, the
+ * camera and the sampling), and a file of another rendering is ignored. The file is written to a temporary file which then replaces
+ * it, so a rendering killed while saving leaves the previous checkpoint intact. A failure to save a
+ * checkpoint is logged and doesn't stop the rendering.
+ */
+class RenderCheckpoint {
+    /** File type identifier ("RCKP") */
+    private static final int MAGIC = 0x52434B50;
+    /** File format version */
+    private static final int VERSION = 1;
+    /** Checkpoint kinds */
+    private static final int TILES = 0, PASSES = 1;
+    /** Offset basis of the FNV-1a hash */
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    /** Prime of the FNV-1a hash */
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /** The checkpoint file */
+    private final Path file;
+    /** Minimal interval between the saved checkpoints in nanoseconds */
+    private final long interval;
+    /** Key of the rendering settings */
+    private final long key;
+    /** Horizontal resolution of the image */
+    private final int nX;
+    /** Vertical resolution of the image */
+    private final int nY;
+    /** Indices of the finished tiles (of a tiled rendering) */
+    private final BitSet done = new BitSet();
+    /** The sample patterns of the rendering, null if it has none */
+    private double[][] patterns = null;
+    /** Time of the last saved checkpoint (System.nanoTime) */
+    private volatile long lastSave = System.nanoTime();
+    /** Lock of saving - only a single thread saves at a time, the others go on rendering */
+    private final ReentrantLock saving = new ReentrantLock();
+    /** Logger for reporting I/O failures */
+    private static final Logger logger = Logger.getLogger("RenderCheckpoint");
+
+    /**
+     * Constructs an empty checkpoint of a rendering
+     *
+     * @param file     the checkpoint file
+     * @param interval minimal interval between the saved checkpoints in milliseconds
+     * @param key      key of the rendering settings (see {@link #key(Object...)})
+     * @param nX       amount of pixels by width
+     * @param nY       amount of pixels by height
+     */
+    RenderCheckpoint(Path file, long interval, long key, int nX, int nY) {
+        this.file = file;
+        this.interval = interval * 1_000_000;
+        this.key = key;
+        this.nX = nX;
+        this.nY = nY;
+    }
+
+    /**
+     * Computes the key of rendering settings - a 64 bit FNV-1a hash of their string forms
+     *
+     * @param settings the settings
+     * @return the key
+     */
+    static long key(Object... settings) {
+        long hash = FNV_OFFSET;
+        for (char c : Arrays.deepToString(settings).toCharArray())
+            hash = (hash ^ c) * FNV_PRIME;
+        return hash;
+    }
+
+    /**
+     * Computes the digest of the content of a rendering (its scene) - a 64 bit FNV-1a hash of its serialized
+     * form, so changing any geometry, material or light changes the digest
+     *
+     * @param content the content
+     * @return the digest
+     * @throws IllegalArgumentException if the content isn't serializable
+     */
+    static long digest(Serializable content) {
+        HashStream hash = new HashStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(hash)) {
+            out.writeObject(content);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("The scene must be serializable to be checkpointed: "
+                    + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't digest the scene", e);
+        }
+        return hash.hash;
+    }
+
+    /**
+     * Output stream hashing the written bytes by FNV-1a (without keeping them)
+     */
+    private static class HashStream extends OutputStream {
+        /** The hash of the bytes written so far */
+        private long hash = FNV_OFFSET;
+
+        @Override
+        public void write(int b) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+    }
+
+    /**
+     * Sample patterns getter
+     *
+     * @return the sample patterns of the rendering, null if it has none (or no checkpoint was restored)
+     */
+    double[][] getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Sample patterns setter
+     *
+     * @param patterns the sample patterns of the rendering, null if it has none
+     */
+    void setPatterns(double[][] patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Checks whether a tile is finished
+     *
+     * @param index the tile index
+     * @return true if the tile is finished
+     */
+    boolean isDone(int index) {
+        synchronized (done) {
+            return done.get(index);
+        }
+    }
+
+    /**
+     * Gets the finished tiles
+     *
+     * @return a copy of the set of the indices of the finished tiles
+     */
+    BitSet getDone() {
+        synchronized (done) {
+            return (BitSet) done.clone();
+        }
+    }
+
+    /**
+     * Restores a tiled rendering from the checkpoint file - the pixels of the finished tiles are
+     * written into the image writer. Nothing is restored if there is no checkpoint of the rendering.
+     *
+     * @param tiles       the tiles of the rendering
+     * @param imageWriter the image writer of the rendering
+     * @return true if the rendering was restored
+     */
+    boolean restoreTiles(TileManager tiles, ImageWriter imageWriter) {
+        try (DataInputStream in = open(TILES)) {
+            if (in == null) return false;
+            BitSet restored = new BitSet();
+            for (int count = in.readInt(); count > 0; --count) {
+                int index = in.readInt();
+                TileManager.Tile tile = tiles.getTile(index);
+                for (int row = tile.row0(); row < tile.row1(); ++row)
+                    for (int column = tile.col0(); column < tile.col1(); ++column)
+                        imageWriter.writePixel(column, row,
+                                new Color(in.readFloat(), in.readFloat(), in.readFloat()));
+                restored.set(index);
+            }
+            synchronized (done) {
+                done.or(restored);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Can't restore the checkpoint " + file + ", rendering from the start", e);
+            return false;
+        }
+    }
+
+    /**
+     * Restores a progressive rendering from the checkpoint file
+     *
+     * @return the accumulation buffer of the rendering, null if there is no checkpoint of the rendering
+     */
+    AccumulationBuffer restorePasses() {
+        try (DataInputStream in = open(PASSES)) {
+            return in == null ? null : AccumulationBuffer.read(in, nX, nY);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Can't restore the checkpoint " + file + ", rendering from the start", e);
+            return null;
+        }
+    }
+
+    /**
+     * Reports a finished tile, and saves the checkpoint if the interval has passed since the last
+     * one (unless another thread is saving it). The function is thread safe.
+     *
+     * @param index       the tile index
+     * @param tiles       the tiles of the rendering
+     * @param frameBuffer the frame buffer of the rendering (the pixels of the finished tiles must be final)
+     */
+    void tileDone(int index, TileManager tiles, FrameBuffer frameBuffer) {
+        synchronized (done) {
+            done.set(index);
+        }
+        if (System.nanoTime() - lastSave >= interval && saving.tryLock()) {
+            try {
+                saveTiles(tiles, frameBuffer);
+            } finally {
+                saving.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reports a finished pass of a progressive rendering, and saves the checkpoint if the interval has
+     * passed since the last one
+     *
+     * @param accumulation the accumulation buffer of the rendering
+     */
+    void passDone(AccumulationBuffer accumulation) {
+        if (System.nanoTime() - lastSave >= interval) savePasses(accumulation);
+    }
+
+    /**
+     * Saves the finished tiles of a tiled rendering
+     *
+     * @param tiles       the tiles of the rendering
+     * @param frameBuffer the frame buffer of the rendering
+     */
+    void saveTiles(TileManager tiles, FrameBuffer frameBuffer) {
+        BitSet finished = getDone();
+        save(TILES, out -> {
+            out.writeInt(finished.cardinality());
+            for (int index = finished.nextSetBit(0); index >= 0; index = finished.nextSetBit(index + 1)) {
+                out.writeInt(index);
+                TileManager.Tile tile = tiles.getTile(index);
+                for (int row = tile.row0(); row < tile.row1(); ++row)
+                    for (int column = tile.col0(); column < tile.col1(); ++column) {
+                        Color color = frameBuffer.get(column, row);
+                        out.writeFloat((float) color.getRed());
+                        out.writeFloat((float) color.getGreen());
+                        out.writeFloat((float) color.getBlue());
+                    }
+            }
+        });
+    }
+
+    /**
+     * Saves the accumulation buffer of a progressive rendering
+     *
+     * @param accumulation the accumulation buffer of the rendering
+     */
+    void savePasses(AccumulationBuffer accumulation) {
+        save(PASSES, accumulation::write);
+    }
+
+    /**
+     * Writer of the body of a checkpoint
+     */
+    @FunctionalInterface
+    private interface BodyWriter {
+        /**
+         * Writes the body
+         *
+         * @param out the output stream
+         * @throws IOException if the file can't be written
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Saves a checkpoint - writes the header, the sample patterns and the body to a temporary file,
+     * which then replaces the checkpoint file
+     *
+     * @param kind the checkpoint kind
+     * @param body writer of the body
+     */
+    private void save(int kind, BodyWriter body) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(kind);
+                out.writeLong(key);
+                out.writeInt(nX);
+                out.writeInt(nY);
+                out.writeInt(patterns == null ? 0 : patterns.length);
+                if (patterns != null) {
+                    out.writeInt(patterns[0].length);
+                    for (double[] pattern : patterns)
+                        for (double offset : pattern) out.writeDouble(offset);
+                }
+                body.write(out);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Can't save the checkpoint " + file, e);
+        }
+        lastSave = System.nanoTime();
+    }
+
+    /**
+     * Opens the checkpoint file and reads its header and the sample patterns
+     *
+     * @param kind the expected checkpoint kind
+     * @return the input stream positioned at the body, null if there is no checkpoint of the rendering
+     * @throws IOException if the file can't be read
+     */
+    private DataInputStream open(int kind) throws IOException {
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != kind || in.readLong() != key
+                    || in.readInt() != nX || in.readInt() != nY) {
+                logger.info("The checkpoint " + file + " belongs to another rendering, rendering from the start");
+                in.close();
+                return null;
+            }
+            int count = in.readInt();
+            double[][] restored = null;
+            if (count > 0) {
+                restored = new double[count][in.readInt()];
+                for (double[] pattern : restored)
+                    for (int k = 0; k < pattern.length; ++k) pattern[k] = in.readDouble();
+            }
+            patterns = restored;
+            return in;
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
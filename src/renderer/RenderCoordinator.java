@@ -0,0 +1,300 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coordinator of a distributed rendering - the tiles of an image are rendered by worker processes
+ * (local or remote JVMs running {@link RenderWorker}) that connect to the coordinator socket.<br/>
+ * Every connected worker receives the serialized job (the camera with its ray tracer and scene) once,
+ * and then the tiles are dealt out dynamically: every worker keeps two tiles per rendering thread
+ * in flight, so it never waits for the network, and a fast worker simply takes more tiles. The
+ * rendered pixels of a tile are streamed back as linear floats. The tiles of a worker that fails or
+ * disconnects are dealt out again to the other workers. Workers may join while a rendering is
+ * running, and a connected worker serves a single rendering.<br/>
+ * Protocol (big endian): the worker sends the protocol identifier, the version and its amount of
+ * rendering threads; the coordinator sends the length of the job and the job; then the coordinator
+ * sends tiles (index and the pixel rectangle) and the worker answers every tile by its index and the
+ * red, green and blue of its pixels row by row. A negative tile index ends the work.
+ */
+public class RenderCoordinator implements AutoCloseable {
+    /** Protocol identifier ("RWRK") */
+    static final int MAGIC = 0x5257524B;
+    /** Protocol version */
+    static final int VERSION = 1;
+    /** Tile index ending the work of a worker */
+    static final int END = -1;
+    /** Tiles in flight per rendering thread of a worker */
+    private static final int TILES_PER_THREAD = 2;
+    /** Interval of checking the progress while waiting in milliseconds */
+    private static final int POLL_INTERVAL = 50;
+    /** Maximal time for a connected worker to introduce itself in milliseconds */
+    private static final int HELLO_TIMEOUT = 10_000;
+
+    /** The socket the workers connect to */
+    private final ServerSocket server;
+    /** The worker processes launched by the coordinator */
+    private final List<Process> processes = new LinkedList<>();
+    /** Maximal time to wait for a worker in milliseconds, while no worker is connected */
+    private long timeout = 60_000;
+    /** Logger for reporting worker failures */
+    private static final Logger logger = Logger.getLogger("RenderCoordinator");
+
+    /**
+     * Constructs a coordinator listening on a port of all the local addresses
+     *
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port can't be listened on
+     */
+    public RenderCoordinator(int port) throws IOException {
+        server = new ServerSocket(port);
+        server.setSoTimeout(POLL_INTERVAL);
+    }
+
+    /**
+     * Port getter
+     *
+     * @return the port the workers connect to
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Timeout setter
+     *
+     * @param millis maximal time to wait for a worker in milliseconds, while no worker is connected
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setTimeout(long millis) {
+        if (millis <= 0) throw new IllegalArgumentException("Timeout must be positive");
+        timeout = millis;
+        return this;
+    }
+
+    /**
+     * Launches worker processes on the local machine - JVMs running {@link RenderWorker} by the class
+     * path of the current JVM and connecting to the coordinator. The processes end when a rendering is
+     * done (or when the coordinator is closed), so they must be launched for every rendering.
+     *
+     * @param count   amount of worker processes
+     * @param threads amount of rendering threads of every worker, 0 for all its cores
+     * @return the coordinator itself
+     * @throws IOException if a process can't be launched
+     */
+    public RenderCoordinator launchLocalWorkers(int count, int threads) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        // the class path may be hidden by a launcher, so the location of the renderer classes is added
+        String classPath;
+        try {
+            classPath = Path.of(RenderWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    + File.pathSeparator + System.getProperty("java.class.path");
+        } catch (URISyntaxException e) {
+            throw new IOException("Can't locate the renderer classes", e);
+        }
+        for (int k = 0; k < count; ++k)
+            processes.add(new ProcessBuilder(java, "-cp", classPath,
+                    RenderWorker.class.getName(), "localhost", String.valueOf(getPort()), String.valueOf(threads))
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+        return this;
+    }
+
+    /**
+     * Renders the tiles of an image by the connecting workers, and returns once all the tiles are rendered
+     *
+     * @param job      the serialized job of the workers
+     * @param tiles    the tiles of the image
+     * @param rendered consumer of every rendered tile and its pixels (called by the thread of its worker)
+     * @throws IllegalStateException if no worker is connected for the timeout
+     */
+    void render(byte[] job, TileManager tiles, BiConsumer<TileManager.Tile, float[]> rendered) {
+        Dealer dealer = new Dealer(tiles);
+        List<Thread> handlers = new ArrayList<>();
+        AtomicInteger connected = new AtomicInteger(0);
+        long idleSince = System.currentTimeMillis();
+        while (!dealer.isDone()) {
+            if (connected.get() > 0) idleSince = System.currentTimeMillis();
+            else if (System.currentTimeMillis() - idleSince > timeout)
+                throw new IllegalStateException("No worker is connected to render the image");
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (SocketTimeoutException e) {
+                continue;
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't accept workers", e);
+            }
+            connected.incrementAndGet();
+            Thread handler = new Thread(() -> {
+                try {
+                    serve(socket, job, dealer, rendered);
+                } finally {
+                    connected.decrementAndGet();
+                }
+            });
+            handlers.add(handler);
+            handler.start();
+        }
+        // the handlers end their workers once there are no more tiles
+        try {
+            for (Thread handler : handlers) handler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serves a worker - sends it the job, deals tiles to it and receives the rendered tiles, until
+     * all the tiles of the image are rendered. The tiles in flight of a failed worker are dealt again.
+     *
+     * @param socket   the connection of the worker
+     * @param job      the serialized job
+     * @param dealer   the dealer of the tiles
+     * @param rendered consumer of every rendered tile and its pixels
+     */
+    private void serve(Socket socket, byte[] job, Dealer dealer, BiConsumer<TileManager.Tile, float[]> rendered) {
+        List<TileManager.Tile> inFlight = new ArrayList<>();
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            // a worker introduces itself at once, but it may take its time to render a tile
+            socket.setSoTimeout(HELLO_TIMEOUT);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a render worker");
+            int threads = Math.max(1, in.readInt());
+            socket.setSoTimeout(0);
+            out.writeInt(job.length);
+            out.write(job);
+            while (true) {
+                TileManager.Tile tile;
+                while (inFlight.size() < TILES_PER_THREAD * threads && (tile = dealer.next()) != null) {
+                    out.writeInt(dealer.tiles.getIndex(tile));
+                    out.writeInt(tile.col0());
+                    out.writeInt(tile.row0());
+                    out.writeInt(tile.col1());
+                    out.writeInt(tile.row1());
+                    inFlight.add(tile);
+                }
+                if (inFlight.isEmpty()) {
+                    if (dealer.isDone()) {
+                        out.writeInt(END);
+                        out.flush();
+                        return;
+                    }
+                    // the last tiles are rendered by the other workers - wait in case one of them fails
+                    out.flush();
+                    Thread.sleep(POLL_INTERVAL);
+                    continue;
+                }
+                out.flush();
+
+                int index = in.readInt();
+                tile = inFlight.stream().filter(t -> dealer.tiles.getIndex(t) == index).findFirst()
+                        .orElseThrow(() -> new IOException("Unexpected tile " + index));
+                float[] rgb = new float[3 * tile.pixels()];
+                for (int k = 0; k < rgb.length; ++k) rgb[k] = in.readFloat();
+                inFlight.remove(tile);
+                rendered.accept(tile, rgb);
+                dealer.done();
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Worker " + socket.getRemoteSocketAddress() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            dealer.retry(inFlight);
+        }
+    }
+
+    /**
+     * Ends the worker processes launched by the coordinator (if still running) and closes the socket
+     *
+     * @throws IOException if the socket can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        for (Process process : processes) process.destroy();
+        processes.clear();
+        server.close();
+    }
+
+    /**
+     * Dealer of the tiles of a rendering between the workers - the tiles of the tile manager, and
+     * the tiles of the failed workers dealt again. The class is thread safe.
+     */
+    private static class Dealer {
+        /** The tiles of the image */
+        final TileManager tiles;
+        /** Tiles of the failed workers to deal again */
+        private final Queue<TileManager.Tile> retries = new ConcurrentLinkedQueue<>();
+        /** Amount of tiles that aren't rendered yet */
+        private final AtomicInteger remaining;
+
+        /**
+         * Constructs a dealer
+         *
+         * @param tiles the tiles of the image (the skipped tiles are already rendered)
+         */
+        Dealer(TileManager tiles) {
+            this.tiles = tiles;
+            int count = 0;
+            for (int index = 0; index < tiles.getTotalTiles(); ++index)
+                if (!tiles.isSkipped(index)) ++count;
+            remaining = new AtomicInteger(count);
+        }
+
+        /**
+         * Deals the next tile
+         *
+         * @return the tile, null if there is no tile to deal at the moment
+         */
+        TileManager.Tile next() {
+            TileManager.Tile tile = retries.poll();
+            return tile != null ? tile : tiles.nextTile();
+        }
+
+        /**
+         * Reports a rendered tile
+         */
+        void done() {
+            remaining.decrementAndGet();
+        }
+
+        /**
+         * Deals tiles again
+         *
+         * @param failed the tiles of a failed worker
+         */
+        void retry(List<TileManager.Tile> failed) {
+            retries.addAll(failed);
+        }
+
+        /**
+         * Checks whether all the tiles are rendered
+         *
+         * @return true if all the tiles are rendered
+         */
+        boolean isDone() {
+            return remaining.get() == 0;
+        }
+    }
+}
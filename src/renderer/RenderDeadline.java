@@ -0,0 +1,107 @@
+package renderer;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Wall-clock deadline of a rendering (see {@link Camera.Builder#setDeadline(long)}) - before every tile the
+ * rendering thread asks for the samples per pixel it can afford, so the rendering finishes on time.<br/>
+ * The cost of a sample is estimated by the wall time of the rendering so far divided by the samples of the
+ * rendered tiles (so it accounts for all the rendering threads). While the remaining pixels can be rendered
+ * by all their samples before the deadline, a tile gets all of them; otherwise it gets the amount of
+ * samples the remaining time affords, and once the deadline has passed a single sample per pixel.<br/>
+ * Nothing is known about the cost of a sample before the first tile is done, so the tiles started before
+ * that (the first tile of every rendering thread) are probes - they are rendered by a single sample per
+ * pixel, and then rendered again by the samples the estimate affords.
+ * The class is thread safe.
+ */
+class RenderDeadline {
+    /** The clock of the rendering in nanoseconds */
+    private final LongSupplier clock;
+    /** Start time of the rendering (by the clock) */
+    private final long start;
+    /** The deadline relative to the start in nanoseconds */
+    private final long limit;
+    /** The full amount of samples per pixel */
+    private final int numRays;
+    /** Amount of pixel samples of the tiles rendered since the start */
+    private final LongAdder samples = new LongAdder();
+    /** Amount of tiles rendered by fewer samples than the full amount */
+    private final LongAdder reducedTiles = new LongAdder();
+
+    /**
+     * Constructs the deadline of a rendering that starts now
+     *
+     * @param millis  the time limit of the rendering in milliseconds
+     * @param numRays the full amount of samples per pixel
+     */
+    RenderDeadline(long millis, int numRays) {
+        this(millis, numRays, System::nanoTime);
+    }
+
+    /**
+     * Constructs the deadline of a rendering that starts now by a clock
+     *
+     * @param millis  the time limit of the rendering in milliseconds
+     * @param numRays the full amount of samples per pixel
+     * @param clock   the clock in nanoseconds
+     */
+    RenderDeadline(long millis, int numRays, LongSupplier clock) {
+        this.clock = clock;
+        start = clock.getAsLong();
+        limit = millis * 1_000_000;
+        this.numRays = numRays;
+    }
+
+    /**
+     * Calculates the samples per pixel of the next tile
+     *
+     * @param remainingPixels amount of the pixels that aren't rendered yet
+     * @return the samples per pixel, from 1 to the full amount (1 for a probe, before the cost of a sample
+     * is known)
+     */
+    int samplesPerPixel(long remainingPixels) {
+        long elapsed = clock.getAsLong() - start;
+        long left = limit - elapsed;
+        if (left <= 0) return 1;
+        long done = samples.sum();
+        if (done == 0) return 1;
+        if (remainingPixels <= 0) return numRays;
+        double affordable = left * (double) done / elapsed / remainingPixels;
+        return affordable >= numRays ? numRays : Math.max(1, (int) affordable);
+    }
+
+    /**
+     * Renders a tile by the samples per pixel the remaining time affords - a probe tile is rendered again
+     * once its samples give the estimate
+     *
+     * @param pixels          amount of pixels of the tile
+     * @param remainingPixels amount of the pixels that aren't rendered yet (including the tile)
+     * @param renderer        renderer of the tile by an amount of samples per pixel
+     */
+    void renderTile(int pixels, long remainingPixels, IntConsumer renderer) {
+        boolean probe = samples.sum() == 0;
+        int rendered = samplesPerPixel(remainingPixels);
+        renderer.accept(rendered);
+        samples.add((long) pixels * rendered);
+        if (probe) {
+            int affordable = samplesPerPixel(remainingPixels);
+            if (affordable > rendered) {
+                renderer.accept(affordable);
+                samples.add((long) pixels * affordable);
+                rendered = affordable;
+            }
+        }
+        if (rendered < numRays) reducedTiles.increment();
+    }
+
+    /**
+     * Gets the amount of tiles rendered by fewer samples than the full amount
+     *
+     * @return the amount of tiles
+     */
+    long getReducedTiles() {
+        return reducedTiles.sum();
+    }
+}
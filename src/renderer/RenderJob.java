@@ -0,0 +1,66 @@
+package renderer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Job of the workers of a distributed rendering (see {@link Camera#renderDistributed(int, RenderCoordinator)})
+ * - the resolution, the rays per pixel and the camera (with its ray tracer, scene and sample patterns).<br/>
+ * The coordinator serializes the job once and ships it to every worker. A worker trusts the coordinator it
+ * connects to, but only the classes of the renderer (and of the Java platform) are accepted in the job.
+ *
+ * @param nX      amount of pixels by width
+ * @param nY      amount of pixels by height
+ * @param numRays amount of rays per pixel
+ * @param camera  the camera
+ */
+record RenderJob(int nX, int nY, int numRays, Camera camera) {
+    /** Classes accepted in a job */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "primitives.*;geometries.*;lighting.*;scene.*;renderer.*;java.base/*;!*");
+
+    /**
+     * Serializes the job
+     *
+     * @return the serialized job
+     * @throws IllegalArgumentException if the scene or the camera isn't serializable
+     */
+    byte[] write() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeInt(nX);
+            out.writeInt(nY);
+            out.writeInt(numRays);
+            out.writeObject(camera);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("The scene and the camera must be serializable: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't serialize the camera", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializes a job
+     *
+     * @param job the serialized job
+     * @return the job
+     * @throws IOException if the job is corrupt or has a class that isn't accepted
+     */
+    static RenderJob read(byte[] job) throws IOException {
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(job))) {
+            objects.setObjectInputFilter(FILTER);
+            int nX = objects.readInt();
+            int nY = objects.readInt();
+            int numRays = objects.readInt();
+            return new RenderJob(nX, nY, numRays, (Camera) objects.readObject());
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown class in the job", e);
+        }
+    }
+}
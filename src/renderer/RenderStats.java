@@ -0,0 +1,344 @@
+package renderer;
+
+import geometries.IntersectionCounter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a rendering (see {@link Camera.Builder#setStatistics(boolean)}) - the amount of rays
+ * traced by their types, the histogram of the recursion depths of the rays, the amount of intersection
+ * tests by the classes of the tested geometries and the rendering time of every tile.<br/>
+ * The rays are counted by {@link LongAdder}s and the intersection tests by a counter of every rendering
+ * thread, so the counting threads don't contend. The statistics are attached to a rendering thread for
+ * every tile (like the intersection counters), so the ray tracer - which may be shared by several cameras -
+ * counts the rays of the tile into the statistics of the rendering it belongs to. The statistics are read
+ * once the rendering is done.<br/>
+ * The statistics are also exported as Java Flight Recorder events - an event of every rendered tile
+ * ({@code renderer.Tile}) and an event of the whole rendering ({@code renderer.Render}). The events
+ * cost nothing unless they are recorded, e.g. by {@code java -XX:StartFlightRecording ...}.
+ */
+public class RenderStats {
+    /**
+     * Types of the traced rays
+     */
+    public enum RayType {
+        /** Rays from the camera through the pixels */
+        PRIMARY,
+        /** Reflected rays */
+        REFLECTION,
+        /** Refracted (transmitted) rays */
+        REFRACTION,
+        /** Rays from a surface towards a light source */
+        SHADOW
+    }
+
+    /** Amount of buckets of the recursion depth histogram - the last bucket counts the deeper rays too */
+    public static final int DEPTHS = 16;
+
+    /** The statistics of the tile rendered by every thread, null if the thread isn't counted */
+    private static final ThreadLocal<RenderStats> CURRENT = new ThreadLocal<>();
+    /** Amount of the threads attached to statistics */
+    private static final AtomicInteger ATTACHED = new AtomicInteger(0);
+
+    /** Amount of rays traced by their types */
+    private final LongAdder[] rays = new LongAdder[RayType.values().length];
+    /** Amount of primary and secondary rays traced by their recursion depths (0 for the primary rays) */
+    private final LongAdder[] depths = new LongAdder[DEPTHS];
+    /** Amount of rays traced by every rendering thread */
+    private final ThreadLocal<long[]> threadRays = ThreadLocal.withInitial(() -> new long[1]);
+    /** The intersection test counters of the rendering threads */
+    private final List<IntersectionCounter> counters = new ArrayList<>();
+    /** The intersection test counter of every rendering thread */
+    private final ThreadLocal<IntersectionCounter> counter = ThreadLocal.withInitial(this::createCounter);
+    /** Rendering time of every tile in nanoseconds (0 for a tile that wasn't rendered) */
+    private final long[] tileTimes;
+    /** Start time of the rendering (System.nanoTime) */
+    private final long start = System.nanoTime();
+    /** Rendering time in nanoseconds, -1 while rendering */
+    private long renderTime = -1;
+
+    /**
+     * Constructs empty statistics of a rendering
+     *
+     * @param totalTiles amount of tiles of the image
+     */
+    RenderStats(int totalTiles) {
+        for (int k = 0; k < rays.length; ++k) rays[k] = new LongAdder();
+        for (int k = 0; k < depths.length; ++k) depths[k] = new LongAdder();
+        tileTimes = new long[totalTiles];
+    }
+
+    /**
+     * Creates the intersection test counter of a rendering thread
+     *
+     * @return the counter
+     */
+    private IntersectionCounter createCounter() {
+        IntersectionCounter created = new IntersectionCounter();
+        synchronized (counters) {
+            counters.add(created);
+        }
+        return created;
+    }
+
+    /**
+     * Attaches statistics to the current thread - the following rays of the thread are counted by them
+     *
+     * @param stats the statistics, null for not counting the rays of the thread
+     * @return the statistics previously attached to the thread (null if none), for restoring them
+     */
+    private static RenderStats attach(RenderStats stats) {
+        RenderStats previous = CURRENT.get();
+        if (stats == null) CURRENT.remove();
+        else CURRENT.set(stats);
+        if (previous == null && stats != null) ATTACHED.incrementAndGet();
+        else if (previous != null && stats == null) ATTACHED.decrementAndGet();
+        return previous;
+    }
+
+    /**
+     * Counts a traced ray by the statistics attached to the current thread (if any)
+     *
+     * @param type  the ray type
+     * @param depth the recursion depth of the ray (0 for a primary ray), ignored for a shadow ray
+     */
+    static void count(RayType type, int depth) {
+        if (ATTACHED.get() == 0) return;
+        RenderStats stats = CURRENT.get();
+        if (stats != null) stats.countRay(type, depth);
+    }
+
+    /**
+     * Counts a traced ray. The function is thread safe.
+     *
+     * @param type  the ray type
+     * @param depth the recursion depth of the ray (0 for a primary ray), ignored for a shadow ray
+     */
+    void countRay(RayType type, int depth) {
+        rays[type.ordinal()].increment();
+        ++threadRays.get()[0];
+        if (type != RayType.SHADOW) depths[Math.min(depth, DEPTHS - 1)].increment();
+    }
+
+    /**
+     * Gets the amount of rays traced by the current thread so far (in all its tiles)
+     *
+     * @return the amount of rays
+     */
+    long getThreadRays() {
+        return threadRays.get()[0];
+    }
+
+    /**
+     * Statistics and intersection test counter attached to a thread before a tile, restored at its end
+     *
+     * @param stats   the statistics previously attached to the thread (null if none)
+     * @param counter the counter previously attached to the thread (null if none)
+     */
+    record Attachment(RenderStats stats, IntersectionCounter counter) {}
+
+    /**
+     * Starts rendering a tile by the current thread - its rays and intersection tests are counted until
+     * the tile ends
+     *
+     * @return the statistics and the counter previously attached to the thread, to restore at the end of
+     * the tile
+     */
+    Attachment startTile() {
+        return new Attachment(attach(this), IntersectionCounter.attach(counter.get()));
+    }
+
+    /**
+     * Ends rendering a tile by the current thread
+     *
+     * @param index    the tile index
+     * @param tile     the tile
+     * @param begin    start time of the tile (System.nanoTime)
+     * @param previous the statistics and the counter previously attached to the thread (returned by
+     *                 {@link #startTile()})
+     */
+    void endTile(int index, TileManager.Tile tile, long begin, Attachment previous) {
+        long time = System.nanoTime() - begin;
+        IntersectionCounter.attach(previous.counter());
+        attach(previous.stats());
+        tileTimes[index] = time;
+        TileEvent event = new TileEvent();
+        if (event.shouldCommit()) {
+            event.index = index;
+            event.column = tile.col0();
+            event.row = tile.row0();
+            event.pixels = tile.pixels();
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    /**
+     * Ends the rendering
+     */
+    void end() {
+        renderTime = System.nanoTime() - start;
+        RenderEvent event = new RenderEvent();
+        if (event.shouldCommit()) {
+            event.primaryRays = getRays(RayType.PRIMARY);
+            event.reflectionRays = getRays(RayType.REFLECTION);
+            event.refractionRays = getRays(RayType.REFRACTION);
+            event.shadowRays = getRays(RayType.SHADOW);
+            event.intersectionTests = getIntersectionTests().values().stream().mapToLong(Long::longValue).sum();
+            event.tiles = tileTimes.length;
+            event.time = renderTime;
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets the amount of rays of a type
+     *
+     * @param type the ray type
+     * @return the amount of rays traced
+     */
+    public long getRays(RayType type) {
+        return rays[type.ordinal()].sum();
+    }
+
+    /**
+     * Gets the amount of rays of all the types
+     *
+     * @return the amount of rays traced
+     */
+    public long getTotalRays() {
+        long total = 0;
+        for (LongAdder adder : rays) total += adder.sum();
+        return total;
+    }
+
+    /**
+     * Gets the histogram of the recursion depths of the primary and the secondary (reflected and
+     * refracted) rays
+     *
+     * @return the amount of rays of every depth - the primary rays are of depth 0, and the last
+     * bucket counts the deeper rays too
+     */
+    public long[] getDepthHistogram() {
+        long[] histogram = new long[DEPTHS];
+        for (int k = 0; k < DEPTHS; ++k) histogram[k] = depths[k].sum();
+        return histogram;
+    }
+
+    /**
+     * Gets the amount of the intersection tests by the classes of the tested geometries
+     *
+     * @return amount of tests by the simple names of the geometry classes
+     */
+    public Map<String, Long> getIntersectionTests() {
+        Map<String, Long> totals = new TreeMap<>();
+        synchronized (counters) {
+            for (IntersectionCounter threadCounter : counters) threadCounter.addTo(totals);
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the rendering times of the tiles
+     *
+     * @return the rendering time of every tile (by the tile indices) in nanoseconds, 0 for a tile that
+     * wasn't rendered (e.g. restored from a checkpoint)
+     */
+    public long[] getTileTimes() {
+        return tileTimes.clone();
+    }
+
+    /**
+     * Gets the rendering time
+     *
+     * @return the wall time of the rendering in nanoseconds
+     */
+    public long getRenderTime() {
+        return renderTime;
+    }
+
+    @Override
+    public String toString() {
+        long maxTile = Arrays.stream(tileTimes).max().orElse(0);
+        return "RenderStats{" +
+                "time=" + renderTime / 1_000_000 + "ms" +
+                ", primary=" + getRays(RayType.PRIMARY) +
+                ", reflection=" + getRays(RayType.REFLECTION) +
+                ", refraction=" + getRays(RayType.REFRACTION) +
+                ", shadow=" + getRays(RayType.SHADOW) +
+                ", depths=" + Arrays.toString(getDepthHistogram()) +
+                ", intersectionTests=" + getIntersectionTests() +
+                ", tiles=" + tileTimes.length +
+                ", maxTile=" + maxTile / 1_000 + "us" +
+                '}';
+    }
+
+    /**
+     * Flight recorder event of a rendered tile
+     */
+    @Name("renderer.Tile")
+    @Label("Tile Rendered")
+    @Category("Renderer")
+    static class TileEvent extends Event {
+        /** The tile index */
+        @Label("Index")
+        int index;
+        /** The left column of the tile */
+        @Label("Column")
+        int column;
+        /** The top row of the tile */
+        @Label("Row")
+        int row;
+        /** Amount of pixels of the tile */
+        @Label("Pixels")
+        int pixels;
+        /** Rendering time of the tile */
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    /**
+     * Flight recorder event of a rendering
+     */
+    @Name("renderer.Render")
+    @Label("Image Rendered")
+    @Category("Renderer")
+    @Description("Ray and intersection test counts of a rendering")
+    static class RenderEvent extends Event {
+        /** Amount of primary rays */
+        @Label("Primary Rays")
+        long primaryRays;
+        /** Amount of reflected rays */
+        @Label("Reflection Rays")
+        long reflectionRays;
+        /** Amount of refracted rays */
+        @Label("Refraction Rays")
+        long refractionRays;
+        /** Amount of shadow rays */
+        @Label("Shadow Rays")
+        long shadowRays;
+        /** Amount of intersection tests */
+        @Label("Intersection Tests")
+        long intersectionTests;
+        /** Amount of tiles */
+        @Label("Tiles")
+        int tiles;
+        /** Rendering time */
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+}
@@ -0,0 +1,157 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Worker of a distributed rendering - connects to a {@link RenderCoordinator}, receives the job (the
+ * camera with its ray tracer and scene), renders the tiles it is dealt by several threads and sends
+ * the rendered pixels back, until the coordinator ends the work.<br/>
+ * A worker trusts the coordinator it connects to, but only the classes of the renderer (and of the
+ * Java platform) are accepted in the job (see {@link RenderJob}).
+ */
+public class RenderWorker {
+    /** Logger for reporting rendering failures */
+    private static final Logger logger = Logger.getLogger("RenderWorker");
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RenderWorker() {}
+
+    /**
+     * Runs a worker process
+     *
+     * @param args the coordinator host, its port and optionally the amount of rendering threads
+     *             (0 or missing for all the cores)
+     * @throws IOException if the connection to the coordinator fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java renderer.RenderWorker <host> <port> [threads]");
+            System.exit(2);
+        }
+        work(args[0], Integer.parseInt(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 0);
+    }
+
+    /**
+     * Works for a coordinator - renders the tiles it deals until it ends the work
+     *
+     * @param host    the coordinator host
+     * @param port    the coordinator port
+     * @param threads amount of rendering threads, 0 for all the cores
+     * @throws IOException           if the connection to the coordinator fails
+     * @throws IllegalStateException if the rendering of a tile fails - the worker gives up its tiles
+     */
+    public static void work(String host, int port, int threads) throws IOException {
+        if (threads < 0) throw new IllegalArgumentException("Amount of threads must not be negative");
+        if (threads == 0) threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(RenderCoordinator.MAGIC);
+            out.writeInt(RenderCoordinator.VERSION);
+            out.writeInt(threads);
+            out.flush();
+
+            byte[] job = new byte[in.readInt()];
+            in.readFully(job);
+            RenderJob received = RenderJob.read(job);
+            int nX = received.nX(), nY = received.nY(), numRays = received.numRays();
+            Camera camera = received.camera();
+            TileBuffer buffer = new TileBuffer();
+            camera.setImageWriter(new ImageWriter("worker", nX, nY, buffer));
+
+            AtomicReference<RuntimeException> failure = new AtomicReference<>();
+            try {
+                for (int index = in.readInt(); index != RenderCoordinator.END && failure.get() == null;
+                     index = in.readInt()) {
+                    int tileIndex = index;
+                    TileManager.Tile tile =
+                            new TileManager.Tile(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                    pool.execute(() -> {
+                        try {
+                            float[] rgb = buffer.start(tile);
+                            camera.renderPixels(nX, nY, tile, numRays);
+                            synchronized (out) {
+                                out.writeInt(tileIndex);
+                                for (float value : rgb) out.writeFloat(value);
+                                out.flush();
+                            }
+                        } catch (IOException e) {
+                            // the coordinator is gone - the reader notices it as well
+                        } catch (RuntimeException e) {
+                            // give up - the reader stops at the end of the input, and once the connection is
+                            // closed the coordinator deals the tiles of the worker to the other workers
+                            logger.log(Level.SEVERE, "Rendering failed", e);
+                            if (failure.compareAndSet(null, e)) {
+                                try {
+                                    socket.shutdownInput();
+                                } catch (IOException ignore) {
+                                }
+                            }
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                // the end of the input of a worker that has given up isn't a connection failure
+                if (failure.get() == null) throw e;
+            }
+            if (failure.get() != null) throw new IllegalStateException("Rendering failed", failure.get());
+        } finally {
+            pool.shutdownNow();
+            try {
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Pixel sink of a worker - every rendering thread keeps only the pixels of the tile it renders
+     */
+    private static class TileBuffer implements PixelSink {
+        /** The tile of every thread */
+        private final ThreadLocal<TileManager.Tile> tiles = new ThreadLocal<>();
+        /** The pixels of the tile of every thread - red, green and blue of every pixel in turn, row by row */
+        private final ThreadLocal<float[]> pixels = new ThreadLocal<>();
+
+        /**
+         * Starts rendering a tile by the current thread
+         *
+         * @param tile the tile
+         * @return the pixels of the tile
+         */
+        float[] start(TileManager.Tile tile) {
+            float[] rgb = new float[3 * tile.pixels()];
+            tiles.set(tile);
+            pixels.set(rgb);
+            return rgb;
+        }
+
+        @Override
+        public void set(int xIndex, int yIndex, Color color) {
+            TileManager.Tile tile = tiles.get();
+            float[] rgb = pixels.get();
+            int index = 3 * ((yIndex - tile.row0()) * (tile.col1() - tile.col0()) + xIndex - tile.col0());
+            rgb[index] = FrameBuffer.narrow(color.getRed());
+            rgb[index + 1] = FrameBuffer.narrow(color.getGreen());
+            rgb[index + 2] = FrameBuffer.narrow(color.getBlue());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package renderer;
+
+/**
+ * Generator of the sample positions of the rays cast through a single pixel.<br/>
+ * A sampler keeps the state of its random generator, so it is not thread safe - every rendering
+ * thread must use its own sampler (the camera gives every thread its own blackboard with its own
+ * sampler).
+ */
+public interface Sampler {
+    /**
+     * Generates the sample positions of a single pixel. Exactly as many samples are generated as
+     * the array has room for, and every call generates a new (differently randomized) set.
+     *
+     * @param samples array for the samples - x and y of every sample in turn, relative to the
+     *                pixel center and in pixel units, i.e. in the range [-0.5, 0.5)
+     */
+    void generate(double[] samples);
+
+    /**
+     * Reseeds the random generator of the sampler, so the following sample sets are reproducible.
+     *
+     * @param seed the seed of the random generator
+     */
+    void setSeed(long seed);
+}
@@ -3,10 +3,9 @@ package renderer;
 import geometries.Intersectable.GeoPoint;
 import lighting.LightSource;
 import primitives.*;
+import renderer.RenderStats.RayType;
 import scene.Scene;
 
-import java.util.List;
-
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
@@ -15,6 +14,9 @@ import static primitives.Util.isZero;
  * This ray tracer calculates the color of the closest intersection point of a ray with the scene's geometries.
  */
 public class SimpleRayTracer extends RayTracerBase {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     //    /** A small constant value used to slightly move the origin of the shadow rays to avoid self-shadowing. */
     private static final double DELTA = 0.1;
     /** Maximum recursion level for calculating global effects (reflection/refraction). */
@@ -39,6 +41,7 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
+        RenderStats.count(RayType.PRIMARY, 0);
         GeoPoint closestPoint = findClosestIntersection(ray);
         return closestPoint == null ? scene.background : calcColor(closestPoint, ray);
     }
@@ -79,23 +82,25 @@ public class SimpleRayTracer extends RayTracerBase {
     private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
         Material material = gp.geometry.getMaterial();
         Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
-        return calcGlobalEffect(constructRefractedRay(gp, v, n), material.kT, level, k)
-                .add(calcGlobalEffect(constructReflectedRay(gp, v, n), material.kR, level, k));
+        Vector n = gp.geometry.getNormal(gp);
+        return calcGlobalEffect(constructRefractedRay(gp, v, n), RayType.REFRACTION, material.kT, level, k)
+                .add(calcGlobalEffect(constructReflectedRay(gp, v, n), RayType.REFLECTION, material.kR, level, k));
     }
 
     /**
      * Calculates the global effect (reflection or refraction) for a given ray.
      * @param ray   The ray to trace.
+     * @param type  The type of the ray (reflection or refraction).
      * @param kx    The reflection/refraction factor.
      * @param level The recursion level.
      * @param k     The cumulative reflection/refraction factor.
      * @return The color contribution from the global effect.
      */
-    private Color calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k) {
+    private Color calcGlobalEffect(Ray ray, RayType type, Double3 kx, int level, Double3 k) {
         Double3 kkx = k.product(kx);
         if (kkx.lowerThan(MIN_CALC_COLOR_K))
             return Color.BLACK;
+        RenderStats.count(type, MAX_CALC_COLOR_LEVEL - level + 1);
         GeoPoint gp = findClosestIntersection(ray);
         return (gp == null ? scene.background : calcColor(gp, ray, level - 1, kkx))
                 .scale(kx);
@@ -108,7 +113,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return The closest intersection point, or null if no intersections are found.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     /**
@@ -132,7 +137,8 @@ public class SimpleRayTracer extends RayTracerBase {
     private Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
         double nv = n.dotProduct(v);
         if (isZero(nv)) return null;
-        Vector vector = v.subtract(n.scale(2 * nv));
+        double nv2 = 2 * nv;
+        Vector vector = new Vector(v.getX() - n.getX() * nv2, v.getY() - n.getY() * nv2, v.getZ() - n.getZ() * nv2);
         return new Ray(gp.point, vector, n);
     }
 
@@ -144,7 +150,7 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
         Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.geometry.getNormal(gp);
         double nv = alignZero(n.dotProduct(v));
         Color color = gp.geometry.getEmission();
         if (isZero(nv))
@@ -187,8 +193,12 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return The specular reflection color.
      */
     private Double3 calcSpecular(Material material, Vector normal, Vector lightVector, double nl, Vector vector) {
-        Vector reflectedVector = lightVector.subtract(normal.scale(2 * nl));
-        double cosTeta = alignZero(-vector.dotProduct(reflectedVector));
+        // r = l - 2(n·l)n, component-wise to avoid allocating the reflected vector
+        double nl2 = 2 * nl;
+        double rx = lightVector.getX() - normal.getX() * nl2;
+        double ry = lightVector.getY() - normal.getY() * nl2;
+        double rz = lightVector.getZ() - normal.getZ() * nl2;
+        double cosTeta = alignZero(-(vector.getX() * rx + vector.getY() * ry + vector.getZ() * rz));
         return cosTeta <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(cosTeta, material.Shininess));
     }
 
@@ -205,27 +215,21 @@ public class SimpleRayTracer extends RayTracerBase {
         Vector lDir = l.scale(-1);
         // Create a ray from the intersection point in the direction of the light source
         Ray lightRay = new Ray(gp.point, lDir, n);
-        // Find intersections of the light ray with other geometries in the scene
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
-        // If there are no intersections, return full transparency
-        if (intersections == null)
-            return Double3.ONE;
-        // Initialize the transparency factor to full transparency
-        Double3 ktr = Double3.ONE;
-        // Iterate over all intersection points to calculate the transparency factor
-        for (GeoPoint intersectionPoint : intersections) {
-            // Check if the intersection point is within the light's reach
-            if (alignZero(intersectionPoint.point.distance(gp.point) - ls.getDistance(gp.point)) <= 0) {
-                // Update the transparency factor based on the material's transparency property
-                ktr = ktr.product(intersectionPoint.geometry.getMaterial().kT);
-
-                // If the transparency factor becomes zero, break the loop as no light passes through
-                if (ktr.equals(Double3.ZERO))
-                    break;
-            }
-        }
-        // Return the calculated transparency factor
-        return ktr;
+        RenderStats.count(RayType.SHADOW, 0);
+        // The blockers are the geometries closer to the intersection point (not to the shifted ray head)
+        // than the light source: the distance along the ray where |head + t*l - point| = distance
+        Point head = lightRay.getHead();
+        Vector direction = lightRay.getDirection();
+        double hx = head.getX() - gp.point.getX();
+        double hy = head.getY() - gp.point.getY();
+        double hz = head.getZ() - gp.point.getZ();
+        double hl = hx * direction.getX() + hy * direction.getY() + hz * direction.getZ();
+        double distance = ls.getDistance(gp.point);
+        double discriminant = hl * hl - (hx * hx + hy * hy + hz * hz) + distance * distance;
+        // The light source is closer than the ray head, and the ray never gets within its distance from the point
+        if (discriminant < 0) return Double3.ONE;
+        // Accumulate the transparency of the geometries between the point and the light source
+        return scene.geometries.findTransparency(lightRay, Math.sqrt(discriminant) - hl);
     }
 
 }
@@ -0,0 +1,67 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampler of the two-dimensional Sobol low-discrepancy sequence. The first dimension is the van
+ * der Corput sequence in base 2 and the second one is generated by the Sobol direction numbers of
+ * the polynomial x + 1. Every power-of-two prefix of the sequence is a (0,2)-net: each of the
+ * elementary rectangles of the pixel with the area of 1/n contains exactly one of the n samples.<br/>
+ * The samples of every pixel are scrambled by a random digital shift (a random bit mask XORed into
+ * the coordinates), which keeps the net property and decorrelates neighbouring pixels.
+ */
+public class SobolSampler implements Sampler {
+    /** Number of bits of a coordinate */
+    private static final int BITS = 32;
+    /** Scale of a coordinate from its bits to [0, 1) */
+    private static final double SCALE = 1d / (1L << BITS);
+    /** Direction numbers of the second dimension */
+    private static final int[] DIRECTIONS = new int[BITS];
+
+    static {
+        DIRECTIONS[0] = 1 << (BITS - 1);
+        for (int i = 1; i < BITS; ++i)
+            DIRECTIONS[i] = DIRECTIONS[i - 1] ^ (DIRECTIONS[i - 1] >>> 1);
+    }
+
+    /** Random generator of the scrambling */
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void generate(double[] samples) {
+        int scrambleX = random.nextInt();
+        int scrambleY = random.nextInt();
+        for (int k = 0, count = samples.length / 2; k < count; ++k) {
+            samples[2 * k] = toCoordinate(Integer.reverse(k) ^ scrambleX);
+            samples[2 * k + 1] = toCoordinate(secondDimension(k) ^ scrambleY);
+        }
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Calculates the bits of the second coordinate of a point of the sequence
+     *
+     * @param index the point index
+     * @return the bits of the coordinate
+     */
+    static int secondDimension(int index) {
+        int result = 0;
+        for (int i = 0; index != 0; ++i, index >>>= 1)
+            if ((index & 1) != 0) result ^= DIRECTIONS[i];
+        return result;
+    }
+
+    /**
+     * Converts the bits of a coordinate to a position relative to the pixel center
+     *
+     * @param bits the bits of the coordinate (as an unsigned fraction)
+     * @return the position, in [-0.5, 0.5)
+     */
+    private static double toCoordinate(int bits) {
+        return (bits & 0xFFFFFFFFL) * SCALE - 0.5;
+    }
+}
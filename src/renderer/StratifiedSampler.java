@@ -0,0 +1,34 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampler of jittered stratified samples: the pixel is divided into a grid of equal cells -
+ * exactly one cell per sample, as close to a square grid as the number of samples allows - and
+ * every sample is placed randomly inside its own cell.
+ */
+public class StratifiedSampler implements Sampler {
+    /** Random generator of the jittering */
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void generate(double[] samples) {
+        int count = samples.length / 2;
+        if (count == 0) return;
+        // the largest divisor not bigger than the square root gives the squarest exact grid
+        int rows = (int) Math.sqrt(count);
+        while (count % rows != 0) --rows;
+        int cols = count / rows;
+        for (int k = 0; k < count; ++k) {
+            int row = k / cols;
+            int col = k % cols;
+            samples[2 * k] = (col + random.nextDouble()) / cols - 0.5;
+            samples[2 * k + 1] = (row + random.nextDouble()) / rows - 0.5;
+        }
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+}
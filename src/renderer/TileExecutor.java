@@ -0,0 +1,22 @@
+package renderer;
+
+/**
+ * Executor of the rendering threads of the tiles (see {@link Camera.Builder#setTileExecutor(TileExecutor)}),
+ * used when the camera renders by a number of threads
+ */
+public enum TileExecutor {
+    /**
+     * Platform threads created by the camera - each thread claims tiles until there are no more tiles
+     */
+    THREADS,
+    /**
+     * A new virtual thread per tile - the virtual threads are scheduled on the carrier threads of the JVM,
+     * so the number of the rendering threads only selects the threaded rendering. The state of a rendering
+     * thread (as its black board) is created for every tile, so it suits tiles that aren't too small
+     */
+    VIRTUAL_THREADS,
+    /**
+     * A task per tile in a fork-join pool bounded by the number of the rendering threads
+     */
+    FORK_JOIN_POOL
+}
@@ -0,0 +1,193 @@
+package renderer;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * TileManager is a helper class that schedules the rendering work between the render threads
+ * and follows up the rendering progress.<br/>
+ * The image is divided into square tiles (the tiles at the right and bottom edges may be smaller).
+ * Every thread claims the next unprocessed tile with a single atomic increment - there is no lock
+ * on the way - so fast threads simply take more tiles than slow ones. The progress is counted once
+ * per finished tile instead of once per pixel, by a {@link LongAdder} the threads don't contend on,
+ * and it is reported by a {@link ProgressReporter} of its own thread.
+ */
+class TileManager {
+    /**
+     * Immutable class for object containing an allocated tile - a rectangle of pixels
+     *
+     * @param col0 first column of the tile (included)
+     * @param row0 first row of the tile (included)
+     * @param col1 last column of the tile (excluded)
+     * @param row1 last row of the tile (excluded)
+     */
+    record Tile(int col0, int row0, int col1, int row1) {
+        /**
+         * Amount of pixels in the tile
+         *
+         * @return the amount of pixels
+         */
+        int pixels() {
+            return (col1 - col0) * (row1 - row0);
+        }
+    }
+
+    /** Default tile edge length in pixels */
+    static final int DEFAULT_TILE_SIZE = 16;
+
+    /** Maximum rows of pixels */
+    private final int maxRows;
+    /** Maximum columns of pixels */
+    private final int maxCols;
+    /** Tile edge length in pixels */
+    private final int tileSize;
+    /** Amount of tiles in a row of tiles */
+    private final int tileCols;
+    /** Total amount of tiles */
+    private final int totalTiles;
+    /** Total amount of pixels in the generated image */
+    private final long totalPixels;
+    /** Index of the next tile to be allocated */
+    private final AtomicInteger nextTile = new AtomicInteger(0);
+    /** Amount of pixels in the tiles that have been processed */
+    private final LongAdder pixels = new LongAdder();
+    /** Amount of processed tiles in every row of tiles */
+    private final AtomicIntegerArray rowTilesDone;
+    /** Listener notified with the index of every row of tiles once all its tiles are processed, null if none */
+    private final IntConsumer tileRowListener;
+    /** Indices of the tiles that are already processed and must not be allocated, null if none */
+    private BitSet skipped = null;
+
+    /**
+     * Initialize tile manager data for multi-threading
+     *
+     * @param maxRows  the amount of pixel rows
+     * @param maxCols  the amount of pixel columns
+     * @param tileSize the tile edge length in pixels
+     */
+    TileManager(int maxRows, int maxCols, int tileSize) {
+        this(maxRows, maxCols, tileSize, null);
+    }
+
+    /**
+     * Initialize tile manager data for multi-threading, following up the completion of the rows of tiles
+     *
+     * @param maxRows         the amount of pixel rows
+     * @param maxCols         the amount of pixel columns
+     * @param tileSize        the tile edge length in pixels
+     * @param tileRowListener listener notified (by the thread that finishes it) with the index of every
+     *                        row of tiles once all its tiles are processed, null if none
+     */
+    TileManager(int maxRows, int maxCols, int tileSize, IntConsumer tileRowListener) {
+        if (tileSize < 1) throw new IllegalArgumentException("Tile size must be positive");
+        this.maxRows = maxRows;
+        this.maxCols = maxCols;
+        this.tileSize = tileSize;
+        tileCols = (maxCols + tileSize - 1) / tileSize;
+        int tileRows = (maxRows + tileSize - 1) / tileSize;
+        totalTiles = tileCols * tileRows;
+        rowTilesDone = new AtomicIntegerArray(tileRows);
+        this.tileRowListener = tileRowListener;
+        totalPixels = (long) maxRows * maxCols;
+    }
+
+    /**
+     * Allocates the next unprocessed tile. The function is thread safe and lock free.
+     *
+     * @return the next tile, or null if there are no more tiles
+     */
+    Tile nextTile() {
+        int index;
+        do index = nextTile.getAndIncrement();
+        while (index < totalTiles && isSkipped(index));
+        return index >= totalTiles ? null : getTile(index);
+    }
+
+    /**
+     * Marks tiles that are already processed (e.g. restored from a checkpoint) - they are reported as
+     * done and are not allocated. Must be called before the tiles are allocated.
+     *
+     * @param tiles the indices of the processed tiles
+     */
+    void skip(BitSet tiles) {
+        skipped = (BitSet) tiles.clone();
+        for (int index = skipped.nextSetBit(0); index >= 0 && index < totalTiles; index = skipped.nextSetBit(index + 1))
+            tileDone(getTile(index));
+    }
+
+    /**
+     * Checks whether a tile is skipped (already processed before the rendering)
+     *
+     * @param index the tile index
+     * @return true if the tile is skipped
+     */
+    boolean isSkipped(int index) {
+        return skipped != null && skipped.get(index);
+    }
+
+    /**
+     * Gets the index of a tile (tiles are ordered row by row)
+     *
+     * @param tile the tile
+     * @return the tile index
+     */
+    int getIndex(Tile tile) {
+        return tile.row0() / tileSize * tileCols + tile.col0() / tileSize;
+    }
+
+    /**
+     * Gets the total amount of tiles in the image
+     *
+     * @return the amount of tiles
+     */
+    int getTotalTiles() {
+        return totalTiles;
+    }
+
+    /**
+     * Gets the total amount of pixels in the image
+     *
+     * @return the amount of pixels
+     */
+    long getTotalPixels() {
+        return totalPixels;
+    }
+
+    /**
+     * Gets the amount of pixels in the tiles that have been processed. The function is thread safe.
+     *
+     * @return the amount of pixels
+     */
+    long getDonePixels() {
+        return pixels.sum();
+    }
+
+    /**
+     * Gets a tile by its index (tiles are ordered row by row)
+     *
+     * @param index the tile index, from 0 to the amount of tiles - 1
+     * @return the tile
+     */
+    Tile getTile(int index) {
+        int col0 = index % tileCols * tileSize;
+        int row0 = index / tileCols * tileSize;
+        return new Tile(col0, row0, Math.min(col0 + tileSize, maxCols), Math.min(row0 + tileSize, maxRows));
+    }
+
+    /**
+     * Finish tile processing by updating the progress (and the row of tiles of the tile).
+     * The function is thread safe and lock free.
+     *
+     * @param tile the finished tile
+     */
+    void tileDone(Tile tile) {
+        if (tileRowListener != null) {
+            int tileRow = tile.row0() / tileSize;
+            if (rowTilesDone.incrementAndGet(tileRow) == tileCols) tileRowListener.accept(tileRow);
+        }
+        pixels.add(tile.pixels());
+    }
+}
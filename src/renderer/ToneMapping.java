@@ -0,0 +1,40 @@
+package renderer;
+
+/**
+ * Tone mapping operators - map the linear (unbounded) pixel intensities of a frame buffer to the
+ * printable range [0, 255] before they are quantized to 8 bits.<br/>
+ * The intensities are in color units, where 255 is the full printed intensity (white).
+ */
+public enum ToneMapping {
+    /** No mapping - the intensities above 255 are clipped (the classic image writer behaviour) */
+    CLAMP {
+        @Override
+        public double map(double value) {
+            return value;
+        }
+    },
+    /** Reinhard operator x / (1 + x) - compresses the highlights smoothly instead of clipping them */
+    REINHARD {
+        @Override
+        public double map(double value) {
+            double x = value / 255;
+            return 255 * x / (1 + x);
+        }
+    },
+    /** Filmic curve fitted to the ACES reference rendering transform (Narkowicz approximation) */
+    ACES {
+        @Override
+        public double map(double value) {
+            double x = value / 255;
+            return 255 * x * (2.51 * x + 0.03) / (x * (2.43 * x + 0.59) + 0.14);
+        }
+    };
+
+    /**
+     * Maps a linear intensity to the printable range
+     *
+     * @param value the linear intensity (non-negative)
+     * @return the mapped intensity, values above 255 are clipped by the quantization
+     */
+    public abstract double map(double value);
+}
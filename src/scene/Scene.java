@@ -5,6 +5,10 @@ import lighting.AmbientLight;
 import lighting.LightSource;
 import primitives.Color;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -13,15 +17,19 @@ import static primitives.Color.BLACK;
 /**
  * Represents a scene in the 3D world, containing geometries, lighting, and background color.
  */
-public class Scene {
+public class Scene implements Serializable {
+    /** Serialization version */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The name of the scene
      */
     public String name;
     /**
-     * The list of light sources in the scene.
+     * The list of light sources in the scene (serialized light by light, since the declared type of the list
+     * isn't serializable).
      */
-    public List<LightSource> lights = new LinkedList<>();
+    public transient List<LightSource> lights = new LinkedList<>();
     /**
      * The background color of the scene, default is black
      */
@@ -87,4 +95,32 @@ public class Scene {
         this.geometries = geometries;
         return this;
     }
+
+    /**
+     * Serializes the scene - the light sources are written one by one
+     *
+     * @param out the object output stream
+     * @throws IOException if the stream can't be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(lights.size());
+        for (LightSource light : lights)
+            out.writeObject(light);
+    }
+
+    /**
+     * Deserializes the scene - the light sources are read one by one
+     *
+     * @param in the object input stream
+     * @throws IOException            if the stream can't be read
+     * @throws ClassNotFoundException if a class of the scene isn't found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        lights = new LinkedList<>();
+        for (int i = 0; i < count; ++i)
+            lights.add((LightSource) in.readObject());
+    }
 }
@@ -0,0 +1,90 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.BoundingBox} and the bounding boxes of the geometries
+ */
+class BoundingBoxTest {
+    /**
+     * Box of the unit cube for the tests
+     */
+    private final BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(primitives.Ray)}.
+     */
+    @Test
+    void testIntersects() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0.1, 0.1))),
+                "TC01: Ray crossing the box was rejected");
+        // TC02: Ray passes beside the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 2, 0.5), new Vector(1, 0.1, 0))),
+                "TC02: Ray beside the box was accepted");
+        // TC03: Box is behind the ray head
+        assertFalse(box.intersects(new Ray(new Point(2, 0.5, 0.5), new Vector(1, 0, 0))),
+                "TC03: Ray pointing away from the box was accepted");
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 1, 1))),
+                "TC04: Ray starting inside the box was rejected");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to a face inside the slab
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0, 0))),
+                "TC11: Ray parallel to the faces inside the box was rejected");
+        // TC12: Ray parallel to a face outside the slab
+        assertFalse(box.intersects(new Ray(new Point(-1, 1.5, 0.5), new Vector(1, 0, 0))),
+                "TC12: Ray parallel to the faces outside the box was accepted");
+        // TC13: Ray along an edge of the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 1, 1), new Vector(1, 0, 0))),
+                "TC13: Ray along the box edge was rejected");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere box
+        Sphere sphere = new Sphere(new Point(1, 2, 3), 2);
+        assertTrue(sphere.isBounded(), "TC01: Sphere must be bounded");
+        assertEquals(new Point(-1, 0, 1), sphere.getBoundingBox().getMin(), "TC01: wrong sphere box");
+        assertEquals(new Point(3, 4, 5), sphere.getBoundingBox().getMax(), "TC01: wrong sphere box");
+        assertSame(sphere.getBoundingBox(), sphere.getBoundingBox(), "TC01: Sphere box is not cached");
+
+        // TC02: Triangle box
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(2, 0, 1), new Point(0, 3, 0));
+        assertEquals(new Point(0, 0, 0), triangle.getBoundingBox().getMin(), "TC02: wrong triangle box");
+        assertEquals(new Point(2, 3, 1), triangle.getBoundingBox().getMax(), "TC02: wrong triangle box");
+
+        // TC03: Cylinder box
+        Cylinder cylinder = new Cylinder(4, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1);
+        assertEquals(new Point(-1, -1, 0), cylinder.getBoundingBox().getMin(), "TC03: wrong cylinder box");
+        assertEquals(new Point(1, 1, 4), cylinder.getBoundingBox().getMax(), "TC03: wrong cylinder box");
+
+        // TC04: Infinite geometries are unbounded
+        assertFalse(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).isBounded(),
+                "TC04: Plane must be unbounded");
+        assertFalse(new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1).isBounded(),
+                "TC04: Tube must be unbounded");
+
+        // TC05: Geometries box is the union of its geometries' boxes and follows additions
+        Geometries geometries = new Geometries(sphere);
+        assertEquals(new Point(3, 4, 5), geometries.getBoundingBox().getMax(), "TC05: wrong collection box");
+        geometries.add(new Sphere(new Point(10, 0, 0), 1));
+        assertEquals(new Point(11, 4, 5), geometries.getBoundingBox().getMax(), "TC05: stale collection box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A collection with an infinite geometry is unbounded
+        geometries.add(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        assertFalse(geometries.isBounded(), "TC11: Collection with a plane must be unbounded");
+    }
+}
@@ -1,12 +1,18 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class GeometriesTests {
     /**
@@ -55,4 +61,137 @@ public class GeometriesTests {
                                 new Vector(6.5, 10.5, -3))),
                 "TC14: Empty collection of geometries - found an intersection");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#findGeoIntersectionsHelper(primitives.Ray)}
+     * on a collection large enough to be traversed through the bounding volume hierarchy.
+     */
+    @Test
+    void findIntersectionsHierarchy() {
+        List<Intersectable> shapes = new LinkedList<>();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                shapes.add(new Sphere(new Point(i * 3, j * 3, -10), 1));
+                shapes.add(new Triangle(new Point(i * 3, j * 3, -5), new Point(i * 3 + 2, j * 3, -5),
+                        new Point(i * 3, j * 3 + 2, -5)));
+            }
+        shapes.add(new Plane(new Point(0, 0, -20), new Vector(0, 0, 1)));
+        Geometries geometries = new Geometries(shapes.toArray(new Intersectable[0]));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The hierarchy finds exactly the same points as testing every geometry
+        for (double x = -2; x < 31; x += 0.7)
+            for (double y = -2; y < 31; y += 0.9) {
+                Ray ray = new Ray(new Point(x, y, 10), new Vector(0.05, 0.03, -1));
+                List<Point> expected = new LinkedList<>();
+                for (Intersectable shape : shapes) {
+                    List<Point> points = shape.findIntersections(ray);
+                    if (points != null) expected.addAll(points);
+                }
+                List<Point> result = geometries.findIntersections(ray);
+                assertEquals(expected.size(), result.size(), "TC01: wrong number of intersections");
+                assertTrue(result.containsAll(expected), "TC01: wrong points of intersection");
+            }
+
+        // TC02: Ray that misses all the bounded geometries hits only the plane
+        assertEquals(1, geometries.findIntersections(new Ray(new Point(100, 100, 10),
+                        new Vector(0, 0, -1))).size(),
+                "TC02: Ray out of the hierarchy - wrong points of intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Geometry added to a nested collection after the hierarchy over it was built
+        Geometries nested = new Geometries(new Sphere(new Point(100, 0, -10), 1));
+        Geometries root = new Geometries(nested);
+        for (int i = 0; i < 10; ++i)
+            root.add(new Sphere(new Point(i * 3, 0, -10), 1));
+        Ray ray = new Ray(new Point(200, 0, 10), new Vector(0, 0, -1));
+        assertNull(root.findIntersections(ray), "TC11: Ray out of the hierarchy found a point of intersection");
+        nested.add(new Sphere(new Point(200, 0, -10), 1));
+        assertEquals(2, nested.findIntersections(ray).size(), "TC11: Wrong points of the nested collection");
+        List<Point> result = root.findIntersections(ray);
+        assertEquals(2, result == null ? 0 : result.size(), "TC11: Hierarchy missed the nested geometry");
+
+        // TC12: Geometry added to a nested collection after the box of a small collection was calculated
+        Geometries small = new Geometries(new Geometries(nested), new Sphere(new Point(0, 0, -10), 1));
+        Ray away = new Ray(new Point(300, 0, 10), new Vector(0, 0, -1));
+        assertNull(small.findIntersections(away), "TC12: Ray out of the box found a point of intersection");
+        nested.add(new Sphere(new Point(300, 0, -10), 1));
+        result = small.findIntersections(away);
+        assertEquals(2, result == null ? 0 : result.size(), "TC12: Box missed the nested geometry");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(primitives.Ray, double)}.
+     */
+    @Test
+    void findTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, -10), 1).setMaterial(new Material().setKt(0.5)),
+                new Triangle(new Point(-1, -1, -20), new Point(1, -1, -20), new Point(0, 1, -20))
+                        .setMaterial(new Material().setKt(0.4)),
+                new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Nothing between the head and the distance
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 5),
+                "TC01: Unblocked ray must be fully transparent");
+        // TC02: Both sides of a transparent sphere attenuate the ray
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 15),
+                "TC02: Wrong transparency through the sphere");
+        // TC03: Transparent sphere and triangle
+        assertEquals(new Double3(0.1), geometries.findTransparency(ray, 25),
+                "TC03: Wrong transparency through the sphere and the triangle");
+        // TC04: Opaque plane blocks the ray
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 50),
+                "TC04: Opaque plane must block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Intersection exactly at the distance blocks the ray
+        assertEquals(new Double3(0.1), geometries.findTransparency(ray, 20),
+                "TC11: Intersection at the distance must attenuate the ray");
+        // TC12: Large collection traversed through the hierarchy gives the same result
+        for (int i = 0; i < 20; ++i)
+            geometries.add(new Sphere(new Point(10 + i * 3, 0, -10), 1));
+        assertEquals(new Double3(0.1), geometries.findTransparency(ray, 25),
+                "TC12: Wrong transparency through the hierarchy");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void findClosestGeoIntersection() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, -10), 1),
+                new Triangle(new Point(-1, -1, -5), new Point(1, -1, -5), new Point(0, 1, -5)),
+                new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The triangle is the closest of several geometries
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+        Intersectable.GeoPoint closest = geometries.findClosestGeoIntersection(ray);
+        assertEquals(new Point(0, 0, -5), closest.point, "TC01: Wrong closest point");
+        // TC02: Ray starting inside the sphere hits its far side first
+        assertEquals(new Point(0, 0, -11),
+                geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, -9.5), new Vector(0, 0, -1))).point,
+                "TC02: Wrong closest point from inside the sphere");
+        // TC03: Ray that misses everything
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "TC03: Ray pointing away must have no closest point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Intersections beyond the maximal distance are rejected
+        assertNull(geometries.findClosestGeoIntersection(ray, 4), "TC11: Hit beyond the distance was accepted");
+        // TC12: Large collection traversed through the hierarchy agrees with the full list of intersections
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add(new Sphere(new Point(i * 2 - 9, j * 2 - 9, -15 - i - j), 0.8));
+        for (double x = -10; x < 10; x += 0.37)
+            for (double y = -10; y < 10; y += 0.41) {
+                Ray r = new Ray(new Point(x, y, 0), new Vector(0.02, -0.01, -1));
+                assertEquals(r.findClosestGeoPoint(geometries.findGeoIntersections(r)),
+                        geometries.findClosestGeoIntersection(r), "TC12: Wrong closest point through the hierarchy");
+            }
+    }
+}
@@ -0,0 +1,210 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link geometries.Mesh}
+ */
+class MeshTest {
+    /**
+     * Vertices of the cube [0,1]^3
+     */
+    private final double[] cubeVertices = {
+            0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0,
+            0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1};
+    /**
+     * Faces of the cube - two triangles per face, ordered so that the normals point outward
+     */
+    private final int[] cubeIndices = {
+            0, 2, 1, 0, 3, 2, // z = 0
+            4, 5, 6, 4, 6, 7, // z = 1
+            0, 1, 5, 0, 5, 4, // y = 0
+            3, 7, 6, 3, 6, 2, // y = 1
+            0, 4, 7, 0, 7, 3, // x = 0
+            1, 2, 6, 1, 6, 5}; // x = 1
+    /**
+     * The cube mesh
+     */
+    private final Mesh cube = new Mesh(cubeVertices, cubeIndices);
+
+    /**
+     * Test method for {@link geometries.Mesh#Mesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertEquals(12, cube.getTriangleCount(), "TC01: Wrong amount of triangles");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Incomplete vertex
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0, 1}, new int[]{0, 0, 0}),
+                "TC11: Incomplete vertex must throw");
+        // TC12: Incomplete triangle
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(cubeVertices, new int[]{0, 1}),
+                "TC12: Incomplete triangle must throw");
+        // TC13: No triangles
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(cubeVertices, new int[0]),
+                "TC13: Empty mesh must throw");
+        // TC14: Index out of range
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(cubeVertices, new int[]{0, 1, 8}),
+                "TC14: Index of a missing vertex must throw");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getNormal(primitives.Point)} and
+     * {@link geometries.Mesh#getNormal(geometries.Intersectable.GeoPoint)}.
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Point on a face
+        assertEquals(new Vector(0, 0, 1), cube.getNormal(new Point(0.3, 0.6, 1)), "TC01: Wrong normal of the top face");
+        assertEquals(new Vector(-1, 0, 0), cube.getNormal(new Point(0, 0.2, 0.7)), "TC01: Wrong normal of a side face");
+        // TC02: Normal by the hit triangle
+        assertEquals(new Vector(0, 1, 0), cube.getNormal(new GeoPoint(cube, new Point(0.5, 1, 0.5), 7)),
+                "TC02: Wrong normal of a hit triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Point outside the mesh
+        assertThrows(IllegalArgumentException.class, () -> cube.getNormal(new Point(0.5, 0.5, 0.5)),
+                "TC11: Point inside the cube is not on the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findGeoIntersectionsHelper(primitives.Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crossing the cube
+        List<GeoPoint> result = cube.findGeoIntersections(new Ray(new Point(0.3, 0.4, -1), new Vector(0, 0, 1)));
+        assertNotNull(result, "TC01: Ray crossing the cube must intersect it");
+        assertEquals(2, result.size(), "TC01: Wrong amount of intersections");
+        for (GeoPoint gp : result) {
+            assertSame(cube, gp.geometry, "TC01: Wrong geometry");
+            assertEquals(gp.point.getZ() == 0 ? new Vector(0, 0, -1) : new Vector(0, 0, 1), cube.getNormal(gp),
+                    "TC01: Wrong hit triangle");
+        }
+        // TC02: The barycentric coordinates of the hit locate it on the hit triangle
+        for (GeoPoint gp : result) {
+            int t = 3 * gp.index;
+            Point v0 = vertex(cubeVertices, cubeIndices[t]);
+            Point expected = v0.add(vertex(cubeVertices, cubeIndices[t + 1]).subtract(v0).scale(gp.u))
+                    .add(vertex(cubeVertices, cubeIndices[t + 2]).subtract(v0).scale(gp.v));
+            assertEquals(expected, gp.point, "TC02: Wrong barycentric coordinates");
+        }
+        // TC03: Ray missing the cube
+        assertNull(cube.findGeoIntersections(new Ray(new Point(2, 2, -1), new Vector(0, 0, 1))),
+                "TC03: Ray beside the cube must not intersect it");
+        // TC04: Ray starting inside the cube
+        result = cube.findGeoIntersections(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 0.1, 0.2)));
+        assertEquals(1, result.size(), "TC04: Ray from inside must cross the cube once");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray through the diagonal shared by two triangles hits the face (on one of them at least)
+        result = cube.findGeoIntersections(new Ray(new Point(0.5, 0.5, 2), new Vector(0, 0, -1)));
+        assertNotNull(result, "TC11: Ray through a shared edge must not slip through the mesh");
+        assertEquals(2, result.size(), "TC11: Ray through a shared edge must hit every face once");
+        // TC12: Ray parallel to a face
+        assertNull(cube.findGeoIntersections(new Ray(new Point(-1, 0.5, 2), new Vector(1, 0, 0))),
+                "TC12: Ray above the cube must not intersect it");
+        // TC13: Tiny faces (their edge functions are far below the accuracy of the coordinates)
+        double s = 1e-7;
+        Mesh tiny = new Mesh(new double[]{0, 0, 0, s, 0, 0, s, s, 0, 0, s, 0}, new int[]{0, 1, 2, 0, 2, 3});
+        for (Point head : List.of(new Point(s / 2, s / 2, 1), new Point(s / 4, s / 2, 1), new Point(s * 3 / 4, s / 4, 1))) {
+            result = tiny.findGeoIntersections(new Ray(head, new Vector(0, 0, -1)));
+            assertNotNull(result, "TC13: Ray must not slip through tiny faces at " + head);
+            assertEquals(1, result.size(), "TC13: Ray must hit tiny faces once at " + head);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray)} and
+     * {@link geometries.Intersectable#findTransparency(primitives.Ray, double)} on a large mesh,
+     * compared with the same triangles as separate {@link Triangle} objects.
+     */
+    @Test
+    void testLargeMesh() {
+        // height field of 40x40 cells (3200 triangles)
+        int size = 40;
+        Random random = new Random(7);
+        double[] vertices = new double[(size + 1) * (size + 1) * 3];
+        for (int i = 0; i <= size; ++i)
+            for (int j = 0; j <= size; ++j) {
+                int v = 3 * (i * (size + 1) + j);
+                vertices[v] = j;
+                vertices[v + 1] = i;
+                vertices[v + 2] = random.nextDouble() * 3;
+            }
+        int[] indices = new int[size * size * 6];
+        Geometries triangles = new Geometries();
+        for (int i = 0, k = 0; i < size; ++i)
+            for (int j = 0; j < size; ++j) {
+                int a = i * (size + 1) + j, b = a + 1, c = a + size + 1, d = c + 1;
+                int[] cell = {a, b, d, a, d, c};
+                for (int corner = 0; corner < 6; ++corner) indices[k++] = cell[corner];
+            }
+        for (int t = 0; t < indices.length; t += 3)
+            triangles.add(new Triangle(vertex(vertices, indices[t]), vertex(vertices, indices[t + 1]),
+                    vertex(vertices, indices[t + 2])));
+        Mesh mesh = new Mesh(vertices, indices);
+        mesh.setMaterial(new Material().setKt(0.5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest hits match the separate triangles
+        for (int r = 0; r < 200; ++r) {
+            Ray ray = new Ray(new Point(random.nextDouble() * size, random.nextDouble() * size, 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            GeoPoint expected = triangles.findClosestGeoIntersection(ray);
+            GeoPoint actual = mesh.findClosestGeoIntersection(ray);
+            if (expected == null) continue; // the ray leaves the field
+            assertNotNull(actual, "TC01: Mesh missed a triangle");
+            assertEquals(expected.point.distance(ray.getHead()), actual.point.distance(ray.getHead()), 1e-9,
+                    "TC01: Wrong closest hit");
+            assertEquals(expected.geometry.getNormal(expected.point), mesh.getNormal(actual),
+                    "TC01: Wrong hit triangle");
+        }
+
+        // TC02: Transparency of a translucent mesh - every crossing halves the light
+        Ray ray = new Ray(new Point(10.3, 20.6, 10), new Vector(0, 0, -1));
+        assertEquals(new Double3(0.5), mesh.findTransparency(ray, 100), "TC02: Wrong transparency");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The crossing is beyond the maximal distance
+        assertEquals(Double3.ONE, mesh.findTransparency(ray, 5), "TC11: Crossing beyond the distance counted");
+        // TC12: An opaque mesh blocks the light
+        mesh.setMaterial(new Material());
+        assertEquals(Double3.ZERO, mesh.findTransparency(ray, 100), "TC12: Opaque mesh didn't block the light");
+        // TC13: A ray through an edge or a vertex shared by several triangles crosses the mesh once
+        mesh.setMaterial(new Material().setKt(0.5));
+        for (Point head : List.of(new Point(10.5, 20, 10), new Point(10.5, 20.5, 10), new Point(10, 20, 10),
+                new Point(10, 20.5, 10))) {
+            Ray shared = new Ray(head, new Vector(0, 0, -1));
+            assertEquals(1, mesh.findGeoIntersections(shared).size(), "TC13: Wrong intersections at " + head);
+            assertEquals(new Double3(0.5), mesh.findTransparency(shared, 100), "TC13: Wrong transparency at " + head);
+        }
+    }
+
+    /**
+     * Gets a vertex from the vertices array as a point
+     *
+     * @param vertices the vertices array
+     * @param index    the vertex index
+     * @return the vertex
+     */
+    private static Point vertex(double[] vertices, int index) {
+        return new Point(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+    }
+}
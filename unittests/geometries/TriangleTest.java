@@ -88,4 +88,30 @@ class TriangleTest {
         assertNull(triangle.findIntersections(ray), "ERROR: Wrong number of points intersects the sphere " +
                 "when the point on edge's continuation");
     }
+
+    /**
+     * Test method for the barycentric coordinates of the intersections reported by
+     * {@link geometries.Triangle#findGeoIntersectionsHelper(Ray)} and
+     * {@link geometries.Intersectable#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testBarycentricCoordinates() {
+        Triangle triangle = new Triangle(new Point(0, 0, 1), new Point(4, 0, 1), new Point(0, 2, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The point is the weighted sum of the vertices
+        Ray ray = new Ray(new Point(1, 0.5, 0), new Vector(0, 0, 1));
+        Intersectable.GeoPoint gp = triangle.findGeoIntersections(ray).getFirst();
+        assertEquals(0.25, gp.u, 1e-12, "TC01: Wrong barycentric coordinate of the second vertex");
+        assertEquals(0.25, gp.v, 1e-12, "TC01: Wrong barycentric coordinate of the third vertex");
+        // TC02: The closest hit has the same coordinates
+        gp = triangle.findClosestGeoIntersection(ray);
+        assertEquals(0.25, gp.u, 1e-12, "TC02: Wrong barycentric coordinate of the closest hit");
+        assertEquals(0.25, gp.v, 1e-12, "TC02: Wrong barycentric coordinate of the closest hit");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A hit on another geometry has no barycentric coordinates
+        gp = new Sphere(new Point(0, 0, 5), 1).findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, 1)));
+        assertTrue(Double.isNaN(gp.u) && Double.isNaN(gp.v), "TC11: Sphere hit must not have barycentric coordinates");
+    }
 }
@@ -0,0 +1,79 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.AccumulationBuffer}
+ */
+class AccumulationBufferTest {
+
+    /**
+     * Test method for {@link renderer.AccumulationBuffer#AccumulationBuffer(int, int)}.
+     */
+    @Test
+    void testConstructor() {
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty image
+        assertThrows(IllegalArgumentException.class, () -> new AccumulationBuffer(2, 0), "TC11: Empty image must throw");
+        // TC12: Image whose sums don't fit in an array (the length overflows an int)
+        assertThrows(IllegalArgumentException.class, () -> new AccumulationBuffer(40000, 40000),
+                "TC12: Too large image must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.AccumulationBuffer#getColor(int, int)}.
+     */
+    @Test
+    void testGetColor() {
+        AccumulationBuffer buffer = new AccumulationBuffer(2, 1);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No finished pass
+        assertEquals(Color.BLACK.getColor(), buffer.getColor(0, 0).getColor(), "TC11: Empty buffer must be black");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mean of the passes, without clamping
+        buffer.add(0, 0, new Color(100, 600, 0));
+        buffer.add(1, 0, new Color(5, 5, 5));
+        buffer.endPass();
+        buffer.add(0, 0, new Color(300, 1000, 50));
+        buffer.add(1, 0, new Color(5, 5, 5));
+        buffer.endPass();
+        Color color = buffer.getColor(0, 0);
+        assertEquals(200, color.getRed(), 1e-4, "TC01: Wrong red");
+        assertEquals(800, color.getGreen(), 1e-4, "TC01: Wrong green (HDR values must be kept)");
+        assertEquals(25, color.getBlue(), 1e-4, "TC01: Wrong blue");
+        assertEquals(2, buffer.getPasses(), "TC01: Wrong amount of passes");
+    }
+
+    /**
+     * Test method for {@link renderer.AccumulationBuffer#getError()}.
+     */
+    @Test
+    void testGetError() {
+        AccumulationBuffer buffer = new AccumulationBuffer(1, 1);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single pass can't estimate the error
+        buffer.add(0, 0, new Color(10, 10, 10));
+        buffer.endPass();
+        assertEquals(Double.POSITIVE_INFINITY, buffer.getError(), "TC11: Error of a single pass must be unknown");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Identical samples have no error
+        buffer.add(0, 0, new Color(10, 10, 10));
+        buffer.endPass();
+        assertEquals(0, buffer.getError(), 1e-9, "TC01: Identical samples must have no error");
+
+        // TC02: Alternating samples - the means of the halves differ by the whole amplitude
+        buffer = new AccumulationBuffer(1, 1);
+        for (int pass = 0; pass < 4; ++pass) {
+            buffer.add(0, 0, pass % 2 == 0 ? Color.BLACK : new Color(20, 20, 20));
+            buffer.endPass();
+        }
+        assertEquals(10, buffer.getError(), 1e-6, "TC02: Wrong error estimate");
+    }
+}
@@ -1,12 +1,22 @@
 package renderer;
 
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
-import primitives.Point;
-import primitives.Ray;
-import primitives.Vector;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
 import scene.Scene;
 
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Testing Camera Class.
@@ -92,4 +102,538 @@ class CameraTests {
         assertEquals(new Ray(Point.ZERO, new Vector(2, -2, -10)),
                 camera2.constructRay(3, 3, 0, 0), badRay);
     }
+
+    /**
+     * Image writer that keeps the written pixels in memory instead of writing a file
+     */
+    private static class RecordingImageWriter extends ImageWriter {
+        /** The written pixels (RGB) */
+        final int[][] pixels;
+
+        /**
+         * Constructs a recording writer
+         *
+         * @param nX amount of pixels by width
+         * @param nY amount of pixels by height
+         */
+        RecordingImageWriter(int nX, int nY) {
+            super("recording", nX, nY);
+            pixels = new int[nY][nX];
+        }
+
+        @Override
+        public void writePixel(int xIndex, int yIndex, Color color) {
+            pixels[yIndex][xIndex] = color.getColor().getRGB();
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage(int)} in the multithreading modes.
+     * With a seeded beam sampling the rendered pixels must not depend on the mode.
+     */
+    @Test
+    void testRenderImageMultithreading() {
+        Scene scene = new Scene("multithreading");
+        scene.geometries.add(
+                TestScenes.sphere()
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+                new Triangle(new Point(-100, -60, -150), new Point(100, -60, -150), new Point(0, 80, -200))
+                        .setEmission(new Color(200, 40, 40)).setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(50, 50, 0)));
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setTileSize(7)
+                .setSeed(2024);
+
+        RecordingImageWriter sequential = new RecordingImageWriter(40, 30);
+        builder.setImageWriter(sequential).setMultithreading(0).build().renderImage(9);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Several threads
+        RecordingImageWriter threads = new RecordingImageWriter(40, 30);
+        builder.setImageWriter(threads).setMultithreading(3).build().renderImage(9);
+        assertArrayEquals(sequential.pixels, threads.pixels, "TC01: Threads changed the image");
+
+        // TC02: Parallel stream
+        RecordingImageWriter stream = new RecordingImageWriter(40, 30);
+        builder.setImageWriter(stream).setMultithreading(-1).build().renderImage(9);
+        assertArrayEquals(sequential.pixels, stream.pixels, "TC02: Parallel stream changed the image");
+
+        // TC03: All the available cores, rendering twice with the same camera
+        RecordingImageWriter cores = new RecordingImageWriter(40, 30);
+        Camera camera = builder.setImageWriter(cores).setMultithreading(-2).build();
+        camera.renderImage(9);
+        camera.renderImage(9);
+        assertArrayEquals(sequential.pixels, cores.pixels, "TC03: Using all the cores changed the image");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setSampler(java.util.function.Supplier)}.
+     * Every thread has its own sampler, so a seeded sampled rendering must not depend on the
+     * multithreading mode either.
+     */
+    @Test
+    void testRenderImageSampler() {
+        Scene scene = TestScenes.sphereScene("sampler");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setSeed(7)
+                .setSampler(SobolSampler::new);
+
+        RecordingImageWriter sequential = new RecordingImageWriter(20, 20);
+        builder.setImageWriter(sequential).setMultithreading(0).build().renderImage(8);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Several threads, each with its own sampler
+        RecordingImageWriter threads = new RecordingImageWriter(20, 20);
+        builder.setImageWriter(threads).setMultithreading(3).build().renderImage(8);
+        assertArrayEquals(sequential.pixels, threads.pixels, "TC01: Threads changed the sampled image");
+
+        // TC02: The sphere edge pixels are partially covered - blended between the sphere and the background
+        int blended = 0;
+        for (int[] row : sequential.pixels)
+            for (int pixel : row)
+                if (pixel != sequential.pixels[0][0] && pixel != sequential.pixels[10][10]) ++blended;
+        assertTrue(blended > 0, "TC02: No anti-aliased pixels on the sphere edge");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setSamplePatterns(int)}.
+     */
+    @Test
+    void testRenderImageSamplePatterns() {
+        Scene scene = TestScenes.sphereScene("patterns");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setSeed(7)
+                .setSamplePatterns(4);
+
+        RecordingImageWriter sequential = new RecordingImageWriter(20, 20);
+        builder.setImageWriter(sequential).setMultithreading(0).build().renderImage(9);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The patterns are shared by all the threads
+        RecordingImageWriter threads = new RecordingImageWriter(20, 20);
+        builder.setImageWriter(threads).setMultithreading(3).build().renderImage(9);
+        assertArrayEquals(sequential.pixels, threads.pixels, "TC01: Threads changed the image");
+
+        // TC02: The patterns anti-alias the sphere edge, but keep the inner and the outer pixels intact
+        int blended = 0;
+        for (int[] row : sequential.pixels)
+            for (int pixel : row)
+                if (pixel != sequential.pixels[0][0] && pixel != sequential.pixels[10][10]) ++blended;
+        assertTrue(blended > 0, "TC02: No anti-aliased pixels on the sphere edge");
+        assertEquals(java.awt.Color.BLACK.getRGB(), sequential.pixels[0][0], "TC02: Wrong background pixel");
+        assertEquals(new Color(20, 50, 200).getColor().getRGB(), sequential.pixels[10][10], "TC02: Wrong sphere pixel");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Negative number of patterns
+        assertThrows(IllegalArgumentException.class, () -> builder.setSamplePatterns(-1),
+                "TC11: Negative number of patterns must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage(int)} with adaptive super-sampling.
+     * The corners shared by neighbouring regions are traced once, without changing the image.
+     */
+    @Test
+    void testRenderImageAdaptive() {
+        Scene scene = TestScenes.sphereScene("adaptive");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setIsAdaptive(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The cached corners give the same colors as the uncached subdivision
+        RecordingImageWriter cached = new RecordingImageWriter(20, 20);
+        Camera camera = builder.setImageWriter(cached).setTileSize(7).build().renderImage(8);
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j)
+                assertEquals(camera.adaptiveSuperSampling(camera.getPIJ(20, 20, j, i), 10, 10, 10 / 8d, 10 / 8d)
+                        .getColor().getRGB(), cached.pixels[i][j], "TC01: Wrong adaptive pixel color");
+        assertTrue(camera.getAdaptiveRaysSaved() > 0, "TC01: No corner ray was saved");
+
+        // TC02: Several threads share nothing but the counters
+        RecordingImageWriter threads = new RecordingImageWriter(20, 20);
+        Camera threadsCamera = builder.setImageWriter(threads).setMultithreading(3).build().renderImage(8);
+        assertArrayEquals(cached.pixels, threads.pixels, "TC02: Threads changed the adaptive image");
+        assertEquals(camera.getAdaptiveRaysTraced(), threadsCamera.getAdaptiveRaysTraced(),
+                "TC02: Wrong amount of traced rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A uniform image in a single tile - every pixel corner is traced exactly once
+        camera = builder.setRayTracer(new SimpleRayTracer(new Scene("empty"))).setMultithreading(0)
+                .setTileSize(32).build().renderImage(8);
+        assertEquals(21 * 21, camera.getAdaptiveRaysTraced(), "TC11: Wrong amount of traced rays");
+        assertEquals(4 * 20 * 20 - 21 * 21, camera.getAdaptiveRaysSaved(), "TC11: Wrong amount of saved rays");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setProgressiveSampling(int, double)}.
+     */
+    @Test
+    void testRenderImageProgressive() {
+        Scene scene = TestScenes.sphereScene("progressive");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setSeed(7)
+                .setProgressiveSampling(4, 2);
+
+        RecordingImageWriter sequential = new RecordingImageWriter(20, 20);
+        Camera camera = builder.setImageWriter(sequential).setMultithreading(0).build().renderImage(32);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The inner and the outer pixels cost a single batch, the edge pixels take more
+        long samples = camera.getProgressiveSamples();
+        assertTrue(samples > 4 * 20 * 20 && samples < 32 * 20 * 20, "TC01: Wrong amount of samples");
+        assertEquals(java.awt.Color.BLACK.getRGB(), sequential.pixels[0][0], "TC01: Wrong background pixel");
+        assertEquals(new Color(20, 50, 200).getColor().getRGB(), sequential.pixels[10][10], "TC01: Wrong sphere pixel");
+
+        // TC02: A seeded progressive sampling doesn't depend on the threads
+        RecordingImageWriter threads = new RecordingImageWriter(20, 20);
+        camera = builder.setImageWriter(threads).setMultithreading(3).build().renderImage(32);
+        assertArrayEquals(sequential.pixels, threads.pixels, "TC02: Threads changed the image");
+        assertEquals(samples, camera.getProgressiveSamples(), "TC02: Threads changed the amount of samples");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero threshold takes the whole budget everywhere
+        camera = builder.setProgressiveSampling(4, 0).build().renderImage(32);
+        assertEquals(32 * 20 * 20, camera.getProgressiveSamples(), "TC11: Wrong amount of samples");
+        // TC12: Illegal parameters
+        assertThrows(IllegalArgumentException.class, () -> builder.setProgressiveSampling(1, 2),
+                "TC12: A single sample batch must throw");
+        assertThrows(IllegalArgumentException.class, () -> builder.setProgressiveSampling(4, -1),
+                "TC12: Negative threshold must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderProgressive(int)}.
+     */
+    @Test
+    void testRenderProgressive() {
+        Scene scene = TestScenes.sphereScene("progressive rendering");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setSeed(7);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the passes are done and every pass is reported
+        int[] reported = {0};
+        RecordingImageWriter sequential = new RecordingImageWriter(20, 20);
+        Camera camera = builder.setImageWriter(sequential)
+                .setPassListener(buffer -> assertEquals(++reported[0], buffer.getPasses(), "TC01: Wrong pass"))
+                .build().renderProgressive(16);
+        assertEquals(16, reported[0], "TC01: Wrong amount of reported passes");
+        assertEquals(java.awt.Color.BLACK.getRGB(), sequential.pixels[0][0], "TC01: Wrong background pixel");
+        assertEquals(new Color(20, 50, 200).getColor().getRGB(), sequential.pixels[10][10], "TC01: Wrong sphere pixel");
+
+        // TC02: A seeded progressive rendering doesn't depend on the threads
+        RecordingImageWriter threads = new RecordingImageWriter(20, 20);
+        builder.setImageWriter(threads).setPassListener(null).setMultithreading(3).build().renderProgressive(16);
+        assertArrayEquals(sequential.pixels, threads.pixels, "TC02: Threads changed the image");
+
+        // TC03: The rendering stops once the error budget is reached
+        camera = builder.setRenderBudget(0, 10).build().renderProgressive(1000);
+        int passes = camera.getAccumulationBuffer().getPasses();
+        assertTrue(passes < 1000, "TC03: Error budget didn't stop the rendering");
+        assertTrue(camera.getAccumulationBuffer().getError() <= 10, "TC03: Rendering stopped too early");
+
+        // TC04: The rendering stops once the time budget is exceeded
+        camera = builder.setRenderBudget(1, 0).build().renderProgressive(Integer.MAX_VALUE);
+        assertTrue(camera.getAccumulationBuffer().getPasses() < Integer.MAX_VALUE, "TC04: Time budget didn't stop");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A flat image reaches any error budget after two passes
+        camera = builder.setRayTracer(new SimpleRayTracer(new Scene("empty"))).setRenderBudget(0, 1e-9).build()
+                .renderProgressive(1000);
+        assertEquals(2, camera.getAccumulationBuffer().getPasses(), "TC11: Flat image must stop after two passes");
+        // TC12: Illegal parameters
+        assertThrows(IllegalArgumentException.class, () -> builder.build().renderProgressive(0),
+                "TC12: Zero passes must throw");
+        assertThrows(IllegalArgumentException.class, () -> builder.setRenderBudget(-1, 0),
+                "TC12: Negative time budget must throw");
+        assertThrows(IllegalArgumentException.class, () -> builder.setSnapshotInterval(-1),
+                "TC12: Negative snapshot interval must throw");
+    }
+
+    /**
+     * Ray tracer that counts the traced rays, and fails after a limit of rays (like a killed rendering)
+     */
+    private static class CountingRayTracer extends SimpleRayTracer {
+        /** Serialization version */
+        private static final long serialVersionUID = 1L;
+        /** Amount of rays to trace before failing */
+        private final int limit;
+        /** Amount of traced rays */
+        final AtomicInteger traced = new AtomicInteger(0);
+
+        /**
+         * Constructs a counting ray tracer
+         *
+         * @param scene the scene
+         * @param limit amount of rays to trace before failing
+         */
+        CountingRayTracer(Scene scene, int limit) {
+            super(scene);
+            this.limit = limit;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            if (traced.incrementAndGet() > limit) throw new IllegalStateException("Killed");
+            return super.traceRay(ray);
+        }
+    }
+
+    /**
+     * Gets the pixels of the frame buffer of an image writer
+     *
+     * @param imageWriter the image writer
+     * @return the pixels (RGB, clamped)
+     */
+    private static int[] pixels(ImageWriter imageWriter) {
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        return imageWriter.getFrameBuffer().toImage(ToneMapping.CLAMP).getRGB(0, 0, nX, nY, null, 0, nX);
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setCheckpoint(java.nio.file.Path, long)}.
+     * A killed rendering is resumed from its checkpoint as if it had never stopped.
+     *
+     * @param folder temporary directory of the checkpoint files
+     */
+    @Test
+    void testRenderCheckpoint(@TempDir Path folder) {
+        Scene scene = TestScenes.sphereScene("checkpoint");
+        Path file = folder.resolve("checkpoint.bin");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setTileSize(7)
+                .setSeed(11)
+                .setSamplePatterns(16);
+        CountingRayTracer full = new CountingRayTracer(scene, Integer.MAX_VALUE);
+        ImageWriter expected = new ImageWriter("checkpoint", 30, 20);
+        builder.setRayTracer(full).setImageWriter(expected).build().renderImage(4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A killed rendering renders only the unfinished tiles when resumed
+        builder.setCheckpoint(file, 0);
+        Camera killed = builder.setRayTracer(new CountingRayTracer(scene, full.traced.get() / 2))
+                .setImageWriter(new ImageWriter("checkpoint", 30, 20)).build();
+        assertThrows(IllegalStateException.class, () -> killed.renderImage(4), "TC01: Rendering wasn't killed");
+        CountingRayTracer resumed = new CountingRayTracer(scene, Integer.MAX_VALUE);
+        ImageWriter resumedWriter = new ImageWriter("checkpoint", 30, 20);
+        builder.setRayTracer(resumed).setImageWriter(resumedWriter).setMultithreading(3).build().renderImage(4);
+        assertArrayEquals(pixels(expected), pixels(resumedWriter), "TC01: Resumed image differs");
+        assertTrue(resumed.traced.get() < full.traced.get() * 0.6, "TC01: Finished tiles were rendered again");
+
+        // TC02: A killed progressive rendering continues by the next pass
+        builder.setMultithreading(0).setSamplePatterns(0);
+        ImageWriter passes = new ImageWriter("checkpoint", 30, 20);
+        builder.setRayTracer(new SimpleRayTracer(scene)).setImageWriter(passes).setCheckpoint(null, 0).build()
+                .renderProgressive(12);
+        builder.setCheckpoint(file, 0).setPassListener(buffer -> {
+            if (buffer.getPasses() == 5) throw new IllegalStateException("Killed");
+        });
+        assertThrows(IllegalStateException.class, () -> builder.build().renderProgressive(12),
+                "TC02: Rendering wasn't killed");
+        int[] first = {0};
+        ImageWriter resumedPasses = new ImageWriter("checkpoint", 30, 20);
+        builder.setImageWriter(resumedPasses).setPassListener(buffer -> {
+            if (first[0] == 0) first[0] = buffer.getPasses();
+        }).build().renderProgressive(12);
+        assertEquals(6, first[0], "TC02: Finished passes were rendered again");
+        assertArrayEquals(pixels(passes), pixels(resumedPasses), "TC02: Resumed image differs");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A finished rendering isn't rendered again
+        builder.setPassListener(null).setSamplePatterns(16).setRayTracer(resumed).setImageWriter(resumedWriter);
+        builder.build().renderImage(4);
+        resumed.traced.set(0);
+        builder.build().renderImage(4);
+        assertEquals(0, resumed.traced.get(), "TC11: Finished rendering was rendered again");
+        assertArrayEquals(pixels(expected), pixels(resumedWriter), "TC11: Restored image differs");
+        // TC12: A checkpoint of other settings is ignored
+        builder.build().renderImage(9);
+        assertTrue(resumed.traced.get() >= 30 * 20 * 9, "TC12: Checkpoint of other settings was restored");
+        // TC13: Negative interval
+        assertThrows(IllegalArgumentException.class, () -> builder.setCheckpoint(file, -1),
+                "TC13: Negative checkpoint interval must throw");
+        // TC14: A checkpoint of the same scene built again is restored
+        Scene rebuilt = TestScenes.sphereScene("checkpoint");
+        CountingRayTracer same = new CountingRayTracer(rebuilt, Integer.MAX_VALUE);
+        builder.setRayTracer(same).build().renderImage(9);
+        assertEquals(0, same.traced.get(), "TC14: Checkpoint of the same scene wasn't restored");
+        // TC15: A checkpoint of a changed scene of the same name is ignored
+        Scene changed = new Scene("checkpoint");
+        changed.geometries.add(new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(20, 50, 200)));
+        CountingRayTracer moved = new CountingRayTracer(changed, Integer.MAX_VALUE);
+        builder.setRayTracer(moved).build().renderImage(9);
+        assertTrue(moved.traced.get() >= 30 * 20 * 9, "TC15: Checkpoint of a changed scene was restored");
+        // TC16: A checkpoint of another time limit is ignored (its tiles may be rendered by fewer rays)
+        CountingRayTracer limited = new CountingRayTracer(changed, Integer.MAX_VALUE);
+        builder.setRayTracer(limited).setDeadline(60_000).build().renderImage(9);
+        assertTrue(limited.traced.get() >= 30 * 20 * 9, "TC16: Checkpoint without a deadline was restored");
+        CountingRayTracer unlimited = new CountingRayTracer(changed, Integer.MAX_VALUE);
+        builder.setRayTracer(unlimited).setDeadline(0).build().renderImage(9);
+        assertTrue(unlimited.traced.get() >= 30 * 20 * 9, "TC16: Checkpoint with a deadline was restored");
+    }
+
+    /**
+     * Ray tracer of the cancellation tests - takes a given time for every ray, and runs an action once a
+     * given amount of rays is traced. The tracer is thread safe.
+     */
+    private static class TimedRayTracer extends SimpleRayTracer {
+        /** Serialization version */
+        private static final long serialVersionUID = 1L;
+        /** Time of tracing a ray in nanoseconds */
+        private final long rayTime;
+        /** Amount of rays to trace before the action */
+        private final int limit;
+        /** The action (it isn't serialized) */
+        private final transient Runnable action;
+        /** Amount of traced rays */
+        final AtomicInteger traced = new AtomicInteger(0);
+
+        /**
+         * Constructs a timed ray tracer
+         *
+         * @param scene   the scene
+         * @param rayTime time of tracing a ray in nanoseconds
+         * @param limit   amount of rays to trace before the action
+         * @param action  the action
+         */
+        TimedRayTracer(Scene scene, long rayTime, int limit, Runnable action) {
+            super(scene);
+            this.rayTime = rayTime;
+            this.limit = limit;
+            this.action = action;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            if (traced.incrementAndGet() == limit) action.run();
+            for (long start = System.nanoTime(); System.nanoTime() - start < rayTime; ) Thread.onSpinWait();
+            return super.traceRay(ray);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage(int, renderer.CancellationToken)}.
+     * A cancelled rendering stops between the tiles, and can be resumed from its checkpoint.
+     *
+     * @param folder temporary directory of the checkpoint files
+     */
+    @Test
+    void testRenderCancellation(@TempDir Path folder) {
+        Scene scene = TestScenes.sphereScene("cancel");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setTileSize(5)
+                .setImageWriter(new ImageWriter("cancel", 30, 20));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A cancelled token stops the rendering after the current tiles
+        CancellationToken token = new CancellationToken();
+        TimedRayTracer cancelling = new TimedRayTracer(scene, 0, 90, token::cancel);
+        Camera camera = builder.setRayTracer(cancelling).setCheckpoint(folder.resolve("cancel.bin"), 0).build();
+        assertThrows(CancellationException.class, () -> camera.renderImage(1, token), "TC01: Rendering wasn't cancelled");
+        assertEquals(100, cancelling.traced.get(), "TC01: Rendering didn't stop after the current tile");
+        // the finished tiles are resumed from the checkpoint
+        TimedRayTracer resumed = new TimedRayTracer(scene, 0, 0, null);
+        builder.setRayTracer(resumed).build().renderImage(1);
+        assertEquals(30 * 20 - 100, resumed.traced.get(), "TC01: Cancelled rendering wasn't resumed");
+
+        // TC02: Interrupting the rendering thread cancels the rendering of several threads
+        Thread main = Thread.currentThread();
+        TimedRayTracer interrupting = new TimedRayTracer(scene, 0, 100, main::interrupt);
+        Camera threads = builder.setRayTracer(interrupting).setCheckpoint(null, 0).setMultithreading(2).build();
+        assertThrows(CancellationException.class, () -> threads.renderImage(1), "TC02: Rendering wasn't cancelled");
+        assertTrue(Thread.interrupted(), "TC02: Interruption status must be kept");
+        assertTrue(interrupting.traced.get() < 30 * 20, "TC02: Rendering didn't stop");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A token that isn't cancelled doesn't stop the rendering
+        TimedRayTracer complete = new TimedRayTracer(scene, 0, 0, null);
+        builder.setRayTracer(complete).setMultithreading(0).build().renderImage(1, new CancellationToken());
+        assertEquals(30 * 20, complete.traced.get(), "TC11: Rendering was cancelled");
+        assertFalse(Thread.currentThread().isInterrupted(), "TC11: Thread must not be interrupted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setDeadline(long)}.
+     */
+    @Test
+    void testRenderDeadline() {
+        Scene scene = TestScenes.sphereScene("deadline");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setTileSize(4)
+                .setSamplePatterns(8)
+                .setImageWriter(new ImageWriter("deadline", 32, 32));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A rendering that can't be done on time is done by fewer rays (1024 pixels of 16 rays of 50us
+        // take over 800ms)
+        TimedRayTracer slow = new TimedRayTracer(scene, 50_000, 0, null);
+        Camera camera = builder.setRayTracer(slow).setDeadline(200).build().renderImage(16);
+        assertTrue(camera.getReducedTiles() > 0, "TC01: No tile was rendered by fewer rays");
+        assertTrue(slow.traced.get() >= 32 * 32, "TC01: Every pixel must be traced");
+        assertTrue(slow.traced.get() < 32 * 32 * 16, "TC01: Rays weren't reduced");
+
+        // TC02: A rendering that is done on time is done by all the rays (and the probe tile by a single ray
+        // before them)
+        TimedRayTracer fast = new TimedRayTracer(scene, 0, 0, null);
+        camera = builder.setRayTracer(fast).setDeadline(60_000).build().renderImage(16);
+        assertEquals(0, camera.getReducedTiles(), "TC02: Tiles were rendered by fewer rays");
+        assertEquals(32 * 32 * 16 + 4 * 4, fast.traced.get(), "TC02: Wrong amount of rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Negative deadline
+        assertThrows(IllegalArgumentException.class, () -> builder.setDeadline(-1), "TC11: Negative deadline must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setTileExecutor(renderer.TileExecutor)}.
+     */
+    @Test
+    void testTileExecutor() {
+        Scene scene = TestScenes.sphereScene("executor");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setTileSize(5)
+                .setSeed(3)
+                .setSamplePatterns(4)
+                .setMultithreading(3);
+        RecordingImageWriter expected = new RecordingImageWriter(30, 20);
+        builder.setRayTracer(new SimpleRayTracer(scene)).setImageWriter(expected).build().renderImage(4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every executor renders the same image
+        for (TileExecutor executor : TileExecutor.values()) {
+            RecordingImageWriter writer = new RecordingImageWriter(30, 20);
+            TimedRayTracer tracer = new TimedRayTracer(scene, 0, 0, null);
+            builder.setTileExecutor(executor).setRayTracer(tracer).setImageWriter(writer).build().renderImage(4);
+            assertArrayEquals(expected.pixels, writer.pixels, "TC01: " + executor + " changed the image");
+            assertEquals(30 * 20 * 4, tracer.traced.get(), "TC01: " + executor + " traced wrong amount of rays");
+        }
+
+        // TC02: A cancelled token stops the tasks
+        for (TileExecutor executor : TileExecutor.values()) {
+            CancellationToken token = new CancellationToken();
+            TimedRayTracer cancelling = new TimedRayTracer(scene, 0, 100, token::cancel);
+            Camera camera = builder.setTileExecutor(executor).setRayTracer(cancelling).build();
+            assertThrows(CancellationException.class, () -> camera.renderImage(1, token),
+                    "TC02: " + executor + " rendering wasn't cancelled");
+            assertTrue(cancelling.traced.get() < 30 * 20, "TC02: " + executor + " rendering didn't stop");
+        }
+
+        // TC03: A failure of a tile is thrown by the rendering
+        TimedRayTracer failing = new TimedRayTracer(scene, 0, 100, () -> {
+            throw new IllegalStateException("failure");
+        });
+        Camera camera = builder.setTileExecutor(TileExecutor.VIRTUAL_THREADS).setRayTracer(failing).build();
+        assertThrows(IllegalStateException.class, () -> camera.renderImage(1), "TC03: Failure wasn't thrown");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Missing executor
+        assertThrows(IllegalArgumentException.class, () -> builder.setTileExecutor(null),
+                "TC11: Null executor must throw");
+    }
 }
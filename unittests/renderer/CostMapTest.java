@@ -0,0 +1,85 @@
+package renderer;
+
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.CostMap}
+ */
+class CostMapTest {
+    /**
+     * Camera builder of the tests - a reflecting sphere, seeded so every rendering traces the same rays
+     */
+    private final Camera.Builder builder;
+
+    /**
+     * Constructs the test scene and camera
+     */
+    CostMapTest() {
+        Scene scene = new Scene("cost");
+        scene.geometries.add(TestScenes.sphere()
+                .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30).setKr(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(50, 50, 0)));
+        builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setTileSize(8)
+                .setSeed(5)
+                .setSamplePatterns(8)
+                .setImageWriter(new ImageWriter("cost", 30, 20));
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#getCostMap()}.
+     */
+    @Test
+    void testCostMap() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The rays of every pixel add up to the rays of the rendering
+        Camera camera = builder.setStatistics(true).setCostMap(CostMap.Metric.RAYS).setMultithreading(3).build()
+                .renderImage(4);
+        CostMap rays = camera.getCostMap();
+        assertEquals(CostMap.Metric.RAYS, rays.getMetric(), "TC01: Wrong metric");
+        assertEquals(camera.getRenderStats().getTotalRays(), rays.getTotal(), "TC01: Wrong total amount of rays");
+        // a background pixel traces its primary rays only, a pixel of the sphere traces shadow rays too
+        assertEquals(4, rays.get(0, 0), "TC01: Wrong amount of rays of a background pixel");
+        assertTrue(rays.get(15, 10) > 4, "TC01: Wrong amount of rays of a sphere pixel");
+        rays.writeToImage("cost-rays");
+
+        // TC02: The time of every pixel is measured
+        CostMap time = builder.setStatistics(false).setCostMap(CostMap.Metric.TIME).build().renderImage(4)
+                .getCostMap();
+        assertEquals(30, time.getNx(), "TC02: Wrong map width");
+        assertEquals(20, time.getNy(), "TC02: Wrong map height");
+        for (int row = 0; row < 20; ++row)
+            for (int column = 0; column < 30; ++column)
+                assertTrue(time.get(column, row) > 0, "TC02: Every pixel must be timed");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No cost map by default
+        assertNull(builder.setCostMap(null).build().renderImage(1).getCostMap(), "TC11: There must be no cost map");
+    }
+
+    /**
+     * Test method for {@link renderer.CostMap#ramp(double)}.
+     */
+    @Test
+    void testRamp() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A cost between the ramp colours is blended from both
+        assertEquals(new Color(0, 0, 127.5).toString(), CostMap.ramp(1 / 12d).toString(),
+                "TC01: Wrong blended colour");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No cost is black
+        assertEquals(Color.BLACK.toString(), CostMap.ramp(0).toString(), "TC11: No cost must be black");
+        // TC12: The top cost is white
+        assertEquals(new Color(255, 255, 255).toString(), CostMap.ramp(1).toString(), "TC12: Top cost must be white");
+        // TC13: Costs out of the range are clamped
+        assertEquals(Color.BLACK.toString(), CostMap.ramp(-1).toString(), "TC13: Negative cost must be black");
+        assertEquals(new Color(255, 255, 255).toString(), CostMap.ramp(3).toString(), "TC13: High cost must be white");
+    }
+}
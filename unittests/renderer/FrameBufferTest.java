@@ -0,0 +1,72 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.FrameBuffer}
+ */
+class FrameBufferTest {
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#get(int, int)}.
+     */
+    @Test
+    void testGet() {
+        FrameBuffer frameBuffer = new FrameBuffer(3, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: High dynamic range colors are kept
+        frameBuffer.set(2, 1, new Color(1000, 0.25, 40));
+        Color color = frameBuffer.get(2, 1);
+        assertEquals(1000, color.getRed(), "TC01: Bright component was clamped");
+        assertEquals(0.25, color.getGreen(), "TC01: Dim component was quantized");
+        assertEquals(40, color.getBlue(), "TC01: Wrong component");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Unwritten pixel is black
+        assertEquals(0, frameBuffer.get(0, 0).getRed(), "TC11: Unwritten pixel must be black");
+        // TC12: Empty image
+        assertThrows(IllegalArgumentException.class, () -> new FrameBuffer(0, 2), "TC12: Empty image must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#toImage(renderer.ToneMapping)}.
+     */
+    @Test
+    void testToImage() {
+        FrameBuffer frameBuffer = new FrameBuffer(2, 1);
+        Color dim = new Color(10.7, 200.2, 254.9);
+        Color bright = new Color(255, 510, 2550);
+        frameBuffer.set(0, 0, dim);
+        frameBuffer.set(1, 0, bright);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Clamping quantizes like java.awt conversion of the colors
+        BufferedImage image = frameBuffer.toImage(ToneMapping.CLAMP);
+        assertEquals(dim.getColor().getRGB(), image.getRGB(0, 0), "TC01: Wrong dim pixel");
+        assertEquals(bright.getColor().getRGB(), image.getRGB(1, 0), "TC01: Wrong bright pixel");
+
+        // TC02: Reinhard compresses the highlights without clipping them
+        java.awt.Color mapped = new java.awt.Color(frameBuffer.toImage(ToneMapping.REINHARD).getRGB(1, 0));
+        assertEquals(127, mapped.getRed(), "TC02: Wrong white mapping");
+        assertTrue(mapped.getRed() < mapped.getGreen() && mapped.getGreen() < mapped.getBlue()
+                && mapped.getBlue() < 255, "TC02: Highlights must stay distinguishable");
+
+        // TC03: The filmic curve keeps the order of the intensities
+        mapped = new java.awt.Color(frameBuffer.toImage(ToneMapping.ACES).getRGB(1, 0));
+        assertTrue(mapped.getRed() < mapped.getGreen() && mapped.getGreen() <= mapped.getBlue(),
+                "TC03: Filmic mapping must be monotonic");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Intensities just below an integer aren't rounded up to it by the float pixels
+        Color edge = new Color(127.99999999, 254.999999999, 0.999999999);
+        frameBuffer.set(0, 0, edge);
+        assertEquals(edge.getColor().getRGB(), frameBuffer.toImage(ToneMapping.CLAMP).getRGB(0, 0),
+                "TC11: Wrong pixel below an integer");
+    }
+}
@@ -0,0 +1,87 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.MappedFrameBuffer}
+ */
+class MappedFrameBufferTest {
+    /**
+     * Temporary directory of the mapped files
+     */
+    @TempDir
+    Path folder;
+
+    /**
+     * Test method for {@link renderer.MappedFrameBuffer#get(int, int)}.
+     */
+    @Test
+    void testGet() throws IOException {
+        Path file = folder.resolve("pixels.bin");
+        // a row per chunk
+        MappedFrameBuffer frameBuffer = new MappedFrameBuffer(3, 5, file, 36);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: High dynamic range colors are kept
+        frameBuffer.set(2, 3, new Color(1000, 0.25, 40));
+        Color color = frameBuffer.get(2, 3);
+        assertEquals(1000, color.getRed(), "TC01: Bright component was clamped");
+        assertEquals(0.25, color.getGreen(), "TC01: Dim component was quantized");
+        assertEquals(40, color.getBlue(), "TC01: Wrong component");
+        assertEquals(3L * 5 * 12, Files.size(file), "TC01: Wrong file size");
+
+        // TC02: The pixels are kept in the file
+        frameBuffer.force();
+        Color reopened = new MappedFrameBuffer(3, 5, file).get(2, 3);
+        assertEquals(1000, reopened.getRed(), "TC02: Pixel was lost when the file was reopened");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Unwritten pixels are black, also on the last chunk
+        assertEquals(0, frameBuffer.get(0, 4).getRed(), "TC11: Unwritten pixel must be black");
+        // TC12: Pixels of neighbouring chunks don't overlap
+        frameBuffer.set(2, 2, new Color(7, 8, 9));
+        frameBuffer.set(0, 3, new Color(1, 2, 3));
+        assertEquals(9, frameBuffer.get(2, 2).getBlue(), "TC12: Last pixel of a chunk was overwritten");
+        assertEquals(1, frameBuffer.get(0, 3).getRed(), "TC12: First pixel of a chunk was overwritten");
+    }
+
+    /**
+     * Test method for {@link renderer.MappedFrameBuffer#quantizeRow(int, renderer.ToneMapping, int[], int)}.
+     */
+    @Test
+    void testQuantizeRow() throws IOException {
+        int nX = 37, nY = 29;
+        FrameBuffer heap = new FrameBuffer(nX, nY);
+        // chunks of 3 rows, the last one is shorter
+        MappedFrameBuffer mapped = new MappedFrameBuffer(nX, nY, folder.resolve("pixels.bin"), 12L * nX * 3 + 5);
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j) {
+                Color color = new Color(j * 13 % 300, i * 7 % 260, (i + j) * 31 % 1000);
+                heap.set(j, i, color);
+                mapped.set(j, i, color);
+            }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The image matches the image of a heap frame buffer
+        for (ToneMapping toneMapping : ToneMapping.values())
+            assertArrayEquals(heap.toImage(toneMapping).getRGB(0, 0, nX, nY, null, 0, nX),
+                    mapped.toImage(toneMapping).getRGB(0, 0, nX, nY, null, 0, nX),
+                    "TC01: Wrong image with " + toneMapping);
+
+        // TC02: The encoder streams the rows from the mapped file
+        Path png = folder.resolve("mapped.png");
+        PngEncoder.encode(mapped, ToneMapping.CLAMP, png, 4);
+        assertArrayEquals(heap.toImage(ToneMapping.CLAMP).getRGB(0, 0, nX, nY, null, 0, nX),
+                ImageIO.read(png.toFile()).getRGB(0, 0, nX, nY, null, 0, nX),
+                "TC02: Wrong encoded image");
+    }
+}
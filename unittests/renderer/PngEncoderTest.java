@@ -0,0 +1,131 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Color;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.zip.Adler32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.PngEncoder}
+ */
+class PngEncoderTest {
+    /**
+     * Directory for the encoded images
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a frame buffer with a gradient, some noise and a few highlights
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @return the frame buffer
+     */
+    private static FrameBuffer createFrameBuffer(int nX, int nY) {
+        FrameBuffer frameBuffer = new FrameBuffer(nX, nY);
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j)
+                frameBuffer.set(j, i, new Color(j * 7 % 256, i * 300d / nY, (i * 31 + j * 17) % 97 * 5));
+        return frameBuffer;
+    }
+
+    /**
+     * Asserts that an encoded image file has the pixels of a frame buffer
+     *
+     * @param frameBuffer the frame buffer
+     * @param file        the image file
+     * @param message     the failure message
+     * @throws IOException if the file can't be read
+     */
+    private static void assertImage(FrameBuffer frameBuffer, Path file, String message) throws IOException {
+        BufferedImage expected = frameBuffer.toImage(ToneMapping.CLAMP);
+        BufferedImage actual = ImageIO.read(file.toFile());
+        assertEquals(frameBuffer.getNx(), actual.getWidth(), message + " - wrong width");
+        assertEquals(frameBuffer.getNy(), actual.getHeight(), message + " - wrong height");
+        for (int i = 0; i < frameBuffer.getNy(); ++i)
+            for (int j = 0; j < frameBuffer.getNx(); ++j)
+                assertEquals(expected.getRGB(j, i), actual.getRGB(j, i), message + " - wrong pixel");
+    }
+
+    /**
+     * Test method for {@link renderer.PngEncoder#encode(FrameBuffer, ToneMapping, Path, int)}.
+     */
+    @Test
+    void testEncode() throws IOException {
+        FrameBuffer frameBuffer = createFrameBuffer(37, 23);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Several bands (the last one partial)
+        Path file = directory.resolve("bands.png");
+        PngEncoder.encode(frameBuffer, ToneMapping.CLAMP, file, 5);
+        assertImage(frameBuffer, file, "TC01");
+
+        // TC02: Bands submitted out of order while others are not submitted at all
+        file = directory.resolve("streamed.png");
+        PngEncoder encoder = new PngEncoder(frameBuffer, ToneMapping.CLAMP, file, 4);
+        encoder.bandReady(3);
+        encoder.bandReady(0);
+        encoder.bandReady(3);
+        encoder.finish();
+        assertImage(frameBuffer, file, "TC02");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A single band
+        file = directory.resolve("single.png");
+        PngEncoder.encode(frameBuffer, ToneMapping.CLAMP, file, 100);
+        assertImage(frameBuffer, file, "TC11");
+        // TC12: A single pixel
+        file = directory.resolve("pixel.png");
+        PngEncoder.encode(createFrameBuffer(1, 1), ToneMapping.CLAMP, file, 1);
+        assertImage(createFrameBuffer(1, 1), file, "TC12");
+        // TC13: Band without rows
+        assertThrows(IllegalArgumentException.class,
+                () -> new PngEncoder(frameBuffer, ToneMapping.CLAMP, directory.resolve("empty.png"), 0),
+                "TC13: Band without rows must throw");
+        // TC14: The pixels of a band can't be read - the I/O failure is reported as is
+        FrameBuffer unreadable = new FrameBuffer(10, 10) {
+            @Override
+            public void quantizeRow(int yIndex, ToneMapping toneMapping, int[] pixels, int offset) {
+                if (yIndex == 7) throw new UncheckedIOException(new IOException("Unreadable row"));
+                super.quantizeRow(yIndex, toneMapping, pixels, offset);
+            }
+        };
+        IOException e = assertThrows(IOException.class,
+                () -> PngEncoder.encode(unreadable, ToneMapping.CLAMP, directory.resolve("unreadable.png"), 2),
+                "TC14: Unreadable band must throw an I/O failure");
+        assertEquals("Unreadable row", e.getMessage(), "TC14: Wrong failure");
+    }
+
+    /**
+     * Test method for {@link renderer.PngEncoder#combine(long, long, long)}.
+     */
+    @Test
+    void testCombine() {
+        byte[] data = new byte[200_000];
+        for (int k = 0; k < data.length; ++k) data[k] = (byte) (k * 31 + k / 7);
+        Adler32 whole = new Adler32();
+        whole.update(data);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The checksum of two parts combines into the checksum of the whole
+        Adler32 first = new Adler32();
+        first.update(data, 0, 70_001);
+        Adler32 second = new Adler32();
+        second.update(data, 70_001, data.length - 70_001);
+        assertEquals(whole.getValue(), PngEncoder.combine(first.getValue(), second.getValue(), data.length - 70_001),
+                "TC01: Wrong combined checksum");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty second part
+        assertEquals(whole.getValue(), PngEncoder.combine(whole.getValue(), 1, 0), "TC11: Wrong combined checksum");
+    }
+}
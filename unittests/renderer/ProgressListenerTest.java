@@ -0,0 +1,92 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.ProgressListener} and {@link renderer.ConsoleProgress}
+ */
+class ProgressListenerTest {
+    /**
+     * Listener recording the reports and the threads calling it
+     */
+    private static class RecordingListener implements ProgressListener {
+        /** The reports */
+        final List<Progress> reports = new ArrayList<>();
+        /** The final report, null before the end of the rendering */
+        Progress done = null;
+        /** The threads calling the listener */
+        final List<Thread> threads = new ArrayList<>();
+
+        @Override
+        public synchronized void progress(Progress progress) {
+            reports.add(progress);
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public synchronized void done(Progress progress) {
+            assertNull(done, "The end must be reported once");
+            done = progress;
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setProgressListener(renderer.ProgressListener, long)}.
+     */
+    @Test
+    void testProgressListener() {
+        Scene scene = TestScenes.sphereScene("progress");
+        Camera.Builder builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("progress", 40, 30));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The progress is reported by a thread of its own, and the end is reported once
+        RecordingListener listener = new RecordingListener();
+        builder.setProgressListener(listener, 1).setMultithreading(2).build().renderImage(2);
+        assertNotNull(listener.done, "TC01: The end must be reported");
+        assertEquals(40 * 30, listener.done.donePixels(), "TC01: Wrong amount of rendered pixels");
+        assertEquals(1, listener.done.fraction(), "TC01: The rendering must be complete");
+        assertEquals(40 * 30 * 2, listener.done.rays(), "TC01: Wrong amount of rays");
+        assertEquals(0, listener.done.eta(), "TC01: Nothing remains to render");
+        for (Thread thread : listener.threads)
+            assertEquals("render-progress", thread.getName(), "TC01: The listener must be called by the reporter");
+        for (int k = 1; k < listener.reports.size(); ++k)
+            assertTrue(listener.reports.get(k).donePixels() >= listener.reports.get(k - 1).donePixels(),
+                    "TC01: The progress must not go back");
+
+        // TC02: The statistics count all the rays
+        listener = new RecordingListener();
+        Camera camera = builder.setStatistics(true).setProgressListener(listener, 1).build().renderImage(2);
+        assertEquals(camera.getRenderStats().getTotalRays(), listener.done.rays(), "TC02: Wrong amount of rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Illegal report interval
+        assertThrows(IllegalArgumentException.class, () -> builder.setProgressListener(null, 0),
+                "TC11: Zero interval must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.ConsoleProgress#formatTime(long)}.
+     */
+    @Test
+    void testFormatTime() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Minutes and seconds
+        assertEquals("02:05", ConsoleProgress.formatTime(125_000_000_000L), "TC01: Wrong time");
+        // TC02: Hours
+        assertEquals("1:01:01", ConsoleProgress.formatTime(3_661_000_000_000L), "TC02: Wrong time");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No time
+        assertEquals("00:00", ConsoleProgress.formatTime(0), "TC11: Wrong time");
+    }
+}
@@ -0,0 +1,51 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.ProgressiveSampler}
+ */
+class ProgressiveSamplerTest {
+
+    /**
+     * Test method for {@link renderer.ProgressiveSampler#sample(renderer.ProgressiveSampler.SampleTracer, int)}.
+     */
+    @Test
+    void testSample() {
+        ProgressiveSampler sampler = new ProgressiveSampler(new StratifiedSampler(), 4, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A flat pixel costs a single batch
+        Color color = sampler.sample((x, y) -> new Color(10, 20, 30), 64);
+        assertEquals(4, sampler.getSampleCount(), "TC01: Flat pixel must stop after a single batch");
+        assertEquals(new Color(10, 20, 30).getColor(), color.getColor(), "TC01: Wrong flat pixel color");
+
+        // TC02: An edge pixel takes the whole budget, and the color is the mean of the samples
+        color = sampler.sample((x, y) -> x < 0 ? Color.BLACK : new Color(200, 100, 50), 64);
+        assertEquals(64, sampler.getSampleCount(), "TC02: Edge pixel must take the whole budget");
+        assertEquals(100, color.getRed(), 1e-9, "TC02: Wrong edge pixel color");
+
+        // TC03: A slightly noisy pixel stops as soon as its confidence interval is narrow enough
+        sampler.setSeed(5);
+        sampler.sample((x, y) -> new Color(100 + 4 * x, 100, 100), 1024);
+        int count = sampler.getSampleCount();
+        assertTrue(count > 4 && count < 1024, "TC03: Noisy pixel must take a few batches");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero threshold always takes the whole budget (rounded up to whole batches)
+        sampler = new ProgressiveSampler(new StratifiedSampler(), 4, 0);
+        sampler.sample((x, y) -> new Color(10, 20, 30), 10);
+        assertEquals(12, sampler.getSampleCount(), "TC11: Zero threshold must take the whole budget");
+        // TC12: A budget smaller than a batch still takes a whole batch
+        sampler.sample((x, y) -> new Color(10, 20, 30), 1);
+        assertEquals(4, sampler.getSampleCount(), "TC12: A pixel takes at least one batch");
+        // TC13: Illegal parameters
+        assertThrows(IllegalArgumentException.class, () -> new ProgressiveSampler(new StratifiedSampler(), 1, 1),
+                "TC13: A single sample batch must throw");
+        assertThrows(IllegalArgumentException.class, () -> new ProgressiveSampler(new StratifiedSampler(), 4, -1),
+                "TC13: Negative threshold must throw");
+    }
+}
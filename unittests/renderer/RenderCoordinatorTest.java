@@ -0,0 +1,180 @@
+package renderer;
+
+import geometries.Triangle;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RenderCoordinator} and {@link renderer.RenderWorker}
+ */
+class RenderCoordinatorTest {
+    /**
+     * Camera builder of the tests - a seeded rendering, so the image doesn't depend on who renders it
+     */
+    private final Camera.Builder builder;
+    /**
+     * The test scene
+     */
+    private final Scene scene;
+
+    /**
+     * Constructs the test scene and camera
+     */
+    RenderCoordinatorTest() {
+        scene = new Scene("distributed");
+        scene.geometries.add(
+                TestScenes.sphere()
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+                new Triangle(new Point(-100, -60, -150), new Point(100, -60, -150), new Point(0, 80, -200))
+                        .setEmission(new Color(200, 40, 40)).setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(50, 50, 0)));
+        builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setTileSize(8)
+                .setSeed(5)
+                .setSamplePatterns(8);
+    }
+
+    /**
+     * Gets the pixels of the frame buffer of an image writer
+     *
+     * @param imageWriter the image writer
+     * @return the pixels (RGB, clamped)
+     */
+    private static int[] pixels(ImageWriter imageWriter) {
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        return imageWriter.getFrameBuffer().toImage(ToneMapping.CLAMP).getRGB(0, 0, nX, nY, null, 0, nX);
+    }
+
+    /**
+     * Starts a worker in a thread of the test
+     *
+     * @param port    the coordinator port
+     * @param threads amount of rendering threads
+     * @return the worker thread
+     */
+    private static Thread startWorker(int port, int threads) {
+        Thread worker = new Thread(() -> {
+            try {
+                RenderWorker.work("localhost", port, threads);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        worker.start();
+        return worker;
+    }
+
+    /**
+     * Ray tracer failing once in the whole process - at a given ray of all the rays traced by its copies
+     */
+    private static class FailingRayTracer extends SimpleRayTracer {
+        /** Serialization version */
+        private static final long serialVersionUID = 1L;
+        /** Amount of the rays traced by all the copies of the tracer */
+        static final AtomicInteger traced = new AtomicInteger(0);
+        /** The failing ray */
+        private final int failing;
+
+        /**
+         * Constructs a failing ray tracer
+         *
+         * @param scene   the scene
+         * @param failing the index of the failing ray
+         */
+        FailingRayTracer(Scene scene, int failing) {
+            super(scene);
+            this.failing = failing;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            if (traced.incrementAndGet() == failing) throw new IllegalStateException("Failing ray");
+            return super.traceRay(ray);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderDistributed(int, renderer.RenderCoordinator)}.
+     */
+    @Test
+    void testRenderDistributed() throws IOException, InterruptedException {
+        ImageWriter expected = new ImageWriter("distributed", 45, 30);
+        builder.setImageWriter(expected).build().renderImage(4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Worker processes render the same image
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            ImageWriter distributed = new ImageWriter("distributed", 45, 30);
+            coordinator.launchLocalWorkers(2, 1);
+            builder.setImageWriter(distributed).build().renderDistributed(4, coordinator);
+            assertArrayEquals(pixels(expected), pixels(distributed), "TC01: Workers changed the image");
+        }
+
+        // TC02: The tiles of a failed worker are rendered by the other workers
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            Thread[] worker = new Thread[1];
+            Thread failing = new Thread(() -> {
+                try (Socket socket = new Socket("localhost", coordinator.getPort())) {
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    out.writeInt(RenderCoordinator.MAGIC);
+                    out.writeInt(RenderCoordinator.VERSION);
+                    out.writeInt(3);
+                    out.flush();
+                    in.readFully(new byte[in.readInt()]);
+                    // takes six tiles, lets another worker join and disconnects
+                    in.readFully(new byte[6 * 5 * Integer.BYTES]);
+                    worker[0] = startWorker(coordinator.getPort(), 2);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            failing.start();
+            ImageWriter distributed = new ImageWriter("distributed", 45, 30);
+            builder.setImageWriter(distributed).build().renderDistributed(4, coordinator);
+            failing.join();
+            worker[0].join();
+            assertArrayEquals(pixels(expected), pixels(distributed), "TC02: Tiles of the failed worker were lost");
+        }
+
+        // TC03: The tiles of a worker failing to render are rendered by the other workers
+        FailingRayTracer.traced.set(0);
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            Thread first = startWorker(coordinator.getPort(), 1);
+            Thread second = startWorker(coordinator.getPort(), 1);
+            ImageWriter distributed = new ImageWriter("distributed", 45, 30);
+            builder.setImageWriter(distributed).setRayTracer(new FailingRayTracer(scene, 100)).build()
+                    .renderDistributed(4, coordinator);
+            first.join();
+            second.join();
+            assertArrayEquals(pixels(expected), pixels(distributed), "TC03: Tiles of the failing worker were lost");
+        }
+        builder.setRayTracer(new SimpleRayTracer(scene));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A camera that isn't serializable
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            Camera camera = builder.setImageWriter(new ImageWriter("distributed", 45, 30))
+                    .setSampler(RandomSampler::new).build();
+            assertThrows(IllegalArgumentException.class, () -> camera.renderDistributed(4, coordinator),
+                    "TC11: Not serializable sampler factory must throw");
+        }
+        // TC12: No worker connects
+        try (RenderCoordinator coordinator = new RenderCoordinator(0).setTimeout(200)) {
+            Camera camera = builder.setSampler(null).build();
+            assertThrows(IllegalStateException.class, () -> camera.renderDistributed(4, coordinator),
+                    "TC12: Rendering without workers must throw");
+        }
+    }
+}
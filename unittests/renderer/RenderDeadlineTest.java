@@ -0,0 +1,90 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RenderDeadline}
+ */
+class RenderDeadlineTest {
+    /** Amount of tiles of the simulated image */
+    private static final int TILES = 64;
+    /** Amount of pixels of a tile */
+    private static final int PIXELS = 16;
+    /** Time of rendering a sample in nanoseconds */
+    private static final long SAMPLE_TIME = 1_000;
+
+    /** Time of the simulated clock in nanoseconds */
+    private long now = 0;
+    /** Amount of the rendered samples */
+    private long samples = 0;
+
+    /**
+     * Renders all the tiles of the simulated image one after another - a sample takes a fixed time
+     *
+     * @param deadline the deadline of the rendering
+     */
+    private void render(RenderDeadline deadline) {
+        for (int tile = 0; tile < TILES; ++tile)
+            deadline.renderTile(PIXELS, (long) (TILES - tile) * PIXELS, this::renderSamples);
+    }
+
+    /**
+     * Renders the pixels of a simulated tile
+     *
+     * @param samplesPerPixel samples per pixel
+     */
+    private void renderSamples(int samplesPerPixel) {
+        samples += (long) PIXELS * samplesPerPixel;
+        now += PIXELS * samplesPerPixel * SAMPLE_TIME;
+    }
+
+    /**
+     * Test method for {@link renderer.RenderDeadline#renderTile(int, long, java.util.function.IntConsumer)}.
+     */
+    @Test
+    void testRenderTile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A rendering that can't be done by all the samples (16.4ms) is done on time by fewer samples
+        RenderDeadline deadline = new RenderDeadline(10, 16, () -> now);
+        render(deadline);
+        assertTrue(now <= 10_000_000, "TC01: Deadline missed by " + (now - 10_000_000) + "ns");
+        assertTrue(now > 8_000_000, "TC01: Most of the time must be used");
+        assertTrue(deadline.getReducedTiles() > 0, "TC01: No tile was rendered by fewer samples");
+
+        // TC02: A rendering that can be done on time is done by all the samples (and the probe by a single
+        // sample before them)
+        now = 0;
+        samples = 0;
+        deadline = new RenderDeadline(60_000, 16, () -> now);
+        render(deadline);
+        assertEquals(0, deadline.getReducedTiles(), "TC02: Tiles were rendered by fewer samples");
+        assertEquals(TILES * PIXELS * 16 + PIXELS, samples, "TC02: Wrong amount of samples");
+
+        // TC03: The tiles started before any tile is done are probes by a single sample
+        now = 0;
+        RenderDeadline probed = new RenderDeadline(60_000, 16, () -> now);
+        int[] started = new int[2];
+        probed.renderTile(PIXELS, TILES * PIXELS, first -> {
+            if (started[0] == 0) {
+                started[0] = first;
+                // another thread starts its first tile meanwhile
+                probed.renderTile(PIXELS, TILES * PIXELS, second -> {
+                    if (started[1] == 0) started[1] = second;
+                    renderSamples(second);
+                });
+            }
+            renderSamples(first);
+        });
+        assertArrayEquals(new int[]{1, 1}, started, "TC03: The first tiles must be probes");
+        assertEquals(0, probed.getReducedTiles(), "TC03: The probes must be rendered again");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Once the deadline has passed, a tile is rendered by a single sample
+        RenderDeadline passed = new RenderDeadline(10, 16, () -> now);
+        passed.renderTile(PIXELS, TILES * PIXELS, this::renderSamples);
+        now += 20_000_000;
+        assertEquals(1, passed.samplesPerPixel(PIXELS), "TC11: Wrong samples after the deadline");
+    }
+}
@@ -0,0 +1,98 @@
+package renderer;
+
+import geometries.Plane;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import renderer.RenderStats.RayType;
+import scene.Scene;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RenderStats}
+ */
+class RenderStatsTest {
+    /**
+     * Camera builder of the tests - a reflecting sphere over a floor, seeded so every rendering traces the same rays
+     */
+    private final Camera.Builder builder;
+
+    /**
+     * Constructs the test scene and camera
+     */
+    RenderStatsTest() {
+        Scene scene = new Scene("stats");
+        scene.geometries.add(
+                TestScenes.sphere()
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30).setKr(0.5)),
+                new Plane(new Point(0, -50, 0), new Vector(0, 1, 0)).setEmission(new Color(40, 40, 40))
+                        .setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(50, 50, 0)));
+        builder = TestScenes.cameraBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setTileSize(8)
+                .setSeed(5)
+                .setSamplePatterns(8)
+                .setImageWriter(new ImageWriter("stats", 30, 20));
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#getRenderStats()}.
+     */
+    @Test
+    void testRenderStats() throws InterruptedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The rays and the intersection tests of a rendering are counted
+        RenderStats stats = builder.setStatistics(true).build().renderImage(4).getRenderStats();
+        long primary = stats.getRays(RayType.PRIMARY);
+        long reflection = stats.getRays(RayType.REFLECTION);
+        long shadow = stats.getRays(RayType.SHADOW);
+        assertEquals(30 * 20 * 4, primary, "TC01: Wrong amount of primary rays");
+        assertTrue(reflection > 0, "TC01: Reflected rays must be counted");
+        assertEquals(0, stats.getRays(RayType.REFRACTION), "TC01: There are no refracted rays");
+        assertTrue(shadow > 0, "TC01: Shadow rays must be counted");
+        assertEquals(primary + reflection + shadow, stats.getTotalRays(), "TC01: Wrong total amount of rays");
+
+        long[] depths = stats.getDepthHistogram();
+        assertEquals(primary, depths[0], "TC01: The primary rays are of depth 0");
+        assertEquals(reflection, Arrays.stream(depths).sum() - depths[0],
+                "TC01: Every reflected ray must be in the depth histogram");
+
+        // the sphere is tested first by every ray, the floor is tested only by the rays the sphere doesn't block
+        Map<String, Long> tests = stats.getIntersectionTests();
+        assertEquals(primary + reflection + shadow, tests.get("Sphere"), "TC01: Wrong amount of sphere tests");
+        assertTrue(tests.get("Plane") >= primary + reflection, "TC01: Wrong amount of plane tests");
+        assertFalse(tests.containsKey("Geometries"), "TC01: Collections must not be counted");
+
+        assertEquals(4 * 3, stats.getTileTimes().length, "TC01: Wrong amount of tiles");
+        for (long time : stats.getTileTimes()) assertTrue(time > 0, "TC01: Every tile must be timed");
+        assertTrue(stats.getRenderTime() > 0, "TC01: The rendering must be timed");
+
+        // TC02: The counts of several threads add up to the counts of a sequential rendering
+        RenderStats parallel = builder.setMultithreading(3).build().renderImage(4).getRenderStats();
+        assertEquals(stats.getTotalRays(), parallel.getTotalRays(), "TC02: Wrong amount of rays");
+        assertArrayEquals(depths, parallel.getDepthHistogram(), "TC02: Wrong depth histogram");
+        assertEquals(tests, parallel.getIntersectionTests(), "TC02: Wrong amount of intersection tests");
+
+        // TC03: A camera sharing the ray tracer and rendering at the same time doesn't affect the counts
+        Camera other = builder.setStatistics(false).setImageWriter(new ImageWriter("stats other", 30, 20)).build();
+        Camera counted = builder.setStatistics(true).setImageWriter(new ImageWriter("stats", 30, 20)).build();
+        Thread rendering = new Thread(() -> {
+            for (int i = 0; i < 20; ++i) other.renderImage(4);
+        });
+        rendering.start();
+        RenderStats shared = counted.renderImage(4).getRenderStats();
+        rendering.join();
+        assertEquals(stats.getTotalRays(), shared.getTotalRays(), "TC03: Wrong amount of rays");
+        assertEquals(tests, shared.getIntersectionTests(), "TC03: Wrong amount of intersection tests");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No statistics are collected by default
+        assertNull(builder.setStatistics(false).build().renderImage(4).getRenderStats(),
+                "TC11: Statistics must not be collected");
+    }
+}
@@ -0,0 +1,134 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link renderer.Sampler} implementations
+ */
+class SamplerTest {
+    /**
+     * All the samplers
+     */
+    private final List<Supplier<Sampler>> samplers =
+            List.of(RandomSampler::new, StratifiedSampler::new, HaltonSampler::new, SobolSampler::new);
+
+    /**
+     * Test method for {@link renderer.Sampler#generate(double[])} of all the samplers.
+     */
+    @Test
+    void testGenerate() {
+        for (Supplier<Sampler> factory : samplers) {
+            Sampler sampler = factory.get();
+            String name = sampler.getClass().getSimpleName();
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: All the samples are inside the pixel
+            for (int count : new int[]{1, 7, 16, 100}) {
+                double[] samples = new double[2 * count];
+                sampler.generate(samples);
+                for (double c : samples)
+                    assertTrue(c >= -0.5 && c < 0.5, "TC01: " + name + " sample is outside the pixel");
+            }
+
+            // TC02: A seeded sampler is reproducible
+            double[] first = new double[18];
+            double[] second = new double[18];
+            sampler.setSeed(17);
+            sampler.generate(first);
+            sampler.setSeed(17);
+            sampler.generate(second);
+            assertArrayEquals(first, second, "TC02: " + name + " is not reproducible");
+
+            // TC03: Consequent pixels get different samples
+            sampler.generate(second);
+            assertFalse(java.util.Arrays.equals(first, second), "TC03: " + name + " repeats the same samples");
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.StratifiedSampler#generate(double[])}.
+     */
+    @Test
+    void testStratified() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 12 samples - a 3x4 grid with exactly one sample in every cell
+        assertOnePerCell(new StratifiedSampler(), 12, 4, 3, "TC01");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A prime number of samples - a single row of cells
+        assertOnePerCell(new StratifiedSampler(), 7, 7, 1, "TC11");
+    }
+
+    /**
+     * Test method for {@link renderer.SobolSampler#generate(double[])}.
+     */
+    @Test
+    void testSobol() {
+        SobolSampler sampler = new SobolSampler();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 16 scrambled samples are a (0,2)-net - one sample in every elementary rectangle
+        for (int cols = 1; cols <= 16; cols *= 2)
+            assertOnePerCell(sampler, 16, cols, 16 / cols, "TC01");
+    }
+
+    /**
+     * Test method for {@link renderer.HaltonSampler#generate(double[])}.
+     */
+    @Test
+    void testHalton() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Radical inverses
+        assertEquals(0.5, HaltonSampler.radicalInverse(1, 2), 1e-15, "TC01: Wrong radical inverse");
+        assertEquals(0.375, HaltonSampler.radicalInverse(6, 2), 1e-15, "TC01: Wrong radical inverse");
+        assertEquals(7d / 9, HaltonSampler.radicalInverse(5, 3), 1e-15, "TC01: Wrong radical inverse");
+        // TC02: 6 samples are stratified in a 2x3 grid (bases 2 and 3)
+        assertOnePerCell(new HaltonSampler(), 6, 2, 3, "TC02");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Index 0
+        assertEquals(0, HaltonSampler.radicalInverse(0, 3), "TC11: Wrong radical inverse of 0");
+    }
+
+    /**
+     * Checks that a sampler puts exactly one sample in every cell of a grid over the pixel.
+     * The rotation of the Halton sampler shifts the cells modulo 1, so the grid is shifted
+     * by the position of the first sample inside its cell.
+     *
+     * @param sampler the sampler
+     * @param count   the amount of samples
+     * @param cols    the amount of grid columns
+     * @param rows    the amount of grid rows
+     * @param tc      the test case name
+     */
+    private static void assertOnePerCell(Sampler sampler, int count, int cols, int rows, String tc) {
+        double[] samples = new double[2 * count];
+        sampler.generate(samples);
+        int[][] cells = new int[rows][cols];
+        double shiftX = sampler instanceof HaltonSampler ? frac((samples[0] + 0.5) * cols) / cols : 0;
+        double shiftY = sampler instanceof HaltonSampler ? frac((samples[1] + 0.5) * rows) / rows : 0;
+        for (int k = 0; k < count; ++k) {
+            int col = (int) (frac(samples[2 * k] + 0.5 - shiftX + 1e-12) * cols);
+            int row = (int) (frac(samples[2 * k + 1] + 0.5 - shiftY + 1e-12) * rows);
+            ++cells[row][col];
+        }
+        for (int[] row : cells)
+            for (int cell : row)
+                assertEquals(1, cell, tc + ": " + sampler.getClass().getSimpleName() + " is not stratified in "
+                        + cols + "x" + rows);
+    }
+
+    /**
+     * Gets the fractional part of a number
+     *
+     * @param value the number
+     * @return the fractional part, in [0, 1)
+     */
+    private static double frac(double value) {
+        return value - Math.floor(value);
+    }
+}
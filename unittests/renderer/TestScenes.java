@@ -0,0 +1,51 @@
+package renderer;
+
+import geometries.Geometry;
+import geometries.Sphere;
+import primitives.*;
+import scene.Scene;
+
+/**
+ * Common fixture of the rendering tests - a blue sphere in front of a camera that looks at it through a
+ * 200x200 view plane
+ */
+final class TestScenes {
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TestScenes() {}
+
+    /**
+     * Creates the sphere of the tests
+     *
+     * @return the sphere
+     */
+    static Geometry sphere() {
+        return new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(20, 50, 200));
+    }
+
+    /**
+     * Creates a scene of the sphere alone
+     *
+     * @param name the name of the scene
+     * @return the scene
+     */
+    static Scene sphereScene(String name) {
+        Scene scene = new Scene(name);
+        scene.geometries.add(sphere());
+        return scene;
+    }
+
+    /**
+     * Creates a camera builder looking at the sphere, without progress printing
+     *
+     * @return the camera builder (without a ray tracer and an image writer)
+     */
+    static Camera.Builder cameraBuilder() {
+        return Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(200, 200)
+                .setDebugPrint(0);
+    }
+}
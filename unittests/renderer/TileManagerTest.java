@@ -0,0 +1,103 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.TileManager}
+ */
+class TileManagerTest {
+
+    /**
+     * Test method for {@link renderer.TileManager#nextTile()}.
+     */
+    @Test
+    void testNextTile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Tiles cover every pixel of the image exactly once (with partial tiles at the edges)
+        int nX = 37, nY = 21;
+        TileManager manager = new TileManager(nY, nX, 8);
+        int[][] covered = new int[nY][nX];
+        int tiles = 0;
+        TileManager.Tile tile;
+        while ((tile = manager.nextTile()) != null) {
+            ++tiles;
+            for (int row = tile.row0(); row < tile.row1(); ++row)
+                for (int col = tile.col0(); col < tile.col1(); ++col)
+                    ++covered[row][col];
+            manager.tileDone(tile);
+        }
+        assertEquals(5 * 3, tiles, "TC01: Wrong amount of tiles");
+        for (int[] row : covered)
+            for (int count : row)
+                assertEquals(1, count, "TC01: Pixel was not rendered exactly once");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Tile larger than the image
+        manager = new TileManager(3, 4, 16);
+        assertEquals(new TileManager.Tile(0, 0, 4, 3), manager.nextTile(), "TC11: Wrong single tile");
+        assertNull(manager.nextTile(), "TC11: There must be a single tile");
+        // TC12: Illegal tile size
+        assertThrows(IllegalArgumentException.class, () -> new TileManager(3, 4, 0),
+                "TC12: Zero tile size must throw");
+    }
+
+    /**
+     * Test method for {@link renderer.TileManager#tileDone(renderer.TileManager.Tile)} with a listener
+     * of the rows of tiles.
+     */
+    @Test
+    void testTileRowListener() {
+        java.util.List<Integer> rows = new java.util.ArrayList<>();
+        TileManager manager = new TileManager(21, 37, 8, rows::add);
+        java.util.List<TileManager.Tile> tiles = new java.util.ArrayList<>();
+        TileManager.Tile tile;
+        while ((tile = manager.nextTile()) != null) tiles.add(tile);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A row is reported once all its tiles are done, in any order
+        java.util.Collections.reverse(tiles);
+        for (int k = 0; k < 5; ++k) manager.tileDone(tiles.get(k));
+        assertEquals(java.util.List.of(2), rows, "TC01: The last row of tiles must be reported");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A row is not reported before its last tile
+        for (int k = 5; k < 9; ++k) manager.tileDone(tiles.get(k));
+        assertEquals(java.util.List.of(2), rows, "TC11: Incomplete row must not be reported");
+        for (int k = 9; k < tiles.size(); ++k) manager.tileDone(tiles.get(k));
+        assertEquals(java.util.List.of(2, 1, 0), rows, "TC11: Wrong reported rows");
+    }
+
+    /**
+     * Test method for {@link renderer.TileManager#skip(java.util.BitSet)}.
+     */
+    @Test
+    void testSkip() {
+        java.util.List<Integer> rows = new java.util.ArrayList<>();
+        TileManager manager = new TileManager(21, 37, 8, rows::add);
+        java.util.BitSet skipped = new java.util.BitSet();
+        skipped.set(0, 5); // the first row of tiles
+        skipped.set(7);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Skipped tiles are not allocated, and their complete rows are reported at once
+        manager.skip(skipped);
+        assertEquals(java.util.List.of(0), rows, "TC01: Skipped row of tiles must be reported");
+        java.util.List<Integer> allocated = new java.util.ArrayList<>();
+        TileManager.Tile tile;
+        while ((tile = manager.nextTile()) != null) {
+            allocated.add(manager.getIndex(tile));
+            manager.tileDone(tile);
+        }
+        assertEquals(java.util.List.of(5, 6, 8, 9, 10, 11, 12, 13, 14), allocated, "TC01: Wrong allocated tiles");
+        assertEquals(java.util.List.of(0, 1, 2), rows, "TC01: Wrong reported rows");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: All the tiles are skipped
+        manager = new TileManager(21, 37, 8);
+        skipped.set(0, manager.getTotalTiles());
+        manager.skip(skipped);
+        assertNull(manager.nextTile(), "TC11: Skipped tile was allocated");
+    }
+}